@@ -23,4 +23,9 @@ public class AdminPaymentController {
         Sort sort = sortDir.equalsIgnoreCase("asc") ? Sort.by(sortBy).ascending() : Sort.by(sortBy).descending();
         return ResponseEntity.ok(ApiResponse.success("Payments", paymentService.getAllPayments(status, PageRequest.of(page, size, sort))));
     }
+
+    @GetMapping("/stats")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getStats() {
+        return ResponseEntity.ok(ApiResponse.success("Payment statistics", paymentService.getPaymentStats()));
+    }
 }
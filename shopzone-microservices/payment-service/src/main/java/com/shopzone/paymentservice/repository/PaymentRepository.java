@@ -5,7 +5,11 @@ import com.shopzone.paymentservice.model.enums.PaymentStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -15,5 +19,14 @@ public interface PaymentRepository extends JpaRepository<Payment, String> {
     Page<Payment> findByUserIdOrderByCreatedAtDesc(String userId, Pageable pageable);
     Page<Payment> findByStatusOrderByCreatedAtDesc(PaymentStatus status, Pageable pageable);
     long countByStatus(PaymentStatus status);
+
+    /** status, count, sum(amount), sum(amountRefunded) */
+    @Query("SELECT p.status, COUNT(p), COALESCE(SUM(p.amount), 0), COALESCE(SUM(p.amountRefunded), 0) FROM Payment p GROUP BY p.status")
+    List<Object[]> aggregateByStatus();
+
+    /** cardBrand, count, sum(amount), sum(amountRefunded) */
+    @Query("SELECT p.cardBrand, COUNT(p), COALESCE(SUM(p.amount), 0), COALESCE(SUM(p.amountRefunded), 0) FROM Payment p " +
+           "WHERE p.status IN :statuses GROUP BY p.cardBrand")
+    List<Object[]> aggregateByCardBrand(@Param("statuses") Collection<PaymentStatus> statuses);
     boolean existsByStripePaymentIntentId(String intentId);
 }
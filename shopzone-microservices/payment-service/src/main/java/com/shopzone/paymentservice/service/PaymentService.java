@@ -11,21 +11,31 @@ import com.stripe.model.Charge;
 import com.stripe.model.PaymentIntent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service @RequiredArgsConstructor @Slf4j
 public class PaymentService {
+    private static final Set<PaymentStatus> REVENUE_STATUSES = EnumSet.of(PaymentStatus.PAID, PaymentStatus.PARTIALLY_REFUNDED, PaymentStatus.REFUNDED);
+
     private final PaymentRepository paymentRepository;
     private final StripeService stripeService;
     private final StripeConfig stripeConfig;
     private final OrderClient orderClient;
     private final PaymentEventProducer paymentEventProducer;  // KAFKA: new dependency
+    private final AtomicReference<Map<String, Object>> statsSnapshot = new AtomicReference<>();
+
+    @Value("${payment.stats-ttl:PT30S}")
+    private Duration statsTtl;
 
     @Transactional
     public Map<String, Object> createPaymentIntent(String orderId, String orderNumber,
@@ -114,6 +124,62 @@ public class PaymentService {
         return toPaymentMap(p);
     }
 
+    /** Aggregated in the database and cached for payment.stats-ttl; never loads payment rows. */
+    public Map<String, Object> getPaymentStats() {
+        Map<String, Object> current = statsSnapshot.get();
+        if (current != null && ((LocalDateTime) current.get("generatedAt")).plus(statsTtl).isAfter(LocalDateTime.now())) {
+            return current;
+        }
+
+        Map<String, Map<String, Object>> byStatus = new LinkedHashMap<>();
+        long totalPayments = 0, revenueCount = 0;
+        BigDecimal totalRevenue = BigDecimal.ZERO, totalRefunded = BigDecimal.ZERO;
+        for (Object[] row : paymentRepository.aggregateByStatus()) {
+            PaymentStatus status = (PaymentStatus) row[0];
+            long count = ((Number) row[1]).longValue();
+            byStatus.put(status.name(), toBreakdown(row));
+            totalPayments += count;
+            if (REVENUE_STATUSES.contains(status)) {
+                revenueCount += count;
+                totalRevenue = totalRevenue.add((BigDecimal) row[2]);
+                totalRefunded = totalRefunded.add((BigDecimal) row[3]);
+            }
+        }
+
+        Map<String, Map<String, Object>> byCardBrand = new LinkedHashMap<>();
+        for (Object[] row : paymentRepository.aggregateByCardBrand(REVENUE_STATUSES)) {
+            byCardBrand.put(row[0] != null ? (String) row[0] : "unknown", toBreakdown(row));
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("totalPayments", totalPayments);
+        stats.put("successfulPayments", countOf(byStatus, PaymentStatus.PAID));
+        stats.put("failedPayments", countOf(byStatus, PaymentStatus.FAILED));
+        stats.put("totalRevenue", totalRevenue);
+        stats.put("totalRefunded", totalRefunded);
+        stats.put("averagePaymentAmount", average(totalRevenue, revenueCount));
+        stats.put("byStatus", byStatus);
+        stats.put("byCardBrand", byCardBrand);
+        stats.put("generatedAt", LocalDateTime.now());
+        statsSnapshot.set(Collections.unmodifiableMap(stats));
+        return statsSnapshot.get();
+    }
+
+    private static Map<String, Object> toBreakdown(Object[] row) {
+        long count = ((Number) row[1]).longValue();
+        return Map.of("count", count, "totalAmount", row[2], "totalRefunded", row[3],
+            "averageAmount", average((BigDecimal) row[2], count));
+    }
+
+    private static long countOf(Map<String, Map<String, Object>> byStatus, PaymentStatus status) {
+        Map<String, Object> breakdown = byStatus.get(status.name());
+        return breakdown != null ? (long) breakdown.get("count") : 0;
+    }
+
+    private static BigDecimal average(BigDecimal total, long count) {
+        return count > 0 ? total.divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP) : BigDecimal.ZERO;
+    }
+
     private Map<String, Object> toPaymentMap(Payment p) {
         return Map.ofEntries(
             Map.entry("id", p.getId()), Map.entry("orderId", p.getOrderId()),
@@ -3,14 +3,21 @@ package com.shopzone.productservice.controller;
 import com.shopzone.common.dto.response.ApiResponse;
 import com.shopzone.common.dto.response.ProductResponse;
 import com.shopzone.common.exception.ResourceNotFoundException;
+import com.shopzone.productservice.model.Category;
 import com.shopzone.productservice.model.Product;
+import com.shopzone.productservice.repository.CategoryRepository;
 import com.shopzone.productservice.repository.ProductRepository;
 import io.swagger.v3.oas.annotations.Hidden;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -20,6 +27,7 @@ import java.util.stream.Collectors;
 @RestController @RequestMapping("/api/internal/products") @RequiredArgsConstructor @Hidden
 public class InternalProductController {
     private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
 
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<ProductResponse>> getById(@PathVariable String id) {
@@ -28,11 +36,21 @@ public class InternalProductController {
         return ResponseEntity.ok(ApiResponse.success("Found", toResponse(p)));
     }
 
+    /** Includes inactive products, with category name and slug (Search Service indexes them). */
     @PostMapping("/batch")
     public ResponseEntity<ApiResponse<List<ProductResponse>>> getByIds(@RequestBody List<String> ids) {
-        List<ProductResponse> products = productRepository.findByIdIn(ids).stream()
-            .map(this::toResponse).collect(Collectors.toList());
-        return ResponseEntity.ok(ApiResponse.success("Found", products));
+        return ResponseEntity.ok(ApiResponse.success("Found", withCategories(productRepository.findByIdIn(ids))));
+    }
+
+    /** Active products in id order after the given id, for the Search Service reindex to page through. */
+    @GetMapping("/active")
+    public ResponseEntity<ApiResponse<List<ProductResponse>>> getActivePage(
+            @RequestParam(required = false) String after, @RequestParam(defaultValue = "500") int size) {
+        Pageable pageable = PageRequest.of(0, Math.max(1, Math.min(size, 1000)), Sort.by("id"));
+        List<Product> products = after != null
+            ? productRepository.findByActiveTrueAndIdGreaterThan(after, pageable)
+            : productRepository.findByActiveTrue(pageable).getContent();
+        return ResponseEntity.ok(ApiResponse.success("Found", withCategories(products)));
     }
 
     @PostMapping("/{id}/reduce-stock")
@@ -70,6 +88,18 @@ public class InternalProductController {
         )));
     }
 
+    private List<ProductResponse> withCategories(List<Product> products) {
+        Map<String, Category> categories = categoryRepository.findAllById(products.stream()
+                .map(Product::getCategoryId).filter(Objects::nonNull).distinct().toList()).stream()
+            .collect(Collectors.toMap(Category::getId, Function.identity()));
+        return products.stream().map(p -> {
+            ProductResponse response = toResponse(p);
+            Category category = p.getCategoryId() != null ? categories.get(p.getCategoryId()) : null;
+            if (category != null) { response.setCategoryName(category.getName()); response.setCategorySlug(category.getSlug()); }
+            return response;
+        }).collect(Collectors.toList());
+    }
+
     private ProductResponse toResponse(Product p) {
         return ProductResponse.builder()
             .id(p.getId()).name(p.getName()).description(p.getDescription()).slug(p.getSlug())
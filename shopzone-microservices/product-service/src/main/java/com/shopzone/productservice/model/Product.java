@@ -31,6 +31,9 @@ public class Product {
     @Builder.Default private Integer reviewCount = 0;
     @CreatedDate private LocalDateTime createdAt;
     @LastModifiedDate private LocalDateTime updatedAt;
+    /** Set on every save; cleared by SearchSyncOutbox once the change is published. */
+    @Indexed(sparse = true) private LocalDateTime searchSyncRequestedAt;
+    private String searchSyncToken;
 
     @Data @Builder @NoArgsConstructor @AllArgsConstructor
     public static class ProductDetails {
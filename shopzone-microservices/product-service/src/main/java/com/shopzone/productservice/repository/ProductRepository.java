@@ -69,6 +69,7 @@ public interface ProductRepository extends MongoRepository<Product, String> {
     long countLowStock(int threshold);
 
     List<Product> findByActiveTrue();
+    List<Product> findByActiveTrueAndIdGreaterThan(String id, Pageable pageable);
     long countByActiveTrue();
     List<Product> findByUpdatedAtAfter(LocalDateTime since);
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import com.shopzone.productservice.dto.request.CategoryRequest;
 import com.shopzone.productservice.dto.response.BreadcrumbItem;
 import com.shopzone.productservice.dto.response.CategoryResponse;
 import com.shopzone.productservice.model.Category;
+import com.shopzone.productservice.model.Product;
 import com.shopzone.productservice.repository.CategoryRepository;
 import com.shopzone.productservice.repository.ProductRepository;
 import com.shopzone.common.exception.BadRequestException;
@@ -25,6 +26,7 @@ public class CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final ProductRepository productRepository;
+    private final SearchSyncOutbox searchSyncOutbox;
     private final Slugify slugify = Slugify.builder().build();
 
     public CategoryResponse createCategory(CategoryRequest request) {
@@ -113,7 +115,10 @@ public class CategoryService {
         category.setSlug(newSlug); category.setImageUrl(request.getImageUrl());
         category.setParentId(request.getParentId()); category.setActive(request.isActive());
         category.setDisplayOrder(request.getDisplayOrder());
-        return buildCategoryResponse(categoryRepository.save(category));
+        Category saved = categoryRepository.save(category);
+        // Search documents carry the category name and slug
+        searchSyncOutbox.markChanged(productRepository.findByCategoryId(id).stream().map(Product::getId).toList());
+        return buildCategoryResponse(saved);
     }
 
     public void deleteCategory(String id) {
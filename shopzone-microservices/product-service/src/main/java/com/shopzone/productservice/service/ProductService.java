@@ -1,7 +1,6 @@
 package com.shopzone.productservice.service;
 
 import com.github.slugify.Slugify;
-import com.shopzone.productservice.client.SearchSyncClient;
 import com.shopzone.productservice.dto.request.ProductRequest;
 import com.shopzone.productservice.dto.request.ProductUpdateRequest;
 import com.shopzone.productservice.dto.response.CategoryResponse;
@@ -38,7 +37,7 @@ public class ProductService {
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
     private final CloudinaryService cloudinaryService;
-    private final SearchSyncClient searchSyncClient;
+    private final SearchSyncOutbox searchSyncOutbox;
     private final Slugify slugify = Slugify.builder().build();
 
 
@@ -85,12 +84,6 @@ public class ProductService {
         Product saved = productRepository.save(product);
         log.info("Product created with ID: {}", saved.getId());
 
-        try {
-            searchSyncClient.syncProduct(saved.getId());
-        } catch (Exception e) {
-            log.warn("Failed to sync product to Elasticsearch: {}", e.getMessage());
-        }
-
         return buildProductResponse(saved, category.getName());
     }
 
@@ -191,12 +184,6 @@ public class ProductService {
 
         Product updated = productRepository.save(product);
 
-        try {
-            searchSyncClient.syncProduct(updated.getId());
-        } catch (Exception e) {
-            log.warn("Failed to sync product to Elasticsearch: {}", e.getMessage());
-        }
-
         return buildProductResponse(updated, category.getName());
     }
 
@@ -245,12 +232,6 @@ public class ProductService {
 
         Product updated = productRepository.save(product);
 
-        try {
-            searchSyncClient.syncProduct(updated.getId());
-        } catch (Exception e) {
-            log.warn("Failed to sync product to Elasticsearch: {}", e.getMessage());
-        }
-
         return buildProductResponse(updated, categoryName);
     }
 
@@ -263,13 +244,8 @@ public class ProductService {
             cloudinaryService.deleteImages(product.getImages());
         }
 
+        searchSyncOutbox.recordDeletion(id);
         productRepository.delete(product);
-
-        try {
-            searchSyncClient.removeProduct(id);
-        } catch (Exception e) {
-            log.warn("Failed to remove product from Elasticsearch: {}", e.getMessage());
-        }
     }
 
 
@@ -280,9 +256,6 @@ public class ProductService {
         product.getImages().add(imageUrl);
         Product updated = productRepository.save(product);
 
-        try { searchSyncClient.syncProduct(updated.getId()); }
-        catch (Exception e) { log.warn("Sync failed: {}", e.getMessage()); }
-
         return buildProductResponse(updated, getCategoryName(updated.getCategoryId()));
     }
 
@@ -295,9 +268,6 @@ public class ProductService {
         }
         Product updated = productRepository.save(product);
 
-        try { searchSyncClient.syncProduct(updated.getId()); }
-        catch (Exception e) { log.warn("Sync failed: {}", e.getMessage()); }
-
         return buildProductResponse(updated, getCategoryName(updated.getCategoryId()));
     }
 
@@ -307,9 +277,6 @@ public class ProductService {
             product.setAverageRating(averageRating != null ? averageRating : 0.0);
             product.setReviewCount(reviewCount != null ? reviewCount : 0);
             productRepository.save(product);
-
-            try { searchSyncClient.updateRating(productId, averageRating, reviewCount); }
-            catch (Exception e) { log.warn("Rating sync failed: {}", e.getMessage()); }
         });
     }
 
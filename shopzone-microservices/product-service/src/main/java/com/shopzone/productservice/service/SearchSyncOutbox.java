@@ -0,0 +1,201 @@
+package com.shopzone.productservice.service;
+
+import com.shopzone.common.config.KafkaTopicConfig;
+import com.shopzone.common.event.ProductEvent;
+import com.shopzone.productservice.model.Product;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertCallback;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Outbox for keeping Search Service's index in step with the products collection.
+ *
+ * Every product save marks the product pending in the same write (the before-convert
+ * callback below); deletes leave a tombstone in product_search_deletions. A scheduled
+ * relay publishes a ProductEvent per pending product and tombstone to
+ * shopzone.product.events and waits for Kafka to acknowledge it. Only then is the flag
+ * cleared, and only if the product was not saved again in the meantime. A failed publish
+ * leaves the change pending for the next poll, so nothing is lost while Kafka is down.
+ * Relays on several instances may publish the same product twice; Search Service reads
+ * the current product for every event, so duplicates are harmless.
+ */
+@Service @RequiredArgsConstructor @Slf4j
+public class SearchSyncOutbox implements BeforeConvertCallback<Product> {
+    private static final String DELETIONS_COLLECTION = "product_search_deletions";
+    private static final Duration ABANDONED_DELETION_AGE = Duration.ofMinutes(5);
+
+    private final MongoTemplate mongoTemplate;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicLong pendingCount = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    @Value("${search.outbox.batch-size:500}")
+    private int batchSize;
+
+    /** How long one relay pass waits for Kafka to acknowledge its events. */
+    @Value("${search.outbox.publish-timeout:PT30S}")
+    private Duration publishTimeout;
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("shopzone.search.outbox.pending", pendingCount, AtomicLong::get)
+            .description("Product changes not yet published for the search index")
+            .register(meterRegistry);
+        Gauge.builder("shopzone.search.outbox.lag", lagMillis, value -> value.get() / 1000.0)
+            .description("Age of the oldest product change not yet published for the search index")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public Product onBeforeConvert(Product product, String collection) {
+        product.setSearchSyncRequestedAt(LocalDateTime.now());
+        product.setSearchSyncToken(UUID.randomUUID().toString());
+        return product;
+    }
+
+    /** Record that a product is being deleted. Call before deleting it. */
+    public void recordDeletion(String productId) {
+        mongoTemplate.save(new Document("_id", productId).append("deletedAt", new Date()), DELETIONS_COLLECTION);
+    }
+
+    /** Mark products whose search document changed without a save of the product, such as on a category rename. */
+    public void markChanged(Collection<String> productIds) {
+        if (productIds.isEmpty()) return;
+        mongoTemplate.updateMulti(Query.query(Criteria.where("id").in(productIds)),
+            new Update().set("searchSyncRequestedAt", LocalDateTime.now()).set("searchSyncToken", UUID.randomUUID().toString()),
+            Product.class);
+    }
+
+    @Scheduled(fixedDelayString = "${search.outbox.poll-interval-ms:1000}")
+    public void relay() {
+        try {
+            publishDeletions();
+            List<Product> batch;
+            do {
+                batch = findPending();
+                // Stop at the first batch Kafka did not fully acknowledge; the rest waits for the next poll
+            } while (!batch.isEmpty() && publishChanges(batch) == batch.size() && batch.size() == batchSize);
+            updateMetrics();
+        } catch (Exception e) {
+            log.error("Search outbox relay failed: {}", e.getMessage());
+        }
+    }
+
+    private List<Product> findPending() {
+        Query query = Query.query(Criteria.where("searchSyncRequestedAt").exists(true))
+            .with(Sort.by("searchSyncRequestedAt"))
+            .limit(batchSize);
+        query.fields().include("searchSyncToken");
+        return mongoTemplate.find(query, Product.class);
+    }
+
+    private int publishChanges(List<Product> products) {
+        List<CompletableFuture<SendResult<String, Object>>> sends = products.stream()
+            .map(product -> publish("PRODUCT_CHANGED", product.getId()))
+            .toList();
+
+        long deadline = System.nanoTime() + publishTimeout.toNanos();
+        BulkOperations updates = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+        int published = 0;
+        for (int i = 0; i < products.size(); i++) {
+            if (!acknowledged(sends.get(i), deadline)) continue;
+            Product product = products.get(i);
+            updates.updateOne(
+                Query.query(Criteria.where("id").is(product.getId()).and("searchSyncToken").is(product.getSearchSyncToken())),
+                new Update().unset("searchSyncRequestedAt").unset("searchSyncToken"));
+            published++;
+        }
+        if (published > 0) updates.execute();
+
+        meterRegistry.counter("shopzone.search.outbox.published").increment(published);
+        if (published < products.size()) {
+            meterRegistry.counter("shopzone.search.outbox.failed").increment(products.size() - published);
+            log.warn("Search outbox: {} of {} product events not acknowledged, will retry", products.size() - published, products.size());
+        }
+        return published;
+    }
+
+    /**
+     * Publish tombstones whose product is gone. A tombstone whose product still exists is
+     * for a delete still in progress, or one that failed, and is dropped once abandoned.
+     */
+    private void publishDeletions() {
+        List<Document> tombstones = mongoTemplate.find(new Query().limit(batchSize), Document.class, DELETIONS_COLLECTION);
+        long deadline = System.nanoTime() + publishTimeout.toNanos();
+        for (Document tombstone : tombstones) {
+            String productId = tombstone.getString("_id");
+            Query byId = Query.query(Criteria.where("_id").is(productId));
+            if (mongoTemplate.exists(byId, Product.class)) {
+                LocalDateTime deletedAt = LocalDateTime.ofInstant(tombstone.getDate("deletedAt").toInstant(), ZoneId.systemDefault());
+                if (deletedAt.isBefore(LocalDateTime.now().minus(ABANDONED_DELETION_AGE))) mongoTemplate.remove(byId, DELETIONS_COLLECTION);
+                continue;
+            }
+            if (acknowledged(publish("PRODUCT_DELETED", productId), deadline)) mongoTemplate.remove(byId, DELETIONS_COLLECTION);
+        }
+    }
+
+    private CompletableFuture<SendResult<String, Object>> publish(String eventType, String productId) {
+        ProductEvent event = ProductEvent.builder()
+            .eventType(eventType)
+            .eventId(UUID.randomUUID().toString())
+            .timestamp(LocalDateTime.now())
+            .productId(productId)
+            .build();
+        return kafkaTemplate.send(KafkaTopicConfig.PRODUCT_EVENTS_TOPIC, productId, event);
+    }
+
+    private static boolean acknowledged(CompletableFuture<?> send, long deadlineNanos) {
+        try {
+            send.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            log.debug("Product event not acknowledged: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private void updateMetrics() {
+        Query pending = Query.query(Criteria.where("searchSyncRequestedAt").exists(true));
+        pendingCount.set(mongoTemplate.count(pending, Product.class) + mongoTemplate.count(new Query(), DELETIONS_COLLECTION));
+
+        Query oldest = Query.query(Criteria.where("searchSyncRequestedAt").exists(true))
+            .with(Sort.by("searchSyncRequestedAt"))
+            .limit(1);
+        oldest.fields().include("searchSyncRequestedAt");
+        Product product = mongoTemplate.findOne(oldest, Product.class);
+        lagMillis.set(product != null && product.getSearchSyncRequestedAt() != null
+            ? Math.max(0, Duration.between(product.getSearchSyncRequestedAt(), LocalDateTime.now()).toMillis()) : 0);
+    }
+}
@@ -0,0 +1,48 @@
+package com.shopzone.searchservice.client;
+
+import com.shopzone.common.dto.response.ApiResponse;
+import com.shopzone.common.dto.response.ProductResponse;
+import com.shopzone.common.exception.ServiceCommunicationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.*;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Component
+public class ProductClient {
+    private final RestTemplate restTemplate;
+    private final String productUrl;
+    public ProductClient(RestTemplate restTemplate, @Value("${services.product-url}") String url) {
+        this.restTemplate = restTemplate; this.productUrl = url;
+    }
+
+    /** One batch call for all ids; throws so the caller can retry rather than index stale stock. */
+    public List<ProductResponse> getProductsByIds(Collection<String> ids) {
+        try {
+            HttpEntity<List<String>> entity = new HttpEntity<>(List.copyOf(ids));
+            ResponseEntity<ApiResponse<List<ProductResponse>>> resp = restTemplate.exchange(
+                productUrl + "/api/internal/products/batch", HttpMethod.POST, entity, new ParameterizedTypeReference<>() {});
+            if (resp.getBody() != null && resp.getBody().isSuccess()) return resp.getBody().getData();
+            throw new ServiceCommunicationException("product-service", "Batch product lookup failed");
+        } catch (ServiceCommunicationException e) { throw e; }
+        catch (Exception e) { throw new ServiceCommunicationException("product-service", e.getMessage(), e); }
+    }
+
+    /** One page of active products in id order, after afterId (null for the first page); empty at the end. */
+    public List<ProductResponse> getActiveProducts(String afterId, int size) {
+        try {
+            String url = UriComponentsBuilder.fromHttpUrl(productUrl + "/api/internal/products/active")
+                .queryParamIfPresent("after", Optional.ofNullable(afterId)).queryParam("size", size).toUriString();
+            ResponseEntity<ApiResponse<List<ProductResponse>>> resp = restTemplate.exchange(
+                url, HttpMethod.GET, null, new ParameterizedTypeReference<>() {});
+            if (resp.getBody() != null && resp.getBody().isSuccess()) return resp.getBody().getData();
+            throw new ServiceCommunicationException("product-service", "Active product page lookup failed");
+        } catch (ServiceCommunicationException e) { throw e; }
+        catch (Exception e) { throw new ServiceCommunicationException("product-service", e.getMessage(), e); }
+    }
+}
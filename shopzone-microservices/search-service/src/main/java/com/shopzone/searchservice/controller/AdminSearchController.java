@@ -0,0 +1,26 @@
+package com.shopzone.searchservice.controller;
+
+import com.shopzone.common.dto.response.ApiResponse;
+import com.shopzone.searchservice.service.ReindexService;
+import com.shopzone.searchservice.service.ReindexService.ReindexStatus;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController @RequestMapping("/api/admin/search") @RequiredArgsConstructor
+@Tag(name = "Admin Search", description = "Admin search index management")
+public class AdminSearchController {
+    private final ReindexService reindexService;
+
+    /** Rebuilds the products index in the background; 400 if a reindex is already running. */
+    @PostMapping("/reindex")
+    public ResponseEntity<ApiResponse<ReindexStatus>> reindex() {
+        return ResponseEntity.ok(ApiResponse.success("Reindex started", reindexService.startReindex()));
+    }
+
+    @GetMapping("/reindex")
+    public ResponseEntity<ApiResponse<ReindexStatus>> reindexStatus() {
+        return ResponseEntity.ok(ApiResponse.success("Reindex status", reindexService.getStatus()));
+    }
+}
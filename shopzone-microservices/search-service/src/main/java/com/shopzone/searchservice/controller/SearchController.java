@@ -20,8 +20,8 @@ public class SearchController {
             @RequestParam(required = false) String brand, @RequestParam(required = false) Double minRating,
             @RequestParam(required = false) Boolean inStock, @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "12") int size, @RequestParam(defaultValue = "relevance") String sortBy,
-            @RequestParam(defaultValue = "desc") String sortDir) {
+            @RequestParam(defaultValue = "desc") String sortDir, @RequestParam(required = false) String cursor) {
         return ResponseEntity.ok(ApiResponse.success("Search completed",
-            searchService.search(q, minPrice, maxPrice, categoryId, brand, minRating, inStock, page, size, sortBy, sortDir)));
+            searchService.search(q, minPrice, maxPrice, categoryId, brand, minRating, inStock, page, size, sortBy, sortDir, cursor)));
     }
 }
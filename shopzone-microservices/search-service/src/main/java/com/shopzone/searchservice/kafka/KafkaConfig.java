@@ -8,14 +8,19 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.DefaultErrorHandler;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.util.backoff.ExponentialBackOff;
 
 import java.util.HashMap;
 import java.util.Map;
 
 /**
- * Search Service is consumer-only — listens to order events to keep
- * product stock levels updated in the Elasticsearch index.
+ * Search Service is consumer-only — listens to product events to keep products in the
+ * Elasticsearch index, and to stock events to keep their stock levels updated. Both are
+ * consumed in batches (one list per poll). A failed batch is retried with backoff until it
+ * succeeds rather than skipped, so an Elasticsearch or Product Service outage delays
+ * search updates instead of losing them.
  */
 @Configuration
 public class KafkaConfig {
@@ -23,24 +28,59 @@ public class KafkaConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    /** Upper bound on stock events per batch, and so on the size of one stock bulk update. */
+    @Value("${search.kafka.max-poll-records:500}")
+    private int maxPollRecords;
+
+    @Bean
+    public ConsumerFactory<String, com.shopzone.common.event.StockEvent> stockEventConsumerFactory() {
+        return new DefaultKafkaConsumerFactory<>(consumerConfig("com.shopzone.common.event.StockEvent"));
+    }
+
     @Bean
-    public ConsumerFactory<String, com.shopzone.common.event.OrderEvent> orderEventConsumerFactory() {
+    public ConsumerFactory<String, com.shopzone.common.event.ProductEvent> productEventConsumerFactory() {
+        return new DefaultKafkaConsumerFactory<>(consumerConfig("com.shopzone.common.event.ProductEvent"));
+    }
+
+    private Map<String, Object> consumerConfig(String valueType) {
         Map<String, Object> config = new HashMap<>();
         config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
         config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
         config.put(JsonDeserializer.TRUSTED_PACKAGES, "com.shopzone.common.event");
-        config.put(JsonDeserializer.VALUE_DEFAULT_TYPE, "com.shopzone.common.event.OrderEvent");
+        config.put(JsonDeserializer.VALUE_DEFAULT_TYPE, valueType);
         config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
-        return new DefaultKafkaConsumerFactory<>(config);
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        return config;
+    }
+
+    /** Retries a failed batch every 1s, doubling up to 60s, with no limit on attempts. */
+    private DefaultErrorHandler retryingErrorHandler() {
+        ExponentialBackOff backOff = new ExponentialBackOff(1000, 2.0);
+        backOff.setMaxInterval(60_000);
+        return new DefaultErrorHandler(backOff);
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, com.shopzone.common.event.StockEvent> stockEventListenerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, com.shopzone.common.event.StockEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(stockEventConsumerFactory());
+        factory.setConcurrency(3);
+        // The whole poll is handed to the listener so stock is reindexed once per batch
+        factory.setBatchListener(true);
+        factory.setCommonErrorHandler(retryingErrorHandler());
+        return factory;
     }
 
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, com.shopzone.common.event.OrderEvent> orderEventListenerFactory() {
-        ConcurrentKafkaListenerContainerFactory<String, com.shopzone.common.event.OrderEvent> factory =
+    public ConcurrentKafkaListenerContainerFactory<String, com.shopzone.common.event.ProductEvent> productEventListenerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, com.shopzone.common.event.ProductEvent> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
-        factory.setConsumerFactory(orderEventConsumerFactory());
+        factory.setConsumerFactory(productEventConsumerFactory());
         factory.setConcurrency(3);
+        factory.setBatchListener(true);
+        factory.setCommonErrorHandler(retryingErrorHandler());
         return factory;
     }
 }
@@ -1,50 +1,102 @@
 package com.shopzone.searchservice.kafka;
 
 import com.shopzone.common.config.KafkaTopicConfig;
-import com.shopzone.common.event.OrderEvent;
+import com.shopzone.common.dto.response.ProductResponse;
 import com.shopzone.common.event.OrderItemEvent;
+import com.shopzone.common.event.ProductEvent;
+import com.shopzone.common.event.StockEvent;
+import com.shopzone.searchservice.client.ProductClient;
+import com.shopzone.searchservice.service.ProductSearchService;
+import com.shopzone.searchservice.service.ReindexLease;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 /**
- * Listens to order events and logs when products need re-syncing.
+ * Keeps the search index in line with Product Service.
+ *
+ * Product Service publishes a PRODUCT_CHANGED or PRODUCT_DELETED event from its outbox
+ * whenever a product (or the category it belongs to) changes. The events carry only the
+ * product id: the consumer fetches the current products for the whole batch in one call,
+ * indexes the active ones and removes the rest. Because it always writes the current state,
+ * duplicate and out-of-order events are harmless.
  *
- * When an order is confirmed or cancelled, product stock levels change.
- * This consumer logs the affected product IDs. The actual re-sync happens
- * via the existing Product Service → Search Service sync mechanism
- * (SearchSyncClient calls from Product Service).
+ * Stock is kept in line with orders separately.
+ * Product Service publishes STOCK_RESERVED and STOCK_RESTORED after it has changed
+ * stock, so a lookup triggered by them sees the new value. (Order events are not used:
+ * Product Service applies them in its own consumer group, so a lookup could run before
+ * the change.) Events arrive in batches (one per poll). The consumer collects the affected product ids across the
+ * batch and fetches their current stock from Product Service in one call. It then
+ * writes the stock to Elasticsearch in one bulk partial update. Stock is read rather
+ * than computed from the event quantities, so replayed or out-of-order events cannot
+ * skew it. A failed lookup or update fails the batch, which is then redelivered.
  *
- * In a production system, this would call the search service's own
- * indexing logic directly. For now, Product Service already syncs
- * to Elasticsearch when stock changes, so this is a secondary notification.
+ * Both listeners fail their batch while a reindex holds the {@link ReindexLease}, and also
+ * when one started during the write: the write may have gone to the index being replaced.
+ * The batch is retried once the new index is live.
  */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class ProductSyncConsumer {
 
+    private final ProductClient productClient;
+    private final ProductSearchService searchService;
+    private final ReindexLease reindexLease;
+
     @KafkaListener(
-        topics = KafkaTopicConfig.ORDER_EVENTS_TOPIC,
-        groupId = "search-service-group",
-        containerFactory = "orderEventListenerFactory"
+        topics = KafkaTopicConfig.PRODUCT_EVENTS_TOPIC,
+        groupId = "search-service-product-group",
+        containerFactory = "productEventListenerFactory"
     )
-    public void handleOrderEvent(OrderEvent event) {
-        // Only care about events that change stock levels
-        if (!"ORDER_CONFIRMED".equals(event.getEventType()) &&
-            !"ORDER_CANCELLED".equals(event.getEventType())) {
-            return;
+    public void handleProductEvents(List<ProductEvent> events) {
+        Set<String> productIds = new LinkedHashSet<>();
+        for (ProductEvent event : events) {
+            if (event != null && event.getProductId() != null) productIds.add(event.getProductId());
         }
+        if (productIds.isEmpty()) return;
 
-        log.info("Search Service received {} for order {} — products may need re-indexing",
-            event.getEventType(), event.getOrderNumber());
+        long generation = reindexLease.idleGeneration();
+        int written = searchService.syncProducts(productIds, productClient.getProductsByIds(productIds));
+        reindexLease.verifyIdleSince(generation);
+        log.info("Synced {} search documents from {} product events", written, events.size());
+    }
 
-        if (event.getItems() != null) {
+    @KafkaListener(
+        topics = KafkaTopicConfig.STOCK_EVENTS_TOPIC,
+        groupId = "search-service-group",
+        containerFactory = "stockEventListenerFactory"
+    )
+    public void handleStockEvents(List<StockEvent> events) {
+        Set<String> productIds = new LinkedHashSet<>();
+        for (StockEvent event : events) {
+            // STOCK_RESERVE_FAILED leaves stock unchanged
+            if (event == null || event.getItems() == null ||
+                (!"STOCK_RESERVED".equals(event.getEventType()) &&
+                 !"STOCK_RESTORED".equals(event.getEventType()))) {
+                continue;
+            }
             for (OrderItemEvent item : event.getItems()) {
-                log.info("Product {} ({}) may have updated stock — should be re-indexed",
-                    item.getProductId(), item.getProductName());
+                if (item.getProductId() != null) productIds.add(item.getProductId());
             }
         }
+        if (productIds.isEmpty()) return;
+
+        long generation = reindexLease.idleGeneration();
+        Map<String, Integer> stockById = new HashMap<>();
+        for (ProductResponse product : productClient.getProductsByIds(productIds)) {
+            stockById.put(product.getId(), product.getStock());
+        }
+
+        int updated = searchService.updateStock(stockById);
+        reindexLease.verifyIdleSince(generation);
+        log.info("Reindexed stock of {} products from {} stock events", updated, events.size());
     }
-}
\ No newline at end of file
+}
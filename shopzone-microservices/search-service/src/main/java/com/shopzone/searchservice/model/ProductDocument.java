@@ -1,5 +1,6 @@
 package com.shopzone.searchservice.model;
 
+import com.shopzone.common.dto.response.ProductResponse;
 import lombok.*;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.elasticsearch.annotations.*;
@@ -8,12 +9,17 @@ import java.util.List;
 
 @Data @Builder @NoArgsConstructor @AllArgsConstructor
 @Document(indexName = "products")
-@Setting(shards = 1, replicas = 0)
+@Setting(shards = 1, replicas = 0, settingPath = "elasticsearch/product-settings.json")
 public class ProductDocument {
     @Id private String id;
     @Field(type = FieldType.Text, analyzer = "standard") private String name;
     @Field(type = FieldType.Text) private String description;
-    @Field(type = FieldType.Keyword) private String sku, slug, brand, categoryId, categoryName, categorySlug;
+    @Field(type = FieldType.Keyword) private String sku, slug, categoryId, categoryName, categorySlug;
+    /** brand.normalized: lowercase/ASCII-folded keyword for exact filters; brand.ngram: partial matches. */
+    @MultiField(mainField = @Field(type = FieldType.Keyword), otherFields = {
+        @InnerField(suffix = "normalized", type = FieldType.Keyword, normalizer = "lowercase_ascii"),
+        @InnerField(suffix = "ngram", type = FieldType.Text, analyzer = "brand_ngram", searchAnalyzer = "brand_search")})
+    private String brand;
     @Field(type = FieldType.Double) private Double price, salePrice;
     @Field(type = FieldType.Integer) private Integer stock;
     @Field(type = FieldType.Boolean) private boolean active;
@@ -29,4 +35,17 @@ public class ProductDocument {
         private int weight;
     }
     private Completion nameSuggest;
+
+    public static ProductDocument from(ProductResponse p) {
+        return ProductDocument.builder()
+            .id(p.getId()).name(p.getName()).description(p.getDescription()).sku(p.getSku()).slug(p.getSlug())
+            .categoryId(p.getCategoryId()).categoryName(p.getCategoryName()).categorySlug(p.getCategorySlug())
+            .brand(p.getBrand())
+            .price(p.getPrice() != null ? p.getPrice().doubleValue() : null)
+            .salePrice(p.getDiscountPrice() != null ? p.getDiscountPrice().doubleValue() : null)
+            .stock(p.getStock()).active(p.isActive()).tags(p.getTags()).images(p.getImages())
+            .averageRating(p.getAverageRating()).reviewCount(p.getReviewCount())
+            .createdAt(p.getCreatedAt()).updatedAt(p.getUpdatedAt())
+            .build();
+    }
 }
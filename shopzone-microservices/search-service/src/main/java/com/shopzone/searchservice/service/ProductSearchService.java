@@ -2,28 +2,54 @@ package com.shopzone.searchservice.service;
 
 import co.elastic.clients.elasticsearch._types.SortOrder;
 import co.elastic.clients.elasticsearch._types.query_dsl.BoolQuery;
+import co.elastic.clients.elasticsearch._types.query_dsl.Operator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopzone.common.dto.response.ProductResponse;
+import com.shopzone.common.exception.BadRequestException;
 import com.shopzone.searchservice.model.ProductDocument;
 import com.shopzone.searchservice.repository.ProductSearchRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.BulkFailureException;
 import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.client.elc.NativeQueryBuilder;
 import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
 import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.springframework.data.elasticsearch.core.query.UpdateQuery;
 import org.springframework.stereotype.Service;
 import java.util.*;
 import java.util.stream.Collectors;
 
 @Service @RequiredArgsConstructor @Slf4j
 public class ProductSearchService {
+    private static final int MAX_RESULT_WINDOW = 10_000;
+    private static final ObjectMapper CURSOR_MAPPER = new ObjectMapper();
+    private static final int CURSOR_SORT_KEYS = 2;
+    /** Unique last sort key so search_after neither skips nor repeats ties. */
+    private static final co.elastic.clients.elasticsearch._types.SortOptions ID_TIEBREAKER =
+        co.elastic.clients.elasticsearch._types.SortOptions.of(s -> s.field(f -> f.field("id").order(SortOrder.Asc)));
+
     private final ProductSearchRepository searchRepository;
     private final ElasticsearchOperations esOps;
+    private final ReindexService reindexService;
 
+    /** page/size paging, or search_after paging when cursor is set ("*" first, then nextCursor). */
     public Map<String, Object> search(String query, Double minPrice, Double maxPrice, String categoryId,
-            String brand, Double minRating, Boolean inStock, int page, int size, String sortBy, String sortDir) {
+            String brand, Double minRating, Boolean inStock, int page, int size, String sortBy, String sortDir,
+            String cursor) {
         long start = System.currentTimeMillis();
+        boolean cursorMode = cursor != null && !cursor.isBlank();
+        int pageSize = Math.min(size, 100);
+        if (!cursorMode && (long) (page + 1) * pageSize > MAX_RESULT_WINDOW)
+            throw new BadRequestException("Page too deep for page/size paging, use cursor paging instead");
 
-        NativeQuery nq = NativeQuery.builder()
+        boolean brandSubfields = brand != null && !brand.isBlank() && reindexService.hasBrandSubfields();
+        NativeQueryBuilder nqb = NativeQuery.builder()
             .withQuery(q -> q.bool(b -> {
                 BoolQuery.Builder builder = b;
                 if (query != null && !query.isBlank())
@@ -35,7 +61,13 @@ public class ProductSearchService {
                         if (maxPrice != null) rng.lte(co.elastic.clients.json.JsonData.of(maxPrice)); return rng; }));
                 if (categoryId != null && !categoryId.isBlank())
                     builder.filter(f -> f.term(t -> t.field("categoryId").value(categoryId)));
-                if (brand != null && !brand.isBlank())
+                if (brandSubfields)
+                    builder.filter(f -> f.bool(bb -> bb
+                        .should(sh -> sh.term(t -> t.field("brand.normalized").value(brand)))
+                        .should(sh -> sh.match(m -> m.field("brand.ngram").query(brand).operator(Operator.And)))
+                        .minimumShouldMatch("1")));
+                else if (brand != null && !brand.isBlank())
+                    // Index built before the brand subfields, until the startup reindex replaces it
                     builder.filter(f -> f.wildcard(w -> w.field("brand").wildcard("*"+brand+"*").caseInsensitive(true)));
                 if (minRating != null)
                     builder.filter(f -> f.range(r -> r.field("averageRating").gte(co.elastic.clients.json.JsonData.of(minRating))));
@@ -43,11 +75,11 @@ public class ProductSearchService {
                     builder.filter(f -> f.range(r -> r.field("stock").gt(co.elastic.clients.json.JsonData.of(0))));
                 return builder;
             }))
-            .withSort(buildSort(sortBy, sortDir))
-            .withPageable(PageRequest.of(page, Math.min(size, 100)))
-            .build();
+            .withSort(buildSort(sortBy, sortDir), ID_TIEBREAKER)
+            .withPageable(PageRequest.of(cursorMode ? 0 : page, pageSize));
+        if (cursorMode && !"*".equals(cursor)) nqb.withSearchAfter(decodeCursor(cursor));
 
-        SearchHits<ProductDocument> hits = esOps.search(nq, ProductDocument.class);
+        SearchHits<ProductDocument> hits = esOps.search(nqb.build(), ProductDocument.class);
         List<Map<String, Object>> products = hits.getSearchHits().stream().map(h -> {
             ProductDocument d = h.getContent();
             Map<String, Object> m = new LinkedHashMap<>();
@@ -59,22 +91,74 @@ public class ProductSearchService {
             return m;
         }).collect(Collectors.toList());
 
-        return Map.of("products", products, "totalHits", hits.getTotalHits(),
+        Map<String, Object> result = new LinkedHashMap<>(Map.of("products", products, "totalHits", hits.getTotalHits(),
             "totalPages", (int) Math.ceil((double) hits.getTotalHits() / size),
-            "currentPage", page, "searchTimeMs", System.currentTimeMillis() - start, "query", query != null ? query : "");
+            "currentPage", page, "searchTimeMs", System.currentTimeMillis() - start, "query", query != null ? query : ""));
+        if (cursorMode) result.put("nextCursor", products.size() == pageSize
+            ? encodeCursor(hits.getSearchHit(products.size() - 1).getSortValues()) : null);
+        return result;
+    }
+
+    private static String encodeCursor(List<Object> sortValues) {
+        try { return Base64.getUrlEncoder().withoutPadding().encodeToString(CURSOR_MAPPER.writeValueAsBytes(sortValues)); }
+        catch (Exception e) { throw new IllegalStateException("Failed to encode search cursor", e); }
+    }
+
+    /** One scalar per sort key (the requested sort and the id tiebreaker), else a bad request rather than an ES error. */
+    private static List<Object> decodeCursor(String cursor) {
+        List<Object> sortValues;
+        try { sortValues = CURSOR_MAPPER.readValue(Base64.getUrlDecoder().decode(cursor), new TypeReference<List<Object>>() {}); }
+        catch (Exception e) { throw new BadRequestException("Invalid search cursor"); }
+        if (sortValues == null || sortValues.size() != CURSOR_SORT_KEYS
+                || !sortValues.stream().allMatch(v -> v instanceof Number || v instanceof String))
+            throw new BadRequestException("Invalid search cursor");
+        return sortValues;
     }
 
-    public void syncProduct(ProductDocument doc) { searchRepository.save(doc); }
-    public void removeProduct(String id) { searchRepository.deleteById(id); }
-    public void syncAll(List<ProductDocument> docs) { searchRepository.deleteAll(); searchRepository.saveAll(docs); }
     public long count() { return searchRepository.count(); }
 
-    public void updateRating(String id, Double rating, Integer count) {
-        searchRepository.findById(id).ifPresent(d -> {
-            d.setAverageRating(rating != null ? rating : 0.0);
-            d.setReviewCount(count != null ? count : 0);
-            searchRepository.save(d);
-        });
+    /**
+     * Bring the index in line with the current state of the given products: active ones
+     * are indexed, inactive ones and ids missing from products (deleted) are removed. Bulk
+     * failures are thrown so the batch is redelivered. Returns the number of documents written.
+     */
+    public int syncProducts(Collection<String> ids, List<ProductResponse> products) {
+        List<IndexQuery> queries = products.stream()
+            .filter(ProductResponse::isActive)
+            .map(p -> new IndexQueryBuilder().withId(p.getId()).withObject(ProductDocument.from(p)).build())
+            .toList();
+        Set<String> removed = new HashSet<>(ids);
+        queries.forEach(q -> removed.remove(q.getId()));
+
+        if (!queries.isEmpty()) esOps.bulkIndex(queries, ProductDocument.class);
+        if (!removed.isEmpty()) searchRepository.deleteAllById(removed);
+        return queries.size() + removed.size();
+    }
+
+    /**
+     * Partial update of stock for many products in one bulk request. Products that are not
+     * in the index (document_missing_exception, status 404) are skipped; any other item
+     * failure, such as a 429 rejection or a shard failure, is rethrown so the batch is
+     * redelivered. Returns the number of documents updated.
+     */
+    public int updateStock(Map<String, Integer> stockById) {
+        if (stockById.isEmpty()) return 0;
+        List<UpdateQuery> queries = stockById.entrySet().stream()
+            .map(e -> UpdateQuery.builder(e.getKey())
+                .withDocument(Document.from(Map.of("stock", e.getValue() != null ? e.getValue() : 0)))
+                .withRetryOnConflict(3)
+                .build())
+            .toList();
+        try {
+            esOps.bulkUpdate(queries, ProductDocument.class);
+            return queries.size();
+        } catch (BulkFailureException e) {
+            boolean onlyMissing = e.getFailedDocuments().values().stream()
+                .allMatch(failure -> failure.status() != null && failure.status() == 404);
+            if (!onlyMissing) throw e;
+            log.debug("Stock update skipped {} products not in the index: {}", e.getFailedDocuments().size(), e.getFailedDocuments().keySet());
+            return queries.size() - e.getFailedDocuments().size();
+        }
     }
 
     private co.elastic.clients.elasticsearch._types.SortOptions buildSort(String sortBy, String dir) {
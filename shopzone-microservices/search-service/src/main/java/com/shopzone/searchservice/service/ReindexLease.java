@@ -0,0 +1,117 @@
+package com.shopzone.searchservice.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch.core.GetResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+
+/**
+ * Cluster-wide lease for a products reindex, kept as a single document in Elasticsearch so
+ * every search-service instance sees the same one. The holder renews it after each batch;
+ * it lapses if the holder dies. The generation goes up with every reindex, so a consumer can
+ * tell that one ran while it was writing, even if it has finished since.
+ */
+@Component @RequiredArgsConstructor @Slf4j
+public class ReindexLease {
+    static final String INDEX = "search_reindex_lease";
+    private static final String ID = ReindexService.ALIAS;
+
+    private final ElasticsearchClient esClient;
+
+    @Value("${search.reindex.lease-ttl:PT5M}")
+    private Duration ttl;
+
+    public record State(String owner, String indexName, long indexed, long expiresAt, long generation) {
+        public boolean held() { return owner != null && expiresAt > System.currentTimeMillis(); }
+    }
+
+    /** @return false if a reindex on another instance holds the lease */
+    public boolean acquire(String owner, String indexName) {
+        GetResponse<State> current = read();
+        long expiresAt = System.currentTimeMillis() + ttl.toMillis();
+        try {
+            if (current == null) {
+                State state = new State(owner, indexName, 0, expiresAt, 1);
+                esClient.create(c -> c.index(INDEX).id(ID).document(state));
+                return true;
+            }
+            if (current.source().held()) return false;
+            write(current, new State(owner, indexName, 0, expiresAt, current.source().generation() + 1));
+            return true;
+        } catch (ElasticsearchException e) {
+            // Another instance created or took the lease between the read and the write
+            if (e.status() == 409) return false;
+            throw e;
+        } catch (IOException e) { throw new UncheckedIOException(e); }
+    }
+
+    /** Extend the lease and record progress. @throws IllegalStateException if it lapsed or was taken over */
+    public void renew(String owner, long indexed) {
+        GetResponse<State> current = read();
+        State state = current != null ? current.source() : null;
+        if (state == null || !owner.equals(state.owner()) || !state.held())
+            throw new IllegalStateException("Reindex lease was lost");
+        try {
+            write(current, new State(owner, state.indexName(), indexed,
+                System.currentTimeMillis() + ttl.toMillis(), state.generation()));
+        } catch (IOException e) { throw new UncheckedIOException(e); }
+    }
+
+    /** Lets the consumers resume; the changes they held back are then applied through the swapped alias. */
+    public void release(String owner) {
+        try {
+            GetResponse<State> current = read();
+            if (current != null && owner.equals(current.source().owner()))
+                write(current, new State(null, null, 0, 0, current.source().generation()));
+        } catch (Exception e) { log.warn("Failed to release reindex lease: {}", e.getMessage()); }
+    }
+
+    /** @return the lease, or null if no reindex has ever run */
+    public State current() {
+        GetResponse<State> current = read();
+        return current != null ? current.source() : null;
+    }
+
+    /**
+     * Call before writing to the index; pass the result to {@link #verifyIdleSince} afterwards.
+     * @throws IllegalStateException while a reindex is running
+     */
+    public long idleGeneration() {
+        State state = current();
+        if (state != null && state.held())
+            throw new IllegalStateException("Reindex into " + state.indexName() + " is running");
+        return state != null ? state.generation() : 0;
+    }
+
+    /**
+     * Call after writing to the index. A reindex that started in the meantime may have read
+     * the products before the write and dropped the index it went to.
+     * @throws IllegalStateException if a reindex is running or ran since idleGeneration
+     */
+    public void verifyIdleSince(long generation) {
+        if (idleGeneration() != generation)
+            throw new IllegalStateException("Products were reindexed during the write");
+    }
+
+    private GetResponse<State> read() {
+        try {
+            GetResponse<State> response = esClient.get(g -> g.index(INDEX).id(ID), State.class);
+            return response.found() ? response : null;
+        } catch (ElasticsearchException e) {
+            if (e.status() == 404) return null;  // lease index not created yet
+            throw e;
+        } catch (IOException e) { throw new UncheckedIOException(e); }
+    }
+
+    /** Replace the lease only if nobody else changed it since it was read. */
+    private void write(GetResponse<State> current, State state) throws IOException {
+        esClient.index(i -> i.index(INDEX).id(ID).document(state)
+            .ifSeqNo(current.seqNo()).ifPrimaryTerm(current.primaryTerm()));
+    }
+}
@@ -0,0 +1,238 @@
+package com.shopzone.searchservice.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import com.shopzone.common.dto.response.ProductResponse;
+import com.shopzone.common.exception.BadRequestException;
+import com.shopzone.searchservice.client.ProductClient;
+import com.shopzone.searchservice.model.ProductDocument;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.index.*;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.BulkOptions;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.springframework.stereotype.Service;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Zero-downtime reindex. Builds a versioned index (bulk API, replicas 0, refresh off) from
+ * the active products, paged from Product Service in id order, then restores the settings,
+ * moves the "products" alias atomically and drops the previous index.
+ *
+ * A {@link ReindexLease} keeps one reindex running across all instances. While it is held
+ * the Kafka consumers fail their batches, so changes made during the rebuild are redelivered
+ * and applied through the alias once it points at the new index.
+ */
+@Service @RequiredArgsConstructor @Slf4j
+public class ReindexService {
+    public static final String ALIAS = "products";
+    private static final DateTimeFormatter VERSION_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+    private static final long MAPPING_CHECK_INTERVAL_MILLIS = 60_000;
+
+    private final ElasticsearchOperations esOps;
+    private final ElasticsearchClient esClient;
+    private final ProductClient productClient;
+    private final ReindexLease lease;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "product-reindex");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final String instanceId = UUID.randomUUID().toString();
+    private volatile ReindexStatus status = ReindexStatus.idle();
+    private volatile boolean brandSubfields;
+    private volatile long mappingCheckedAt;
+
+    @Value("${search.reindex.batch-size:1000}")
+    private int batchSize;
+
+    /**
+     * Mapping changes (e.g. the brand subfields) reach an existing index only through a
+     * reindex, so start one on startup if the live index predates them. During a rolling
+     * deploy only the first instance gets the lease; the others skip it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reindexIfMappingOutdated() {
+        try {
+            if (!esOps.indexOps(IndexCoordinates.of(ALIAS)).exists() || hasBrandSubfields()) return;
+            log.info("Index '{}' predates the brand.normalized/brand.ngram mapping, starting reindex", ALIAS);
+            startReindex();
+        } catch (BadRequestException e) {
+            log.info("Skipping startup reindex: {}", e.getMessage());
+        } catch (Exception e) { log.warn("Failed to check mapping of '{}': {}", ALIAS, e.getMessage()); }
+    }
+
+    /**
+     * Whether the live index maps brand.normalized and brand.ngram; searches use the old brand
+     * query until it does. Re-read at most once a minute, and after every reindex.
+     */
+    public boolean hasBrandSubfields() {
+        long now = System.currentTimeMillis();
+        if (now - mappingCheckedAt > MAPPING_CHECK_INTERVAL_MILLIS) {
+            try {
+                brandSubfields = esOps.indexOps(IndexCoordinates.of(ALIAS)).getMapping().get("properties") instanceof Map<?, ?> props
+                    && props.get("brand") instanceof Map<?, ?> brand && brand.get("fields") instanceof Map<?, ?> fields
+                    && fields.containsKey("normalized") && fields.containsKey("ngram");
+            } catch (Exception e) { log.warn("Failed to check mapping of '{}': {}", ALIAS, e.getMessage()); }
+            mappingCheckedAt = now;
+        }
+        return brandSubfields;
+    }
+
+    /** Start a reindex in the background. @throws BadRequestException if one is running on any instance */
+    public ReindexStatus startReindex() {
+        if (!running.compareAndSet(false, true))
+            throw new BadRequestException("A reindex is already running: " + status.indexName());
+        String index = ALIAS + "_" + LocalDateTime.now().format(VERSION_FORMAT);
+        try {
+            if (!lease.acquire(instanceId, index))
+                throw new BadRequestException("A reindex is already running on another instance");
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+        status = ReindexStatus.started(index);
+        executor.submit(() -> {
+            try { reindex(index); } finally { running.set(false); }
+        });
+        return status;
+    }
+
+    /** The reindex on this instance, or the one running on another instance. */
+    public ReindexStatus getStatus() {
+        if (!running.get()) {
+            ReindexLease.State state = lease.current();
+            if (state != null && state.held()) return ReindexStatus.elsewhere(state.indexName(), state.indexed());
+        }
+        return status;
+    }
+
+    @PreDestroy
+    public void shutdown() { executor.shutdownNow(); }
+
+    private void reindex(String index) {
+        long startNanos = System.nanoTime();
+        IndexOperations newIndex = esOps.indexOps(IndexCoordinates.of(index));
+        try {
+            deleteAbandonedIndices();
+            Settings settings = newIndex.createSettings(ProductDocument.class).flatten();
+            String replicas = String.valueOf(settings.getOrDefault("index.number_of_replicas", 0));
+            settings.put("index.number_of_replicas", 0);
+            settings.put("index.refresh_interval", "-1");
+            newIndex.create(settings, newIndex.createMapping(ProductDocument.class));
+            log.info("Reindexing products into {}", index);
+
+            long indexed = indexProducts(index, startNanos);
+
+            esClient.indices().putSettings(p -> p.index(index)
+                .settings(s -> s.numberOfReplicas(replicas).refreshInterval(t -> t.time("1s"))));
+            newIndex.refresh();
+            lease.renew(instanceId, indexed);
+
+            List<String> previous = swapAlias(index);
+            mappingCheckedAt = 0;
+            for (String old : previous) esOps.indexOps(IndexCoordinates.of(old)).delete();
+
+            status = status.completed(indexed, docsPerSecond(indexed, startNanos));
+            log.info("Reindex into {} completed: {} docs ({} docs/s), replaced {}", index, indexed,
+                Math.round(status.docsPerSecond()), previous);
+        } catch (Exception e) {
+            log.error("Reindex into {} failed: {}", index, e.getMessage(), e);
+            status = status.failed(e.getMessage());
+            try {
+                if (newIndex.exists() && !isAliased(index)) newIndex.delete();
+            } catch (Exception cleanup) { log.warn("Failed to delete partial index {}: {}", index, cleanup.getMessage()); }
+        } finally {
+            lease.release(instanceId);
+        }
+    }
+
+    private long indexProducts(String index, long startNanos) {
+        IndexCoordinates coordinates = IndexCoordinates.of(index);
+        long indexed = 0;
+        String after = null;
+        List<ProductResponse> page;
+        while (!(page = productClient.getActiveProducts(after, batchSize)).isEmpty()) {
+            List<IndexQuery> queries = page.stream()
+                .map(p -> new IndexQueryBuilder().withId(p.getId()).withObject(ProductDocument.from(p)).build()).toList();
+            esOps.bulkIndex(queries, BulkOptions.defaultOptions(), coordinates);
+            indexed += page.size();
+            after = page.get(page.size() - 1).getId();
+
+            lease.renew(instanceId, indexed);
+            status = status.progress(indexed, docsPerSecond(indexed, startNanos));
+            log.debug("Reindex {}: {} docs ({} docs/s)", index, indexed, Math.round(status.docsPerSecond()));
+        }
+        return indexed;
+    }
+
+    /** Point the alias at the new index in one request. @return the indices it pointed to before */
+    private List<String> swapAlias(String index) {
+        IndexOperations aliasOps = esOps.indexOps(IndexCoordinates.of(ALIAS));
+        List<String> previous = new ArrayList<>(aliasOps.getAliases(ALIAS).keySet());
+        List<AliasAction> actions = new ArrayList<>();
+        // First run: "products" is still the concrete index created from ProductDocument
+        if (previous.isEmpty() && aliasOps.exists())
+            actions.add(new AliasAction.RemoveIndex(AliasActionParameters.builder().withIndices(ALIAS).build()));
+        for (String old : previous)
+            actions.add(new AliasAction.Remove(AliasActionParameters.builder().withIndices(old).withAliases(ALIAS).build()));
+        actions.add(new AliasAction.Add(AliasActionParameters.builder().withIndices(index).withAliases(ALIAS).build()));
+        aliasOps.alias(new AliasActions(actions.toArray(new AliasAction[0])));
+        return previous;
+    }
+
+    /** Partial indices left behind by a reindex whose instance died before it could clean up. */
+    private void deleteAbandonedIndices() throws IOException {
+        Set<String> aliased = esOps.indexOps(IndexCoordinates.of(ALIAS)).getAliases(ALIAS).keySet();
+        for (String index : esClient.indices().get(g -> g.index(ALIAS + "_*")).result().keySet()) {
+            if (!aliased.contains(index)) {
+                log.info("Deleting abandoned reindex target {}", index);
+                esOps.indexOps(IndexCoordinates.of(index)).delete();
+            }
+        }
+    }
+
+    private boolean isAliased(String index) {
+        return esOps.indexOps(IndexCoordinates.of(ALIAS)).getAliases(ALIAS).containsKey(index);
+    }
+
+    private static double docsPerSecond(long docs, long startNanos) {
+        double seconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+        return seconds > 0 ? docs / seconds : docs;
+    }
+
+    public record ReindexStatus(String state, String indexName, long indexed, double docsPerSecond,
+                                LocalDateTime startedAt, LocalDateTime finishedAt, String error) {
+        static ReindexStatus idle() { return new ReindexStatus("IDLE", null, 0, 0, null, null, null); }
+        static ReindexStatus started(String indexName) {
+            return new ReindexStatus("RUNNING", indexName, 0, 0, LocalDateTime.now(), null, null);
+        }
+        static ReindexStatus elsewhere(String indexName, long indexed) {
+            return new ReindexStatus("RUNNING_ON_OTHER_INSTANCE", indexName, indexed, 0, null, null, null);
+        }
+        ReindexStatus progress(long indexed, double docsPerSecond) {
+            return new ReindexStatus(state, indexName, indexed, docsPerSecond, startedAt, null, null);
+        }
+        ReindexStatus completed(long indexed, double docsPerSecond) {
+            return new ReindexStatus("COMPLETED", indexName, indexed, docsPerSecond, startedAt, LocalDateTime.now(), null);
+        }
+        ReindexStatus failed(String error) {
+            return new ReindexStatus("FAILED", indexName, indexed, docsPerSecond, startedAt, LocalDateTime.now(), error);
+        }
+    }
+}
@@ -19,6 +19,7 @@ public class KafkaTopicConfig {
     public static final String STOCK_EVENTS_TOPIC = "shopzone.stock.events";
     public static final String PAYMENT_EVENTS_TOPIC = "shopzone.payment.events";
     public static final String NOTIFICATION_EVENTS_TOPIC = "shopzone.notification.events";
+    public static final String PRODUCT_EVENTS_TOPIC = "shopzone.product.events";
 
     @Bean
     public NewTopic orderEventsTopic() {
@@ -51,4 +52,12 @@ public class KafkaTopicConfig {
                 .replicas(1)
                 .build();
     }
+
+    @Bean
+    public NewTopic productEventsTopic() {
+        return TopicBuilder.name(PRODUCT_EVENTS_TOPIC)
+                .partitions(3)
+                .replicas(1)
+                .build();
+    }
 }
@@ -31,6 +31,7 @@ public class ProductResponse {
     private boolean inStock;
     private String categoryId;
     private String categoryName;
+    private String categorySlug;
     private String brand;
     private List<String> images;
     private List<String> tags;
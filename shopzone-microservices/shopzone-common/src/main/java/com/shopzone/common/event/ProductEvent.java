@@ -0,0 +1,29 @@
+package com.shopzone.common.event;
+
+import lombok.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Published by Product Service to shopzone.product.events topic, keyed by product id.
+ *
+ * Event types:
+ *   PRODUCT_CHANGED — product created or updated
+ *   PRODUCT_DELETED — product deleted
+ *
+ * Carries only the id: consumers read the current product from Product Service, so
+ * replayed or out-of-order events cannot leave them on an old version.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductEvent implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private String eventType;
+    private String eventId;
+    private LocalDateTime timestamp;
+
+    private String productId;
+}
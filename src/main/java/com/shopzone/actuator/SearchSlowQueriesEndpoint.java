@@ -0,0 +1,34 @@
+package com.shopzone.actuator;
+
+import com.shopzone.service.SearchQueryMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * The slowest product searches since the last clear, slowest first, at
+ * /actuator/searchslowqueries. DELETE clears them.
+ * Expose it with management.endpoints.web.exposure.include; access is limited to admins
+ * in SecurityConfig.
+ */
+@Component
+@Endpoint(id = "searchslowqueries")
+@RequiredArgsConstructor
+public class SearchSlowQueriesEndpoint {
+
+  private final SearchQueryMetrics searchQueryMetrics;
+
+  @ReadOperation
+  public List<SearchQueryMetrics.SlowQuery> slowQueries() {
+    return searchQueryMetrics.getSlowQueries();
+  }
+
+  @DeleteOperation
+  public void clear() {
+    searchQueryMetrics.clearSlowQueries();
+  }
+}
@@ -45,4 +45,22 @@ public class OrderConfig {
    * Default: 10 units
    */
   private int lowStockThreshold = 10;
-}
\ No newline at end of file
+
+  /**
+   * Finished orders older than this many months are moved to the compressed archive.
+   * Default: 24 months
+   */
+  private int archiveAfterMonths = 24;
+
+  /**
+   * Number of orders archived per transaction.
+   * Default: 500
+   */
+  private int archiveBatchSize = 500;
+
+  /**
+   * Monthly partitions of orders/order_items to keep created ahead of time.
+   * Default: 3 months
+   */
+  private int partitionMonthsAhead = 3;
+}
@@ -1,6 +1,7 @@
 package com.shopzone.config;
 
 import com.shopzone.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
@@ -46,6 +47,11 @@ public class SecurityConfig {
         .cors(cors -> cors.configurationSource(corsConfigurationSource()))
         .csrf(AbstractHttpConfigurer::disable)
         .authorizeHttpRequests(auth -> auth
+            // Completion of streaming responses; the original request was already authorized
+            .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
+            .requestMatchers("/actuator/searchslowqueries/**").hasRole("ADMIN")
+
             .requestMatchers(
                 "/swagger-ui/**",
                 "/swagger-ui.html",
@@ -76,7 +82,6 @@ public class SecurityConfig {
             .requestMatchers(HttpMethod.POST, "/api/search").permitAll()
 
             .requestMatchers(HttpMethod.GET, "/api/reviews/product/**").permitAll()
-            .requestMatchers(HttpMethod.POST, "/api/reviews/*/helpful").permitAll()
 
             .requestMatchers("/api/auth/me", "/api/auth/logout").authenticated()
             .requestMatchers("/api/cart/**").authenticated()
@@ -87,6 +92,7 @@ public class SecurityConfig {
             .requestMatchers("/api/payments/**").authenticated()
 
             .requestMatchers(HttpMethod.POST, "/api/reviews").authenticated()
+            .requestMatchers(HttpMethod.POST, "/api/reviews/*/helpful").authenticated()
             .requestMatchers(HttpMethod.PUT, "/api/reviews/**").authenticated()
             .requestMatchers(HttpMethod.DELETE, "/api/reviews/**").authenticated()
             .requestMatchers("/api/reviews/my-reviews").authenticated()
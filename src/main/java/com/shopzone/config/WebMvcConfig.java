@@ -0,0 +1,26 @@
+package com.shopzone.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+/**
+ * Spring MVC settings.
+ *
+ * Streaming exports (StreamingResponseBody) run as async requests; the container default
+ * of 30 seconds is too short for large ranges.
+ */
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+  @Value("${shopzone.export.timeout:PT30M}")
+  private Duration exportTimeout;
+
+  @Override
+  public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+    configurer.setDefaultTimeout(exportTimeout.toMillis());
+  }
+}
@@ -1,7 +1,11 @@
 package com.shopzone.controller;
 
 import com.shopzone.dto.response.*;
+import com.shopzone.service.CustomerStatsService;
 import com.shopzone.service.DashboardService;
+import com.shopzone.service.ProductRatingStatsService;
+import com.shopzone.service.ProductSalesRollupService;
+import com.shopzone.service.ReportRollupService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -28,6 +32,10 @@ import java.util.List;
 public class AdminDashboardController {
 
   private final DashboardService dashboardService;
+  private final ProductSalesRollupService productSalesRollupService;
+  private final CustomerStatsService customerStatsService;
+  private final ReportRollupService reportRollupService;
+  private final ProductRatingStatsService productRatingStatsService;
 
 
   @GetMapping("/stats")
@@ -86,4 +94,44 @@ public class AdminDashboardController {
     List<TopCustomerResponse> topCustomers = dashboardService.getTopCustomers(limit);
     return ResponseEntity.ok(ApiResponse.success("Top customers retrieved successfully", topCustomers));
   }
-}
\ No newline at end of file
+
+
+  @PostMapping("/rollups/product-sales/rebuild")
+  @Operation(summary = "Rebuild product sales rollups",
+      description = "Recompute the product sales rollups used for top-seller queries from the orders table")
+  public ResponseEntity<ApiResponse<Integer>> rebuildProductSalesRollups() {
+    log.info("Admin requested product sales rollup rebuild");
+    int rows = productSalesRollupService.backfill();
+    return ResponseEntity.ok(ApiResponse.success("Product sales rollups rebuilt", rows));
+  }
+
+
+  @PostMapping("/rollups/customer-stats/rebuild")
+  @Operation(summary = "Rebuild customer stats",
+      description = "Recompute per-customer order totals from live and archived orders")
+  public ResponseEntity<ApiResponse<Integer>> rebuildCustomerStats() {
+    log.info("Admin requested customer stats rebuild");
+    int rows = customerStatsService.backfill();
+    return ResponseEntity.ok(ApiResponse.success("Customer stats rebuilt", rows));
+  }
+
+
+  @PostMapping("/rollups/reports/rebuild")
+  @Operation(summary = "Rebuild report rollups",
+      description = "Recompute the daily/hourly revenue and registration rollups used by the reports")
+  public ResponseEntity<ApiResponse<Void>> rebuildReportRollups() {
+    log.info("Admin requested report rollup rebuild");
+    reportRollupService.backfill();
+    return ResponseEntity.ok(ApiResponse.success("Report rollups rebuilt"));
+  }
+
+
+  @PostMapping("/rollups/product-ratings/rebuild")
+  @Operation(summary = "Rebuild product rating stats",
+      description = "Recompute per-product review counts, rating sums and star distribution from the reviews table")
+  public ResponseEntity<ApiResponse<Integer>> rebuildProductRatingStats() {
+    log.info("Admin requested product rating stats rebuild");
+    int rows = productRatingStatsService.backfill();
+    return ResponseEntity.ok(ApiResponse.success("Product rating stats rebuilt", rows));
+  }
+}
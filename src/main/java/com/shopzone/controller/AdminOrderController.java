@@ -5,8 +5,10 @@ import com.shopzone.dto.response.ApiResponse;
 import com.shopzone.dto.response.OrderResponse;
 import com.shopzone.dto.response.OrderStatsResponse;
 import com.shopzone.dto.response.OrderSummaryResponse;
+import com.shopzone.model.enums.ExportFormat;
 import com.shopzone.model.enums.OrderStatus;
 import com.shopzone.model.enums.PaymentStatus;
+import com.shopzone.service.ExportService;
 import com.shopzone.service.OrderService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -21,9 +23,11 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 
@@ -37,6 +41,7 @@ import java.time.LocalDateTime;
 public class AdminOrderController {
 
   private final OrderService orderService;
+  private final ExportService exportService;
 
   @GetMapping
   @Operation(summary = "Get all orders",
@@ -153,4 +158,27 @@ public class AdminOrderController {
     OrderStatsResponse stats = orderService.getOrderStats();
     return ResponseEntity.ok(ApiResponse.success("Order statistics", stats));
   }
-}
\ No newline at end of file
+
+
+  @GetMapping("/export")
+  @Operation(summary = "Export orders",
+      description = "Stream all orders matching the filters as CSV or NDJSON, optionally gzip-compressed (admin only)")
+  public ResponseEntity<StreamingResponseBody> exportOrders(
+      @RequestParam(required = false) OrderStatus status,
+      @RequestParam(required = false) PaymentStatus paymentStatus,
+      @RequestParam(required = false)
+      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+      @RequestParam(required = false)
+      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+      @RequestParam(defaultValue = "CSV") ExportFormat format,
+      @RequestParam(defaultValue = "false") boolean gzip) {
+
+    log.info("Admin exporting orders - status: {}, paymentStatus: {}, format: {}", status, paymentStatus, format);
+
+    return ResponseEntity.ok()
+        .header(HttpHeaders.CONTENT_DISPOSITION,
+            "attachment; filename=\"" + ExportService.fileName("orders", format, gzip) + "\"")
+        .contentType(ExportService.mediaType(format, gzip))
+        .body(out -> exportService.exportOrders(status, paymentStatus, startDate, endDate, format, gzip, out));
+  }
+}
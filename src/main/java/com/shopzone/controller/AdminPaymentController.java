@@ -4,7 +4,9 @@ import com.shopzone.dto.request.RefundRequest;
 import com.shopzone.dto.response.ApiResponse;
 import com.shopzone.dto.response.PaymentResponse;
 import com.shopzone.dto.response.RefundResponse;
+import com.shopzone.model.enums.ExportFormat;
 import com.shopzone.model.enums.PaymentStatus;
+import com.shopzone.service.ExportService;
 import com.shopzone.service.PaymentService;
 import com.shopzone.service.RefundService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -18,10 +20,15 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
 
 /**
  * Admin controller for payment management.
@@ -36,6 +43,7 @@ public class AdminPaymentController {
 
   private final PaymentService paymentService;
   private final RefundService refundService;
+  private final ExportService exportService;
 
 
   @GetMapping
@@ -100,7 +108,7 @@ public class AdminPaymentController {
 
   @GetMapping("/stats")
   @Operation(summary = "Get payment statistics",
-      description = "Get payment statistics for dashboard (admin only)")
+      description = "Get payment totals broken down by status and card brand, cached for a short time (admin only)")
   public ResponseEntity<ApiResponse<PaymentStats>> getPaymentStats() {
 
     PaymentStats stats = paymentService.getPaymentStatistics();
@@ -108,6 +116,27 @@ public class AdminPaymentController {
     return ResponseEntity.ok(ApiResponse.success("Payment statistics retrieved", stats));
   }
 
+  @GetMapping("/export")
+  @Operation(summary = "Export payments",
+      description = "Stream all payments matching the filters as CSV or NDJSON, optionally gzip-compressed (admin only)")
+  public ResponseEntity<StreamingResponseBody> exportPayments(
+      @RequestParam(required = false) PaymentStatus status,
+      @RequestParam(required = false)
+      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+      @RequestParam(required = false)
+      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+      @RequestParam(defaultValue = "CSV") ExportFormat format,
+      @RequestParam(defaultValue = "false") boolean gzip) {
+
+    log.info("Admin exporting payments - status: {}, format: {}", status, format);
+
+    return ResponseEntity.ok()
+        .header(HttpHeaders.CONTENT_DISPOSITION,
+            "attachment; filename=\"" + ExportService.fileName("payments", format, gzip) + "\"")
+        .contentType(ExportService.mediaType(format, gzip))
+        .body(out -> exportService.exportPayments(status, startDate, endDate, format, gzip, out));
+  }
+
   /**
    * Payment statistics DTO.
    */
@@ -121,5 +150,23 @@ public class AdminPaymentController {
     private long failedPayments;
     private BigDecimal totalRevenue;
     private BigDecimal totalRefunded;
+    private BigDecimal averagePaymentAmount;
+    private Map<PaymentStatus, PaymentBreakdown> byStatus;
+    private Map<String, PaymentBreakdown> byCardBrand;
+    private LocalDateTime generatedAt;
+  }
+
+  /**
+   * Count and amounts for one group of payments.
+   */
+  @lombok.Data
+  @lombok.Builder
+  @lombok.NoArgsConstructor
+  @lombok.AllArgsConstructor
+  public static class PaymentBreakdown {
+    private long count;
+    private BigDecimal totalAmount;
+    private BigDecimal totalRefunded;
+    private BigDecimal averageAmount;
   }
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package com.shopzone.controller;
 
 import com.shopzone.dto.response.*;
+import com.shopzone.model.enums.ExportFormat;
+import com.shopzone.service.ExportService;
 import com.shopzone.service.ReportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -9,9 +11,11 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 
@@ -29,6 +33,7 @@ import java.time.LocalDate;
 public class AdminReportController {
 
   private final ReportService reportService;
+  private final ExportService exportService;
 
 
   @GetMapping("/revenue")
@@ -46,6 +51,27 @@ public class AdminReportController {
   }
 
 
+  @GetMapping("/revenue/export")
+  @Operation(summary = "Export revenue report",
+      description = "Stream the daily revenue breakdown as CSV or NDJSON, optionally gzip-compressed. Defaults to last 30 days.")
+  public ResponseEntity<StreamingResponseBody> exportRevenueReport(
+      @Parameter(description = "Start date (YYYY-MM-DD). Defaults to 30 days ago.")
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+      @Parameter(description = "End date (YYYY-MM-DD). Defaults to today.")
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+      @RequestParam(defaultValue = "CSV") ExportFormat format,
+      @RequestParam(defaultValue = "false") boolean gzip) {
+
+    log.info("Admin exporting revenue report: {} to {}", startDate, endDate);
+
+    return ResponseEntity.ok()
+        .header(HttpHeaders.CONTENT_DISPOSITION,
+            "attachment; filename=\"" + ExportService.fileName("revenue", format, gzip) + "\"")
+        .contentType(ExportService.mediaType(format, gzip))
+        .body(out -> exportService.exportRevenueReport(startDate, endDate, format, gzip, out));
+  }
+
+
   @GetMapping("/sales")
   @Operation(summary = "Get sales report",
       description = "Get sales report with order breakdowns and top products. Defaults to last 30 days.")
@@ -4,11 +4,12 @@ import com.shopzone.dto.request.AdminUserUpdateRequest;
 import com.shopzone.dto.response.ApiResponse;
 import com.shopzone.dto.response.UserManagementResponse;
 import com.shopzone.exception.ResourceNotFoundException;
+import com.shopzone.model.CustomerStats;
 import com.shopzone.model.Role;
 import com.shopzone.model.User;
-import com.shopzone.repository.jpa.OrderRepository;
 import com.shopzone.repository.jpa.ReviewRepository;
 import com.shopzone.repository.jpa.UserRepository;
+import com.shopzone.service.CustomerStatsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -26,6 +27,9 @@ import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -42,7 +46,7 @@ import java.util.UUID;
 public class AdminUserController {
 
   private final UserRepository userRepository;
-  private final OrderRepository orderRepository;
+  private final CustomerStatsService customerStatsService;
   private final ReviewRepository reviewRepository;
 
 
@@ -83,7 +87,7 @@ public class AdminUserController {
       users = userRepository.findAll(pageable);
     }
 
-    Page<UserManagementResponse> response = users.map(this::mapUserWithStats);
+    Page<UserManagementResponse> response = mapUsersWithStats(users);
     return ResponseEntity.ok(ApiResponse.success("Users retrieved", response));
   }
 
@@ -245,18 +249,38 @@ public class AdminUserController {
 
 
   private UserManagementResponse mapUserWithStats(User user) {
-    String userIdStr = user.getId().toString();
+    CustomerStats stats = customerStatsService.getStats(user.getId().toString()).orElse(null);
+    long reviewCount = reviewRepository.countByUserId(user.getId());
+    return toResponseWithStats(user, stats, reviewCount);
+  }
 
-    long orderCount = orderRepository.countByUserId(userIdStr);
-    BigDecimal totalSpent = orderRepository.getTotalSpentByUser(userIdStr);
-    if (totalSpent == null) totalSpent = BigDecimal.ZERO;
+  /**
+   * Stats for a whole page of users with one customer_stats and one review query.
+   */
+  private Page<UserManagementResponse> mapUsersWithStats(Page<User> users) {
+    List<UUID> userIds = users.map(User::getId).getContent();
 
-    long reviewCount = reviewRepository.countByUserId(user.getId());
+    Map<String, CustomerStats> stats = customerStatsService.getStats(
+        userIds.stream().map(UUID::toString).toList());
 
-    LocalDateTime lastOrderAt = orderRepository.findLastOrderDateByUserId(userIdStr);
+    Map<UUID, Long> reviewCounts = new HashMap<>();
+    if (!userIds.isEmpty()) {
+      for (Object[] row : reviewRepository.countByUserIds(userIds)) {
+        reviewCounts.put((UUID) row[0], (Long) row[1]);
+      }
+    }
+
+    return users.map(user -> toResponseWithStats(
+        user, stats.get(user.getId().toString()), reviewCounts.getOrDefault(user.getId(), 0L)));
+  }
 
+  private UserManagementResponse toResponseWithStats(User user, CustomerStats stats, long reviewCount) {
     return UserManagementResponse.fromEntityWithStats(
-        user, orderCount, totalSpent, reviewCount, lastOrderAt);
+        user,
+        stats != null ? stats.getOrderCount() : 0L,
+        stats != null ? stats.getTotalSpent() : BigDecimal.ZERO,
+        reviewCount,
+        stats != null ? stats.getLastOrderAt() : null);
   }
 
 
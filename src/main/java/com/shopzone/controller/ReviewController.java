@@ -135,15 +135,19 @@ public class ReviewController {
       @AuthenticationPrincipal User user,
       @PathVariable String productId) {
 
-    boolean canReview = reviewService.canUserReview(user, productId);
+    ReviewService.ReviewEligibility eligibility = reviewService.canUserReview(user, productId);
     return ResponseEntity.ok(ApiResponse.success("Review eligibility checked",
-        Map.of("canReview", canReview)));
+        Map.of("canReview", eligibility.canReview(),
+            "verifiedPurchase", eligibility.verifiedPurchase())));
   }
 
   @PostMapping("/{reviewId}/helpful")
-  @Operation(summary = "Mark a review as helpful")
-  public ResponseEntity<ApiResponse<Void>> markHelpful(@PathVariable UUID reviewId) {
-    reviewService.markHelpful(reviewId);
+  @PreAuthorize("isAuthenticated()")
+  @Operation(summary = "Mark a review as helpful", security = @SecurityRequirement(name = "bearerAuth"))
+  public ResponseEntity<ApiResponse<Void>> markHelpful(
+      @AuthenticationPrincipal User user,
+      @PathVariable UUID reviewId) {
+    reviewService.markHelpful(reviewId, user.getId().toString());
     return ResponseEntity.ok(ApiResponse.success("Review marked as helpful", null));
   }
 
@@ -5,8 +5,10 @@ import com.shopzone.dto.request.ProductSearchRequest;
 import com.shopzone.dto.response.AutocompleteResponse;
 import com.shopzone.dto.response.SearchResultResponse;
 import com.shopzone.model.elasticsearch.ProductDocument;
+import com.shopzone.service.ProductReindexService;
 import com.shopzone.service.ProductSearchService;
 import com.shopzone.service.ProductSyncService;
+import com.shopzone.service.SimilarProductsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -26,6 +28,8 @@ public class SearchController {
 
   private final ProductSearchService productSearchService;
   private final ProductSyncService productSyncService;
+  private final ProductReindexService productReindexService;
+  private final SimilarProductsService similarProductsService;
 
 
   @GetMapping
@@ -42,7 +46,9 @@ public class SearchController {
       @RequestParam(defaultValue = "0") Integer page,
       @RequestParam(defaultValue = "12") Integer size,
       @RequestParam(defaultValue = "relevance") String sortBy,
-      @RequestParam(defaultValue = "desc") String sortDir) {
+      @RequestParam(defaultValue = "desc") String sortDir,
+      @RequestParam(defaultValue = "false") Boolean facets,
+      @RequestParam(required = false) String cursor) {
 
     ProductSearchRequest request = ProductSearchRequest.builder()
         .query(q)
@@ -57,6 +63,8 @@ public class SearchController {
         .size(Math.min(size, 100))
         .sortBy(sortBy)
         .sortDir(sortDir)
+        .includeFacets(facets)
+        .cursor(cursor)
         .build();
 
     SearchResultResponse results = productSearchService.search(request);
@@ -92,7 +100,7 @@ public class SearchController {
       @PathVariable String productId,
       @RequestParam(defaultValue = "6") Integer limit) {
 
-    List<ProductDocument> similar = productSearchService.findSimilarProducts(
+    List<ProductDocument> similar = similarProductsService.getSimilarProducts(
         productId,
         Math.min(limit, 20)
     );
@@ -102,11 +110,22 @@ public class SearchController {
 
   @PostMapping("/admin/sync")
   @PreAuthorize("hasRole('ADMIN')")
-  @Operation(summary = "Admin: Trigger full sync to Elasticsearch",
+  @Operation(summary = "Admin: Trigger full reindex to Elasticsearch",
+      description = "Builds a new index in the background and swaps the products alias to it when done; "
+          + "search keeps serving the current index meanwhile",
       security = @SecurityRequirement(name = "bearerAuth"))
-  public ResponseEntity<ApiResponse<String>> triggerFullSync() {
-    productSyncService.syncAllProducts();
-    return ResponseEntity.ok(ApiResponse.success("Full sync started", "Sync initiated in background"));
+  public ResponseEntity<ApiResponse<ProductReindexService.ReindexStatus>> triggerFullSync() {
+    ProductReindexService.ReindexStatus status = productReindexService.startReindex();
+    return ResponseEntity.ok(ApiResponse.success("Full reindex started", status));
+  }
+
+  @GetMapping("/admin/sync/progress")
+  @PreAuthorize("hasRole('ADMIN')")
+  @Operation(summary = "Admin: Get full reindex progress",
+      description = "Documents indexed so far, total, docs/sec and state of the last or running reindex",
+      security = @SecurityRequirement(name = "bearerAuth"))
+  public ResponseEntity<ApiResponse<ProductReindexService.ReindexStatus>> getReindexProgress() {
+    return ResponseEntity.ok(ApiResponse.success("Reindex progress retrieved", productReindexService.getStatus()));
   }
 
   @GetMapping("/admin/sync/status")
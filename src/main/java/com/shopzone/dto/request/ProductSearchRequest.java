@@ -29,9 +29,19 @@ public class ProductSearchRequest {
   @Builder.Default
   private Integer size = 12;
 
+  /**
+   * search_after paging: "*" for the first page, then the previous nextCursor. When set,
+   * page is ignored.
+   */
+  private String cursor;
+
   @Builder.Default
   private String sortBy = "relevance";
 
   @Builder.Default
   private String sortDir = "desc";
+
+  /** Also return category, brand, price, rating and in-stock facet counts. */
+  @Builder.Default
+  private Boolean includeFacets = false;
 }
\ No newline at end of file
@@ -16,6 +16,8 @@ public class AutocompleteResponse {
   private String query;
   private List<Suggestion> suggestions;
   private long searchTimeMs;
+  /** Served from MongoDB while Elasticsearch is unavailable. */
+  private boolean fallback;
 
   @Data
   @Builder
@@ -7,13 +7,14 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Map;
 
 /**
  * Comprehensive dashboard statistics response.
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @JsonInclude(JsonInclude.Include.NON_NULL)
@@ -49,4 +50,14 @@ public class DashboardStatsResponse {
   private long totalReviews;
 
   private BigDecimal cancellationRate;
+
+  /**
+   * When the snapshot these stats come from was computed.
+   */
+  private LocalDateTime generatedAt;
+
+  /**
+   * Milliseconds between generatedAt and this response.
+   */
+  private Long snapshotAgeMs;
 }
\ No newline at end of file
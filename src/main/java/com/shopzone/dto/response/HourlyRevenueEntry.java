@@ -0,0 +1,23 @@
+package com.shopzone.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Hourly revenue breakdown entry.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HourlyRevenueEntry {
+
+  private LocalDateTime hour;
+  private BigDecimal revenue;
+  private int orderCount;
+}
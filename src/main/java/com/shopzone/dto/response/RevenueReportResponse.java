@@ -29,4 +29,9 @@ public class RevenueReportResponse {
   private BigDecimal totalDiscount;
   private BigDecimal averageOrderValue;
   private List<DailyRevenueEntry> dailyRevenue;
+
+  /**
+   * Only present for reports covering at most two days.
+   */
+  private List<HourlyRevenueEntry> hourlyRevenue;
 }
\ No newline at end of file
@@ -22,7 +22,14 @@ public class SearchResultResponse {
   private int pageSize;
   private String query;
   private Map<String, List<FacetValue>> facets;
+  /** Cursor for the next page in cursor mode; null when there are no more results. */
+  private String nextCursor;
   private long searchTimeMs;
+  private boolean cacheHit;
+  /** Elasticsearch time of the original search, when served from the result cache. */
+  private Long cacheSavedTimeMs;
+  /** Served from MongoDB while Elasticsearch is unavailable: no facets, fuzzy matching or cursor paging. */
+  private boolean fallback;
 
   @Data
   @Builder
@@ -77,6 +84,8 @@ public class SearchResultResponse {
   @AllArgsConstructor
   public static class FacetValue {
     private String value;
+    /** Display name where the value is an id (category facet). */
+    private String label;
     private long count;
   }
 }
\ No newline at end of file
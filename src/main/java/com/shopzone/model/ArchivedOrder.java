@@ -0,0 +1,67 @@
+package com.shopzone.model;
+
+import com.shopzone.model.enums.OrderStatus;
+import com.shopzone.model.enums.PaymentStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Cold copy of a finished order that has been moved out of the live orders table.
+ * The full order (items, address, timestamps) is kept as gzip-compressed OrderResponse JSON;
+ * only the columns needed for lookups are stored unpacked.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "orders_archive", indexes = {
+    @Index(name = "idx_order_archive_user_id", columnList = "user_id"),
+    @Index(name = "idx_order_archive_created_at", columnList = "created_at")
+})
+public class ArchivedOrder {
+
+  @Id
+  @Column(name = "order_number", length = 20)
+  private String orderNumber;
+
+  @Column(name = "order_id", nullable = false)
+  private String orderId;
+
+  @Column(name = "user_id", nullable = false)
+  private String userId;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 20)
+  private OrderStatus status;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "payment_status", length = 20)
+  private PaymentStatus paymentStatus;
+
+  @Column(name = "total_amount", precision = 10, scale = 2, nullable = false)
+  private BigDecimal totalAmount;
+
+  @Column(name = "amount_refunded", precision = 10, scale = 2)
+  private BigDecimal amountRefunded;
+
+  @Column(name = "created_at", nullable = false)
+  private LocalDateTime createdAt;
+
+  /**
+   * Gzip-compressed OrderResponse JSON.
+   */
+  @Column(name = "payload", nullable = false)
+  private byte[] payload;
+
+  @CreationTimestamp
+  @Column(name = "archived_at", updatable = false)
+  private LocalDateTime archivedAt;
+}
@@ -0,0 +1,51 @@
+package com.shopzone.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Lifetime purchase totals per customer, maintained by CustomerStatsService.
+ * Covers paid orders only; refunds are subtracted from totalSpent and a fully
+ * refunded order no longer counts towards orderCount.
+ */
+@Entity
+@Table(name = "customer_stats", indexes = {
+    @Index(name = "idx_customer_stats_total_spent", columnList = "total_spent DESC")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerStats {
+
+  @Id
+  @Column(name = "user_id")
+  private String userId;
+
+  @Column(name = "customer_name")
+  private String customerName;
+
+  @Column(name = "customer_email")
+  private String customerEmail;
+
+  @Column(name = "order_count", nullable = false)
+  private long orderCount;
+
+  @Column(name = "total_spent", precision = 14, scale = 2, nullable = false)
+  private BigDecimal totalSpent;
+
+  @Column(name = "average_order_value", precision = 10, scale = 2, nullable = false)
+  private BigDecimal averageOrderValue;
+
+  @Column(name = "first_order_at")
+  private LocalDateTime firstOrderAt;
+
+  @Column(name = "last_order_at")
+  private LocalDateTime lastOrderAt;
+
+  @Column(name = "updated_at")
+  private LocalDateTime updatedAt;
+}
@@ -31,7 +31,12 @@ public class Order {
   @GeneratedValue(strategy = GenerationType.UUID)
   private String id;
 
-  @Column(name = "order_number", unique = true, nullable = false, length = 20)
+  /**
+   * Unique, but not declared so here: a partitioned orders table can only enforce
+   * UNIQUE (order_number, created_at). Uniqueness comes from OrderNumberGenerator claiming
+   * each number in order_numbers (see OrderNumberReservation).
+   */
+  @Column(name = "order_number", nullable = false, length = 20)
   private String orderNumber;
 
   @Column(name = "user_id", nullable = false)
@@ -51,8 +56,12 @@ public class Order {
   private AddressSnapshot shippingAddress;
 
 
+  /**
+   * No database-level FK here: once orders is range-partitioned its key is (id, created_at),
+   * so db/orders-partitioning.sql adds the composite FK on (order_id, order_created_at) instead.
+   */
   @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
-  @JoinColumn(name = "order_id")
+  @JoinColumn(name = "order_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
   @Builder.Default
   private List<OrderItem> items = new ArrayList<>();
 
@@ -175,6 +184,7 @@ public class Order {
   protected void onCreate() {
     createdAt = LocalDateTime.now();
     updatedAt = LocalDateTime.now();
+    items.forEach(item -> item.setOrderCreatedAt(createdAt));
   }
 
   @PreUpdate
@@ -213,6 +223,7 @@ public class Order {
   }
 
   public void addItem(OrderItem item) {
+    item.setOrderCreatedAt(createdAt);
     items.add(item);
   }
 
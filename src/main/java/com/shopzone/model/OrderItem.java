@@ -9,13 +9,16 @@ import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDateTime;
 
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "order_items")
+@Table(name = "order_items", indexes = {
+    @Index(name = "idx_order_items_product_id", columnList = "product_id")
+})
 public class OrderItem {
 
   @Id
@@ -55,6 +58,13 @@ public class OrderItem {
   @Column(name = "total_price", precision = 10, scale = 2, nullable = false)
   private BigDecimal totalPrice;
 
+  /**
+   * Copy of the parent order's created_at - the partition key of order_items.
+   * Set by Order on persist.
+   */
+  @Column(name = "order_created_at", updatable = false)
+  private LocalDateTime orderCreatedAt;
+
 
   public BigDecimal getSavings() {
     if (hasDiscount()) {
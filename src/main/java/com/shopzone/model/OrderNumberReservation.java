@@ -0,0 +1,29 @@
+package com.shopzone.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Every order number ever issued. orders is range-partitioned on created_at, and Postgres
+ * only allows unique constraints that include the partition key, so orders itself can only
+ * enforce UNIQUE (order_number, created_at). This unpartitioned table's primary key is
+ * what makes order numbers unique; OrderNumberGenerator claims a number here in the
+ * transaction that creates the order.
+ */
+@Entity
+@Table(name = "order_numbers")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderNumberReservation {
+
+  @Id
+  @Column(name = "order_number", length = 20)
+  private String orderNumber;
+
+  @Column(name = "reserved_at", nullable = false)
+  private LocalDateTime reservedAt;
+}
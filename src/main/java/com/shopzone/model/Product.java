@@ -76,6 +76,14 @@ public class Product {
   @Builder.Default
   private Integer reviewCount = 0;
 
+  /**
+   * Recent sales volume with older sales decayed, maintained by ProductPopularityService
+   * and used to boost relevance ranking.
+   */
+  @Builder.Default
+  @Indexed
+  private Double popularity = 0.0;
+
 
   @CreatedDate
   private LocalDateTime createdAt;
@@ -84,6 +92,31 @@ public class Product {
   private LocalDateTime updatedAt;
 
 
+  /**
+   * Set on every write and cleared once that write is in the search index.
+   * A product with this field is pending in the search outbox.
+   */
+  @Indexed(sparse = true)
+  private LocalDateTime searchSyncRequestedAt;
+
+  /**
+   * Set by stock, rating and popularity updates, which only need those fields updated in the search
+   * index. A full sync (searchSyncRequestedAt) covers them too.
+   */
+  @Indexed(sparse = true)
+  private LocalDateTime searchPartialSyncRequestedAt;
+
+  /**
+   * Changes with every write, so the relay only clears the pending flag when no newer
+   * write happened while it was indexing.
+   */
+  private String searchSyncToken;
+
+  private Integer searchSyncAttempts;
+
+  private LocalDateTime searchSyncRetryAt;
+
+
   @Data
   @Builder
   @NoArgsConstructor
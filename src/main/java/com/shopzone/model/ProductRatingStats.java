@@ -0,0 +1,65 @@
+package com.shopzone.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Per-product review aggregates, maintained by ProductRatingStatsService as deltas
+ * in the same transaction as the review change.
+ */
+@Entity
+@Table(name = "product_rating_stats")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductRatingStats {
+
+  @Id
+  @Column(name = "product_id")
+  private String productId;
+
+  @Column(name = "review_count", nullable = false)
+  private long reviewCount;
+
+  @Column(name = "rating_sum", nullable = false)
+  private long ratingSum;
+
+  @Column(name = "verified_count", nullable = false)
+  private long verifiedCount;
+
+  @Column(name = "star1_count", nullable = false)
+  private long star1Count;
+
+  @Column(name = "star2_count", nullable = false)
+  private long star2Count;
+
+  @Column(name = "star3_count", nullable = false)
+  private long star3Count;
+
+  @Column(name = "star4_count", nullable = false)
+  private long star4Count;
+
+  @Column(name = "star5_count", nullable = false)
+  private long star5Count;
+
+  @Column(name = "updated_at")
+  private LocalDateTime updatedAt;
+
+  public double getAverageRating() {
+    return reviewCount > 0 ? (double) ratingSum / reviewCount : 0.0;
+  }
+
+  public long getStarCount(int rating) {
+    return switch (rating) {
+      case 1 -> star1Count;
+      case 2 -> star2Count;
+      case 3 -> star3Count;
+      case 4 -> star4Count;
+      case 5 -> star5Count;
+      default -> 0;
+    };
+  }
+}
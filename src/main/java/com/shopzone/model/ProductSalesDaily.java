@@ -0,0 +1,55 @@
+package com.shopzone.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Per-product, per-day sales rollup maintained by ProductSalesRollupService.
+ * The day is the date the order was placed.
+ */
+@Entity
+@Table(name = "product_sales_daily", indexes = {
+    @Index(name = "idx_product_sales_daily_product", columnList = "product_id")
+})
+@IdClass(ProductSalesDaily.Key.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSalesDaily {
+
+  @Id
+  @Column(name = "sale_date")
+  private LocalDate saleDate;
+
+  @Id
+  @Column(name = "product_id")
+  private String productId;
+
+  @Column(name = "product_name")
+  private String productName;
+
+  @Column(name = "product_image")
+  private String productImage;
+
+  @Column(nullable = false)
+  private long quantity;
+
+  @Column(precision = 14, scale = 2, nullable = false)
+  private BigDecimal revenue;
+
+  @Column(name = "order_count", nullable = false)
+  private long orderCount;
+
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Key implements Serializable {
+    private LocalDate saleDate;
+    private String productId;
+  }
+}
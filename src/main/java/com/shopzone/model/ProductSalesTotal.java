@@ -0,0 +1,44 @@
+package com.shopzone.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * All-time sales totals per product, kept alongside {@link ProductSalesDaily}
+ * so top sellers are an indexed ORDER BY total_quantity DESC LIMIT n.
+ */
+@Entity
+@Table(name = "product_sales_total", indexes = {
+    @Index(name = "idx_product_sales_total_quantity", columnList = "total_quantity DESC")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSalesTotal {
+
+  @Id
+  @Column(name = "product_id")
+  private String productId;
+
+  @Column(name = "product_name")
+  private String productName;
+
+  @Column(name = "product_image")
+  private String productImage;
+
+  @Column(name = "total_quantity", nullable = false)
+  private long totalQuantity;
+
+  @Column(name = "total_revenue", precision = 14, scale = 2, nullable = false)
+  private BigDecimal totalRevenue;
+
+  @Column(name = "order_count", nullable = false)
+  private long orderCount;
+
+  @Column(name = "updated_at")
+  private LocalDateTime updatedAt;
+}
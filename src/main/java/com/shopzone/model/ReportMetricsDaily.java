@@ -0,0 +1,45 @@
+package com.shopzone.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Revenue and registration totals per day (by order placement / registration date).
+ * Maintained by ReportRollupService.
+ */
+@Entity
+@Table(name = "report_metrics_daily")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportMetricsDaily {
+
+  @Id
+  @Column(name = "metric_date")
+  private LocalDate metricDate;
+
+  /**
+   * Orders placed in this bucket that are PAID or PARTIALLY_REFUNDED.
+   */
+  @Column(name = "paid_orders", nullable = false)
+  private long paidOrders;
+
+  @Column(precision = 14, scale = 2, nullable = false)
+  private BigDecimal revenue;
+
+  @Column(precision = 14, scale = 2, nullable = false)
+  private BigDecimal tax;
+
+  @Column(precision = 14, scale = 2, nullable = false)
+  private BigDecimal shipping;
+
+  @Column(precision = 14, scale = 2, nullable = false)
+  private BigDecimal discount;
+
+  @Column(name = "new_users", nullable = false)
+  private long newUsers;
+}
@@ -0,0 +1,45 @@
+package com.shopzone.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Revenue and registration totals per hour, keyed by the start of the hour.
+ * Maintained by ReportRollupService.
+ */
+@Entity
+@Table(name = "report_metrics_hourly")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportMetricsHourly {
+
+  @Id
+  @Column(name = "metric_hour")
+  private LocalDateTime metricHour;
+
+  /**
+   * Orders placed in this bucket that are PAID or PARTIALLY_REFUNDED.
+   */
+  @Column(name = "paid_orders", nullable = false)
+  private long paidOrders;
+
+  @Column(precision = 14, scale = 2, nullable = false)
+  private BigDecimal revenue;
+
+  @Column(precision = 14, scale = 2, nullable = false)
+  private BigDecimal tax;
+
+  @Column(precision = 14, scale = 2, nullable = false)
+  private BigDecimal shipping;
+
+  @Column(precision = 14, scale = 2, nullable = false)
+  private BigDecimal discount;
+
+  @Column(name = "new_users", nullable = false)
+  private long newUsers;
+}
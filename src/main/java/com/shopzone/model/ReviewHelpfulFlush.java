@@ -0,0 +1,30 @@
+package com.shopzone.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Marker for a helpful-vote batch that has been applied to reviews.helpful_count.
+ * Written in the same transaction as the counts, so a batch left in Redis by a crash
+ * is never applied twice.
+ */
+@Entity
+@Table(name = "review_helpful_flushes")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewHelpfulFlush {
+
+  @Id
+  @Column(name = "batch_id")
+  private String batchId;
+
+  @Column(name = "review_count", nullable = false)
+  private int reviewCount;
+
+  @Column(name = "applied_at", nullable = false)
+  private LocalDateTime appliedAt;
+}
@@ -0,0 +1,39 @@
+package com.shopzone.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Precomputed similar-product ids for one product, best first.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "similar_products")
+public class SimilarProducts {
+
+  @Id
+  private String productId;
+
+  @Builder.Default
+  private List<String> similarIds = new ArrayList<>();
+
+  /**
+   * Set when the product or its category changed; the list is recomputed in the background.
+   */
+  @Indexed
+  private boolean stale;
+
+  @Indexed
+  private LocalDateTime computedAt;
+}
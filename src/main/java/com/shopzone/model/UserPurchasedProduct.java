@@ -0,0 +1,46 @@
+package com.shopzone.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * One row per product a user has received, recorded by PurchaseHistoryService when an
+ * order is delivered. Keeps the first delivered order that contained the product, and is
+ * removed or moved to another delivered order if that order is returned or refunded.
+ */
+@Entity
+@Table(name = "user_purchased_products", indexes = {
+    @Index(name = "idx_user_purchased_products_order", columnList = "order_number")
+})
+@IdClass(UserPurchasedProduct.Key.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserPurchasedProduct {
+
+  @Id
+  @Column(name = "user_id")
+  private String userId;
+
+  @Id
+  @Column(name = "product_id")
+  private String productId;
+
+  @Column(name = "order_number", nullable = false)
+  private String orderNumber;
+
+  @Column(name = "delivered_at")
+  private LocalDateTime deliveredAt;
+
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Key implements Serializable {
+    private String userId;
+    private String productId;
+  }
+}
@@ -11,6 +11,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Document(indexName = "products")
+@Setting(settingPath = "elasticsearch/product-settings.json")
 @Data
 @Builder
 @NoArgsConstructor
@@ -37,7 +38,17 @@ public class ProductDocument {
   @Field(type = FieldType.Keyword)
   private String slug;
 
-  @Field(type = FieldType.Keyword)
+  /**
+   * brand.normalized (lowercase, ASCII-folded keyword) is used for exact brand filters,
+   * brand.ngram for partial matches.
+   */
+  @MultiField(
+      mainField = @Field(type = FieldType.Keyword),
+      otherFields = {
+          @InnerField(suffix = "normalized", type = FieldType.Keyword, normalizer = "lowercase_ascii"),
+          @InnerField(suffix = "ngram", type = FieldType.Text, analyzer = "brand_ngram", searchAnalyzer = "brand_search")
+      }
+  )
   private String brand;
 
   @Field(type = FieldType.Double)
@@ -73,6 +84,10 @@ public class ProductDocument {
   @Field(type = FieldType.Integer)
   private Integer reviewCount;
 
+  /** Decayed recent sales volume, see ProductPopularityService. */
+  @Field(type = FieldType.Double)
+  private Double popularity;
+
   @Field(type = FieldType.Date, format = {}, pattern = "uuuu-MM-dd'T'HH:mm:ss.SSS")
   private LocalDateTime createdAt;
 
@@ -0,0 +1,22 @@
+package com.shopzone.model.enums;
+
+public enum ExportFormat {
+  CSV("text/csv", "csv"),
+  NDJSON("application/x-ndjson", "ndjson");
+
+  private final String contentType;
+  private final String extension;
+
+  ExportFormat(String contentType, String extension) {
+    this.contentType = contentType;
+    this.extension = extension;
+  }
+
+  public String getContentType() {
+    return contentType;
+  }
+
+  public String getExtension() {
+    return extension;
+  }
+}
@@ -0,0 +1,100 @@
+package com.shopzone.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.shopzone.dto.response.ReviewResponse;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Redis cache for the first page of a product's reviews (newest first), the listing
+ * shown on every product page. Entries are owner-neutral; callers set isOwner per request.
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class ReviewPageCacheRepository {
+
+  public static final int FIRST_PAGE_SIZE = 10;
+
+  private static final String KEY_PREFIX = "reviews:first-page:";
+  private static final Duration EXPIRATION = Duration.ofMinutes(10);
+
+  private final RedisTemplate<String, Object> redisTemplate;
+
+  private final ObjectMapper mapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+  private String getKey(String productId) {
+    return KEY_PREFIX + productId;
+  }
+
+  public Optional<CachedReviewPage> findByProductId(String productId) {
+    try {
+      Object value = redisTemplate.opsForValue().get(getKey(productId));
+
+      if (value instanceof CachedReviewPage page) {
+        return Optional.of(page);
+      } else if (value instanceof Map) {
+        return Optional.of(mapper.convertValue(value, CachedReviewPage.class));
+      }
+      return Optional.empty();
+    } catch (Exception e) {
+      log.error("Error reading cached reviews for product {}: {}", productId, e.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  public void save(String productId, CachedReviewPage page) {
+    try {
+      redisTemplate.opsForValue().set(getKey(productId), page, EXPIRATION);
+    } catch (Exception e) {
+      log.error("Error caching reviews for product {}: {}", productId, e.getMessage());
+    }
+  }
+
+  /**
+   * Drop the cached page. Inside a transaction the eviction also runs after commit, so a
+   * concurrent read cannot re-cache the pre-commit state.
+   */
+  public void evict(String productId) {
+    delete(productId);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          delete(productId);
+        }
+      });
+    }
+  }
+
+  private void delete(String productId) {
+    try {
+      redisTemplate.delete(getKey(productId));
+    } catch (Exception e) {
+      log.error("Error evicting cached reviews for product {}: {}", productId, e.getMessage());
+    }
+  }
+
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class CachedReviewPage {
+    private List<ReviewResponse> reviews;
+    /** Reviewer user id per entry in {@link #reviews}, used to work out isOwner. */
+    private List<String> reviewerIds;
+    private long totalElements;
+  }
+}
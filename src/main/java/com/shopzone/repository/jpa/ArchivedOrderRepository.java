@@ -0,0 +1,12 @@
+package com.shopzone.repository.jpa;
+
+import com.shopzone.model.ArchivedOrder;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for orders moved to cold storage by OrderArchiveService.
+ */
+@Repository
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, String> {
+}
@@ -0,0 +1,61 @@
+package com.shopzone.repository.jpa;
+
+import com.shopzone.model.CustomerStats;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface CustomerStatsRepository extends JpaRepository<CustomerStats, String> {
+
+  @Query("SELECT c FROM CustomerStats c WHERE c.orderCount > 0 ORDER BY c.totalSpent DESC")
+  List<CustomerStats> findTopCustomers(Pageable pageable);
+
+  /**
+   * Add one paid order to the customer's totals.
+   */
+  @Modifying
+  @Query(value = "INSERT INTO customer_stats " +
+      "(user_id, customer_name, customer_email, order_count, total_spent, average_order_value, " +
+      "first_order_at, last_order_at, updated_at) " +
+      "VALUES (:userId, :customerName, :customerEmail, 1, :amount, :amount, :orderedAt, :orderedAt, now()) " +
+      "ON CONFLICT (user_id) DO UPDATE SET " +
+      "order_count = customer_stats.order_count + 1, " +
+      "total_spent = customer_stats.total_spent + EXCLUDED.total_spent, " +
+      "average_order_value = ROUND((customer_stats.total_spent + EXCLUDED.total_spent) " +
+      "/ (customer_stats.order_count + 1), 2), " +
+      "first_order_at = LEAST(customer_stats.first_order_at, EXCLUDED.first_order_at), " +
+      "last_order_at = GREATEST(customer_stats.last_order_at, EXCLUDED.last_order_at), " +
+      "customer_name = EXCLUDED.customer_name, " +
+      "customer_email = EXCLUDED.customer_email, " +
+      "updated_at = now()",
+      nativeQuery = true)
+  void recordPaidOrder(@Param("userId") String userId,
+                       @Param("customerName") String customerName,
+                       @Param("customerEmail") String customerEmail,
+                       @Param("amount") BigDecimal amount,
+                       @Param("orderedAt") LocalDateTime orderedAt);
+
+  /**
+   * Subtract a refund; orderCountDelta is -1 when it fully refunds the order.
+   */
+  @Modifying
+  @Query(value = "UPDATE customer_stats SET " +
+      "total_spent = total_spent - :amount, " +
+      "order_count = order_count + :orderCountDelta, " +
+      "average_order_value = CASE WHEN order_count + :orderCountDelta > 0 " +
+      "THEN ROUND((total_spent - :amount) / (order_count + :orderCountDelta), 2) ELSE 0 END, " +
+      "updated_at = now() " +
+      "WHERE user_id = :userId",
+      nativeQuery = true)
+  int recordRefund(@Param("userId") String userId,
+                   @Param("amount") BigDecimal amount,
+                   @Param("orderCountDelta") int orderCountDelta);
+}
@@ -0,0 +1,21 @@
+package com.shopzone.repository.jpa;
+
+import com.shopzone.model.OrderNumberReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OrderNumberReservationRepository extends JpaRepository<OrderNumberReservation, String> {
+
+  /**
+   * Claim an order number. Returns 0 if it was already issued.
+   */
+  @Modifying
+  @Query(value = "INSERT INTO order_numbers (order_number, reserved_at) " +
+      "VALUES (:orderNumber, now()) ON CONFLICT (order_number) DO NOTHING",
+      nativeQuery = true)
+  int claim(@Param("orderNumber") String orderNumber);
+}
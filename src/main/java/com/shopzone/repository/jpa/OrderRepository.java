@@ -3,10 +3,12 @@ package com.shopzone.repository.jpa;
 import com.shopzone.model.Order;
 import com.shopzone.model.enums.OrderStatus;
 import com.shopzone.model.enums.PaymentStatus;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -14,6 +16,11 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, String> {
@@ -22,6 +29,16 @@ public interface OrderRepository extends JpaRepository<Order, String> {
   @Query("SELECT o FROM Order o LEFT JOIN FETCH o.items WHERE o.orderNumber = :orderNumber")
   Optional<Order> findByOrderNumberWithItems(@Param("orderNumber") String orderNumber);
 
+  /**
+   * Same lookup bounded by created_at, so Postgres only probes the monthly
+   * partition the order number's date falls into.
+   */
+  @Query("SELECT o FROM Order o LEFT JOIN FETCH o.items WHERE o.orderNumber = :orderNumber " +
+      "AND o.createdAt >= :from AND o.createdAt < :to")
+  Optional<Order> findByOrderNumberWithItemsCreatedBetween(@Param("orderNumber") String orderNumber,
+                                                           @Param("from") LocalDateTime from,
+                                                           @Param("to") LocalDateTime to);
+
   Page<Order> findByUserIdOrderByCreatedAtDesc(String userId, Pageable pageable);
 
   Page<Order> findByUserIdAndStatus(String userId, OrderStatus status, Pageable pageable);
@@ -39,6 +56,26 @@ public interface OrderRepository extends JpaRepository<Order, String> {
                               @Param("endDate") LocalDateTime endDate,
                               Pageable pageable);
 
+  /**
+   * Forward-only cursor over orders for exports. Must be consumed inside a read-only
+   * transaction and closed; items are not fetched.
+   */
+  @QueryHints({
+      @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+      @QueryHint(name = HINT_READ_ONLY, value = "true"),
+      @QueryHint(name = HINT_CACHEABLE, value = "false")
+  })
+  @Query("SELECT o FROM Order o WHERE " +
+      "(:status IS NULL OR o.status = :status) AND " +
+      "(:paymentStatus IS NULL OR o.paymentStatus = :paymentStatus) AND " +
+      "(CAST(:startDate AS timestamp) IS NULL OR o.createdAt >= :startDate) AND " +
+      "(CAST(:endDate AS timestamp) IS NULL OR o.createdAt <= :endDate) " +
+      "ORDER BY o.createdAt")
+  Stream<Order> streamWithFilters(@Param("status") OrderStatus status,
+                                  @Param("paymentStatus") PaymentStatus paymentStatus,
+                                  @Param("startDate") LocalDateTime startDate,
+                                  @Param("endDate") LocalDateTime endDate);
+
   @Query("SELECT o FROM Order o WHERE " +
       "LOWER(o.orderNumber) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
       "LOWER(o.userEmail) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
@@ -75,6 +112,15 @@ public interface OrderRepository extends JpaRepository<Order, String> {
 
   List<Order> findByCreatedAtBetween(LocalDateTime start, LocalDateTime end);
 
+  /**
+   * Order counts per (status, paymentStatus) for orders placed in [start, end).
+   */
+  @Query("SELECT o.status, o.paymentStatus, COUNT(o) FROM Order o " +
+      "WHERE o.createdAt >= :start AND o.createdAt < :end " +
+      "GROUP BY o.status, o.paymentStatus")
+  List<Object[]> countByStatusAndPaymentStatusInRange(@Param("start") LocalDateTime start,
+                                                      @Param("end") LocalDateTime end);
+
   @Query("SELECT o FROM Order o LEFT JOIN FETCH o.items ORDER BY o.createdAt DESC")
   List<Order> findRecentOrders(Pageable pageable);
 
@@ -98,4 +144,17 @@ public interface OrderRepository extends JpaRepository<Order, String> {
    */
   @Query("SELECT MAX(o.createdAt) FROM Order o WHERE o.userId = :userId")
   LocalDateTime findLastOrderDateByUserId(@Param("userId") String userId);
-}
\ No newline at end of file
+
+
+  /**
+   * IDs of finished orders created before the cutoff, oldest first (for archival).
+   */
+  @Query("SELECT o.id FROM Order o WHERE o.createdAt < :cutoff AND o.status IN :statuses " +
+      "ORDER BY o.createdAt")
+  List<String> findArchivableOrderIds(@Param("cutoff") LocalDateTime cutoff,
+                                      @Param("statuses") List<OrderStatus> statuses,
+                                      Pageable pageable);
+
+  @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.items WHERE o.id IN :ids")
+  List<Order> findAllWithItemsByIdIn(@Param("ids") List<String> ids);
+}
@@ -2,16 +2,24 @@ package com.shopzone.repository.jpa;
 
 import com.shopzone.model.Payment;
 import com.shopzone.model.enums.PaymentStatus;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 /**
  * Repository for Payment entity.
@@ -63,6 +71,24 @@ public interface PaymentRepository extends JpaRepository<Payment, String> {
    */
   Page<Payment> findByStatusOrderByCreatedAtDesc(PaymentStatus status, Pageable pageable);
 
+  /**
+   * Forward-only cursor over payments for exports. Must be consumed inside a read-only
+   * transaction and closed.
+   */
+  @QueryHints({
+      @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+      @QueryHint(name = HINT_READ_ONLY, value = "true"),
+      @QueryHint(name = HINT_CACHEABLE, value = "false")
+  })
+  @Query("SELECT p FROM Payment p WHERE " +
+      "(:status IS NULL OR p.status = :status) AND " +
+      "(CAST(:startDate AS timestamp) IS NULL OR p.createdAt >= :startDate) AND " +
+      "(CAST(:endDate AS timestamp) IS NULL OR p.createdAt <= :endDate) " +
+      "ORDER BY p.createdAt")
+  Stream<Payment> streamWithFilters(@Param("status") PaymentStatus status,
+                                    @Param("startDate") LocalDateTime startDate,
+                                    @Param("endDate") LocalDateTime endDate);
+
   /**
    * Find pending payments older than specified time (for cleanup).
    */
@@ -75,6 +101,23 @@ public interface PaymentRepository extends JpaRepository<Payment, String> {
    */
   long countByStatus(PaymentStatus status);
 
+  /**
+   * Per-status aggregates: status, count, sum(amount), sum(amountRefunded).
+   */
+  @Query("SELECT p.status, COUNT(p), COALESCE(SUM(p.amount), 0), " +
+      "COALESCE(SUM(p.amountRefunded), 0) " +
+      "FROM Payment p GROUP BY p.status")
+  List<Object[]> aggregateByStatus();
+
+  /**
+   * Per-card-brand aggregates over payments in the given statuses:
+   * cardBrand, count, sum(amount), sum(amountRefunded).
+   */
+  @Query("SELECT p.cardBrand, COUNT(p), COALESCE(SUM(p.amount), 0), " +
+      "COALESCE(SUM(p.amountRefunded), 0) " +
+      "FROM Payment p WHERE p.status IN :statuses GROUP BY p.cardBrand")
+  List<Object[]> aggregateByCardBrand(@Param("statuses") Collection<PaymentStatus> statuses);
+
   /**
    * Sum of successful payments in a date range.
    */
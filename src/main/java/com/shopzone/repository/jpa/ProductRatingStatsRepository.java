@@ -0,0 +1,52 @@
+package com.shopzone.repository.jpa;
+
+import com.shopzone.model.ProductRatingStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ProductRatingStatsRepository extends JpaRepository<ProductRatingStats, String> {
+
+  /**
+   * Add signed deltas to a product's aggregates, creating the row if needed.
+   * Each starN argument is the change in the number of N-star reviews.
+   */
+  @Modifying(flushAutomatically = true)
+  @Query(value = "INSERT INTO product_rating_stats " +
+      "(product_id, review_count, rating_sum, verified_count, " +
+      "star1_count, star2_count, star3_count, star4_count, star5_count, updated_at) " +
+      "VALUES (:productId, :countDelta, :sumDelta, :verifiedDelta, " +
+      ":star1, :star2, :star3, :star4, :star5, now()) " +
+      "ON CONFLICT (product_id) DO UPDATE SET " +
+      "review_count = product_rating_stats.review_count + EXCLUDED.review_count, " +
+      "rating_sum = product_rating_stats.rating_sum + EXCLUDED.rating_sum, " +
+      "verified_count = product_rating_stats.verified_count + EXCLUDED.verified_count, " +
+      "star1_count = product_rating_stats.star1_count + EXCLUDED.star1_count, " +
+      "star2_count = product_rating_stats.star2_count + EXCLUDED.star2_count, " +
+      "star3_count = product_rating_stats.star3_count + EXCLUDED.star3_count, " +
+      "star4_count = product_rating_stats.star4_count + EXCLUDED.star4_count, " +
+      "star5_count = product_rating_stats.star5_count + EXCLUDED.star5_count, " +
+      "updated_at = now()",
+      nativeQuery = true)
+  void applyDelta(@Param("productId") String productId,
+                  @Param("countDelta") long countDelta,
+                  @Param("sumDelta") long sumDelta,
+                  @Param("verifiedDelta") long verifiedDelta,
+                  @Param("star1") long star1,
+                  @Param("star2") long star2,
+                  @Param("star3") long star3,
+                  @Param("star4") long star4,
+                  @Param("star5") long star5);
+
+  /**
+   * review_count and rating_sum straight from the table, bypassing the persistence context.
+   */
+  @Query(value = "SELECT review_count, rating_sum FROM product_rating_stats WHERE product_id = :productId",
+      nativeQuery = true)
+  List<Object[]> findCountAndSum(@Param("productId") String productId);
+}
@@ -0,0 +1,54 @@
+package com.shopzone.repository.jpa;
+
+import com.shopzone.model.ProductSalesDaily;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ProductSalesDailyRepository extends JpaRepository<ProductSalesDaily, ProductSalesDaily.Key> {
+
+  /**
+   * Add (or, with negative values, remove) sales for one product on one day.
+   */
+  @Modifying
+  @Query(value = "INSERT INTO product_sales_daily " +
+      "(sale_date, product_id, product_name, product_image, quantity, revenue, order_count) " +
+      "VALUES (:saleDate, :productId, :productName, :productImage, :quantity, :revenue, :orderCount) " +
+      "ON CONFLICT (sale_date, product_id) DO UPDATE SET " +
+      "quantity = product_sales_daily.quantity + EXCLUDED.quantity, " +
+      "revenue = product_sales_daily.revenue + EXCLUDED.revenue, " +
+      "order_count = product_sales_daily.order_count + EXCLUDED.order_count, " +
+      "product_name = EXCLUDED.product_name, " +
+      "product_image = EXCLUDED.product_image",
+      nativeQuery = true)
+  void applyDelta(@Param("saleDate") LocalDate saleDate,
+                  @Param("productId") String productId,
+                  @Param("productName") String productName,
+                  @Param("productImage") String productImage,
+                  @Param("quantity") long quantity,
+                  @Param("revenue") BigDecimal revenue,
+                  @Param("orderCount") long orderCount);
+
+  /**
+   * Top sellers over [start, end]: product_id, product_name, product_image, quantity, revenue, order_count.
+   */
+  @Query(value = "SELECT product_id, MAX(product_name), MAX(product_image), " +
+      "SUM(quantity) AS qty, SUM(revenue), SUM(order_count) " +
+      "FROM product_sales_daily " +
+      "WHERE sale_date BETWEEN :start AND :end " +
+      "GROUP BY product_id " +
+      "HAVING SUM(quantity) > 0 " +
+      "ORDER BY qty DESC " +
+      "LIMIT :limit",
+      nativeQuery = true)
+  List<Object[]> findTopSellersBetween(@Param("start") LocalDate start,
+                                       @Param("end") LocalDate end,
+                                       @Param("limit") int limit);
+}
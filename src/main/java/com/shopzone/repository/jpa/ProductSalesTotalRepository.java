@@ -0,0 +1,38 @@
+package com.shopzone.repository.jpa;
+
+import com.shopzone.model.ProductSalesTotal;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface ProductSalesTotalRepository extends JpaRepository<ProductSalesTotal, String> {
+
+  @Query("SELECT t FROM ProductSalesTotal t WHERE t.totalQuantity > 0 ORDER BY t.totalQuantity DESC")
+  List<ProductSalesTotal> findTopSellers(Pageable pageable);
+
+  @Modifying
+  @Query(value = "INSERT INTO product_sales_total " +
+      "(product_id, product_name, product_image, total_quantity, total_revenue, order_count, updated_at) " +
+      "VALUES (:productId, :productName, :productImage, :quantity, :revenue, :orderCount, now()) " +
+      "ON CONFLICT (product_id) DO UPDATE SET " +
+      "total_quantity = product_sales_total.total_quantity + EXCLUDED.total_quantity, " +
+      "total_revenue = product_sales_total.total_revenue + EXCLUDED.total_revenue, " +
+      "order_count = product_sales_total.order_count + EXCLUDED.order_count, " +
+      "product_name = EXCLUDED.product_name, " +
+      "product_image = EXCLUDED.product_image, " +
+      "updated_at = now()",
+      nativeQuery = true)
+  void applyDelta(@Param("productId") String productId,
+                  @Param("productName") String productName,
+                  @Param("productImage") String productImage,
+                  @Param("quantity") long quantity,
+                  @Param("revenue") BigDecimal revenue,
+                  @Param("orderCount") long orderCount);
+}
@@ -0,0 +1,48 @@
+package com.shopzone.repository.jpa;
+
+import com.shopzone.model.ReportMetricsDaily;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ReportMetricsDailyRepository extends JpaRepository<ReportMetricsDaily, LocalDate> {
+
+  /**
+   * Add (or, with negative values, remove) paid orders in one bucket.
+   */
+  @Modifying
+  @Query(value = "INSERT INTO report_metrics_daily " +
+      "(metric_date, paid_orders, revenue, tax, shipping, discount, new_users) " +
+      "VALUES (:bucket, :orders, :revenue, :tax, :shipping, :discount, 0) " +
+      "ON CONFLICT (metric_date) DO UPDATE SET " +
+      "paid_orders = report_metrics_daily.paid_orders + EXCLUDED.paid_orders, " +
+      "revenue = report_metrics_daily.revenue + EXCLUDED.revenue, " +
+      "tax = report_metrics_daily.tax + EXCLUDED.tax, " +
+      "shipping = report_metrics_daily.shipping + EXCLUDED.shipping, " +
+      "discount = report_metrics_daily.discount + EXCLUDED.discount",
+      nativeQuery = true)
+  void applyOrderDelta(@Param("bucket") LocalDate bucket,
+                       @Param("orders") long orders,
+                       @Param("revenue") BigDecimal revenue,
+                       @Param("tax") BigDecimal tax,
+                       @Param("shipping") BigDecimal shipping,
+                       @Param("discount") BigDecimal discount);
+
+  @Modifying
+  @Query(value = "INSERT INTO report_metrics_daily " +
+      "(metric_date, paid_orders, revenue, tax, shipping, discount, new_users) " +
+      "VALUES (:bucket, 0, 0, 0, 0, 0, :users) " +
+      "ON CONFLICT (metric_date) DO UPDATE SET " +
+      "new_users = report_metrics_daily.new_users + EXCLUDED.new_users",
+      nativeQuery = true)
+  void addRegistrations(@Param("bucket") LocalDate bucket, @Param("users") long users);
+
+  List<ReportMetricsDaily> findByMetricDateBetweenOrderByMetricDate(LocalDate start, LocalDate end);
+}
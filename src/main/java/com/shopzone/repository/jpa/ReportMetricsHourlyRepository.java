@@ -0,0 +1,54 @@
+package com.shopzone.repository.jpa;
+
+import com.shopzone.model.ReportMetricsHourly;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ReportMetricsHourlyRepository extends JpaRepository<ReportMetricsHourly, LocalDateTime> {
+
+  /**
+   * Add (or, with negative values, remove) paid orders in one bucket.
+   */
+  @Modifying
+  @Query(value = "INSERT INTO report_metrics_hourly " +
+      "(metric_hour, paid_orders, revenue, tax, shipping, discount, new_users) " +
+      "VALUES (:bucket, :orders, :revenue, :tax, :shipping, :discount, 0) " +
+      "ON CONFLICT (metric_hour) DO UPDATE SET " +
+      "paid_orders = report_metrics_hourly.paid_orders + EXCLUDED.paid_orders, " +
+      "revenue = report_metrics_hourly.revenue + EXCLUDED.revenue, " +
+      "tax = report_metrics_hourly.tax + EXCLUDED.tax, " +
+      "shipping = report_metrics_hourly.shipping + EXCLUDED.shipping, " +
+      "discount = report_metrics_hourly.discount + EXCLUDED.discount",
+      nativeQuery = true)
+  void applyOrderDelta(@Param("bucket") LocalDateTime bucket,
+                       @Param("orders") long orders,
+                       @Param("revenue") BigDecimal revenue,
+                       @Param("tax") BigDecimal tax,
+                       @Param("shipping") BigDecimal shipping,
+                       @Param("discount") BigDecimal discount);
+
+  @Modifying
+  @Query(value = "INSERT INTO report_metrics_hourly " +
+      "(metric_hour, paid_orders, revenue, tax, shipping, discount, new_users) " +
+      "VALUES (:bucket, 0, 0, 0, 0, 0, :users) " +
+      "ON CONFLICT (metric_hour) DO UPDATE SET " +
+      "new_users = report_metrics_hourly.new_users + EXCLUDED.new_users",
+      nativeQuery = true)
+  void addRegistrations(@Param("bucket") LocalDateTime bucket, @Param("users") long users);
+
+  /**
+   * Buckets in the half-open range [start, end).
+   */
+  @Query("SELECT h FROM ReportMetricsHourly h " +
+      "WHERE h.metricHour >= :start AND h.metricHour < :end ORDER BY h.metricHour")
+  List<ReportMetricsHourly> findInRange(@Param("start") LocalDateTime start,
+                                        @Param("end") LocalDateTime end);
+}
@@ -0,0 +1,27 @@
+package com.shopzone.repository.jpa;
+
+import com.shopzone.model.ReviewHelpfulFlush;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface ReviewHelpfulFlushRepository extends JpaRepository<ReviewHelpfulFlush, String> {
+
+  /**
+   * Claim a batch id. Returns 0 if the batch was already applied.
+   */
+  @Modifying
+  @Query(value = "INSERT INTO review_helpful_flushes (batch_id, review_count, applied_at) " +
+      "VALUES (:batchId, :reviewCount, now()) ON CONFLICT (batch_id) DO NOTHING",
+      nativeQuery = true)
+  int claim(@Param("batchId") String batchId, @Param("reviewCount") int reviewCount);
+
+  @Modifying
+  @Query("DELETE FROM ReviewHelpfulFlush f WHERE f.appliedAt < :cutoff")
+  int deleteAppliedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
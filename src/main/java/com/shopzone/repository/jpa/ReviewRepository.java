@@ -4,12 +4,14 @@ import com.shopzone.model.Review;
 import com.shopzone.model.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -17,6 +19,7 @@ import java.util.UUID;
 @Repository
 public interface ReviewRepository extends JpaRepository<Review, UUID> {
 
+  @EntityGraph(attributePaths = "user")
   Page<Review> findByProductIdOrderByCreatedAtDesc(String productId, Pageable pageable);
 
   List<Review> findByProductId(String productId);
@@ -31,29 +34,19 @@ public interface ReviewRepository extends JpaRepository<Review, UUID> {
 
   boolean existsByUserAndProductId(User user, String productId);
 
-  @Query("SELECT AVG(r.rating) FROM Review r WHERE r.productId = :productId")
-  Double findAverageRatingByProductId(@Param("productId") String productId);
-
-  @Query("SELECT COUNT(r) FROM Review r WHERE r.productId = :productId")
-  Long countByProductId(@Param("productId") String productId);
-
-  @Query("SELECT COUNT(r) FROM Review r WHERE r.productId = :productId AND r.verifiedPurchase = true")
-  Long countVerifiedByProductId(@Param("productId") String productId);
-
-  @Query("SELECT r.rating, COUNT(r) FROM Review r WHERE r.productId = :productId GROUP BY r.rating ORDER BY r.rating DESC")
-  List<Object[]> findRatingDistributionByProductId(@Param("productId") String productId);
-
+  @EntityGraph(attributePaths = "user")
   Page<Review> findByProductIdAndRatingOrderByCreatedAtDesc(String productId, Integer rating, Pageable pageable);
 
+  @EntityGraph(attributePaths = "user")
   Page<Review> findByProductIdAndVerifiedPurchaseTrueOrderByCreatedAtDesc(String productId, Pageable pageable);
 
-  @Modifying
-  @Query("UPDATE Review r SET r.helpfulCount = r.helpfulCount + 1 WHERE r.id = :reviewId")
-  void incrementHelpfulCount(@Param("reviewId") UUID reviewId);
-
   @Modifying
   void deleteByProductId(String productId);
 
+  /**
+   * helpfulCount is updated in batches by ReviewHelpfulVoteService and may trail the
+   * latest votes by a few seconds.
+   */
   Page<Review> findByProductIdOrderByHelpfulCountDescCreatedAtDesc(String productId, Pageable pageable);
 
 
@@ -67,4 +60,10 @@ public interface ReviewRepository extends JpaRepository<Review, UUID> {
    * Count reviews by user ID (for admin user stats).
    */
   long countByUserId(UUID userId);
-}
\ No newline at end of file
+
+  /**
+   * Review counts for a page of users: user id, count.
+   */
+  @Query("SELECT r.user.id, COUNT(r) FROM Review r WHERE r.user.id IN :userIds GROUP BY r.user.id")
+  List<Object[]> countByUserIds(@Param("userIds") Collection<UUID> userIds);
+}
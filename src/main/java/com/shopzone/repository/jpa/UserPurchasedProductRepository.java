@@ -0,0 +1,35 @@
+package com.shopzone.repository.jpa;
+
+import com.shopzone.model.UserPurchasedProduct;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface UserPurchasedProductRepository
+    extends JpaRepository<UserPurchasedProduct, UserPurchasedProduct.Key> {
+
+  Optional<UserPurchasedProduct> findByUserIdAndProductId(String userId, String productId);
+
+  /**
+   * Record a delivered product; an existing row for the same user and product is kept.
+   */
+  @Modifying
+  @Query(value = "INSERT INTO user_purchased_products (user_id, product_id, order_number, delivered_at) " +
+      "VALUES (:userId, :productId, :orderNumber, :deliveredAt) " +
+      "ON CONFLICT (user_id, product_id) DO NOTHING",
+      nativeQuery = true)
+  void recordPurchase(@Param("userId") String userId,
+                      @Param("productId") String productId,
+                      @Param("orderNumber") String orderNumber,
+                      @Param("deliveredAt") LocalDateTime deliveredAt);
+
+  @Modifying
+  @Query("DELETE FROM UserPurchasedProduct p WHERE p.orderNumber = :orderNumber")
+  int deleteByOrderNumber(@Param("orderNumber") String orderNumber);
+}
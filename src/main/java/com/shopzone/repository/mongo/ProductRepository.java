@@ -12,6 +12,7 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 @Repository
 public interface ProductRepository extends MongoRepository<Product, String> {
@@ -78,13 +79,36 @@ public interface ProductRepository extends MongoRepository<Product, String> {
   @Query("{ '_id': ?0, 'stock': { $gte: ?1 }, 'active': true }")
   Optional<Product> findByIdWithSufficientStock(String id, int requiredQuantity);
 
+  /**
+   * Stock and rating updates mark the product for a partial search update in the same
+   * write; see ProductSearchOutbox.
+   */
   @Query("{ '_id': ?0, 'stock': { $gte: ?1 } }")
-  @Update("{ '$inc': { 'stock': ?2 } }")
-  int reduceStock(String productId, int requiredStock, int reduceBy);
+  @Update("{ '$inc': { 'stock': ?2 }, '$set': { 'searchPartialSyncRequestedAt': ?3, 'searchSyncToken': ?4 } }")
+  int reduceStock(String productId, int requiredStock, int reduceBy,
+                  LocalDateTime syncRequestedAt, String syncToken);
+
+  default int reduceStock(String productId, int requiredStock, int reduceBy) {
+    return reduceStock(productId, requiredStock, reduceBy, LocalDateTime.now(), UUID.randomUUID().toString());
+  }
+
+  @Query("{ '_id': ?0 }")
+  @Update("{ '$inc': { 'stock': ?1 }, '$set': { 'searchPartialSyncRequestedAt': ?2, 'searchSyncToken': ?3 } }")
+  int increaseStock(String productId, int increaseBy, LocalDateTime syncRequestedAt, String syncToken);
+
+  default int increaseStock(String productId, int increaseBy) {
+    return increaseStock(productId, increaseBy, LocalDateTime.now(), UUID.randomUUID().toString());
+  }
 
   @Query("{ '_id': ?0 }")
-  @Update("{ '$inc': { 'stock': ?1 } }")
-  int increaseStock(String productId, int increaseBy);
+  @Update("{ '$set': { 'averageRating': ?1, 'reviewCount': ?2, " +
+      "'searchPartialSyncRequestedAt': ?3, 'searchSyncToken': ?4 } }")
+  int updateRating(String productId, double averageRating, int reviewCount,
+                   LocalDateTime syncRequestedAt, String syncToken);
+
+  default int updateRating(String productId, double averageRating, int reviewCount) {
+    return updateRating(productId, averageRating, reviewCount, LocalDateTime.now(), UUID.randomUUID().toString());
+  }
 
   @Query("{ 'active': true, 'stock': { $lte: ?0 } }")
   List<Product> findLowStockProducts(int threshold);
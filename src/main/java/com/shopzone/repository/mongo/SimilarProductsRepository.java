@@ -0,0 +1,17 @@
+package com.shopzone.repository.mongo;
+
+import com.shopzone.model.SimilarProducts;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SimilarProductsRepository extends MongoRepository<SimilarProducts, String> {
+
+  List<SimilarProducts> findByStaleTrue(Pageable pageable);
+
+  List<SimilarProducts> findByComputedAtBefore(LocalDateTime computedAt, Pageable pageable);
+}
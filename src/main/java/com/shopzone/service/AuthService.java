@@ -32,16 +32,19 @@ public class AuthService {
   private final JwtService jwtService;
   private final AuthenticationManager authenticationManager;
   private final UserService userService;
+  private final ReportRollupService reportRollupService;
 
   public AuthService(UserRepository userRepository,
                      PasswordEncoder passwordEncoder,
                      JwtService jwtService,
-                     @Lazy AuthenticationManager authenticationManager, UserService userService) {
+                     @Lazy AuthenticationManager authenticationManager, UserService userService,
+                     ReportRollupService reportRollupService) {
     this.userRepository = userRepository;
     this.passwordEncoder = passwordEncoder;
     this.jwtService = jwtService;
     this.authenticationManager = authenticationManager;
     this.userService = userService;
+    this.reportRollupService = reportRollupService;
   }
 
   public AuthResponse register(RegisterRequest request) {
@@ -62,6 +65,7 @@ public class AuthService {
         .build();
 
     User savedUser = userRepository.save(user);
+    reportRollupService.onUserRegistered(savedUser);
     log.info("User registered successfully: {}", savedUser.getEmail());
 
     userService.sendWelcomeEmail(user);
@@ -0,0 +1,64 @@
+package com.shopzone.service;
+
+import com.shopzone.dto.response.AutocompleteResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * In-memory cache of autocomplete suggestions per normalized prefix. Each entry holds
+ * the top {@link #MAX_SUGGESTIONS} suggestions so any requested limit can be served from
+ * it. The cache keeps the most recently used few thousand prefixes, which covers the
+ * bulk of keystrokes; entries expire after a TTL so price and stock changes show up.
+ */
+@Component
+@RequiredArgsConstructor
+public class AutocompleteCache {
+
+  public static final int MAX_SUGGESTIONS = 20;
+
+  private final MeterRegistry meterRegistry;
+
+  @Value("${shopzone.search.autocomplete.cache-ttl:PT5M}")
+  private Duration ttl;
+
+  @Value("${shopzone.search.autocomplete.cache-max-prefixes:5000}")
+  private int maxPrefixes;
+
+  private final Map<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+      return size() > maxPrefixes;
+    }
+  };
+
+
+  public Optional<List<AutocompleteResponse.Suggestion>> get(String prefix) {
+    Entry entry;
+    synchronized (entries) {
+      entry = entries.get(prefix);
+      if (entry != null && System.nanoTime() - entry.expiresAtNanos() >= 0) {
+        entries.remove(prefix);
+        entry = null;
+      }
+    }
+
+    meterRegistry.counter("shopzone.search.autocomplete.cache", "result", entry != null ? "hit" : "miss").increment();
+    return Optional.ofNullable(entry).map(Entry::suggestions);
+  }
+
+  public void put(String prefix, List<AutocompleteResponse.Suggestion> suggestions) {
+    synchronized (entries) {
+      entries.put(prefix, new Entry(List.copyOf(suggestions), System.nanoTime() + ttl.toNanos()));
+    }
+  }
+
+  private record Entry(List<AutocompleteResponse.Suggestion> suggestions, long expiresAtNanos) {}
+}
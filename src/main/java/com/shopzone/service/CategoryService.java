@@ -25,6 +25,7 @@ public class CategoryService {
 
   private final CategoryRepository categoryRepository;
   private final ProductRepository productRepository;
+  private final SimilarProductsService similarProductsService;
   private final Slugify slugify = Slugify.builder().build();
 
 
@@ -181,6 +182,8 @@ public class CategoryService {
     Category updated = categoryRepository.save(category);
     log.info("Category updated: {}", updated.getId());
 
+    similarProductsService.onCategoryChanged(updated.getId());
+
     return buildCategoryResponse(updated);
   }
 
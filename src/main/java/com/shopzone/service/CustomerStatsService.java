@@ -0,0 +1,128 @@
+package com.shopzone.service;
+
+import com.shopzone.model.CustomerStats;
+import com.shopzone.model.Order;
+import com.shopzone.repository.jpa.CustomerStatsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the customer_stats rollup. Payment success and refunds update it in the
+ * same transaction as the payment, so reads never have to aggregate orders.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerStatsService {
+
+  private final CustomerStatsRepository customerStatsRepository;
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+
+
+  @Transactional
+  public void onPaymentSuccess(Order order) {
+    customerStatsRepository.recordPaidOrder(
+        order.getUserId(),
+        order.getUserFullName(),
+        order.getUserEmail(),
+        order.getTotalAmount(),
+        order.getCreatedAt());
+  }
+
+  @Transactional
+  public void onRefund(Order order, BigDecimal refundAmount, boolean fullyRefunded) {
+    int updated = customerStatsRepository.recordRefund(
+        order.getUserId(), refundAmount, fullyRefunded ? -1 : 0);
+    if (updated == 0) {
+      log.warn("No customer stats for user {} while refunding order {}",
+          order.getUserId(), order.getOrderNumber());
+    }
+  }
+
+  @Transactional(readOnly = true)
+  public Optional<CustomerStats> getStats(String userId) {
+    return customerStatsRepository.findById(userId);
+  }
+
+  @Transactional(readOnly = true)
+  public Map<String, CustomerStats> getStats(Collection<String> userIds) {
+    return customerStatsRepository.findAllById(userIds).stream()
+        .collect(Collectors.toMap(CustomerStats::getUserId, Function.identity()));
+  }
+
+  @Transactional(readOnly = true)
+  public List<CustomerStats> getTopCustomers(int limit) {
+    return customerStatsRepository.findTopCustomers(PageRequest.of(0, limit));
+  }
+
+  /**
+   * Populate the table on first start after it was introduced.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void backfillIfEmpty() {
+    try {
+      if (customerStatsRepository.count() == 0) {
+        transactionTemplate.executeWithoutResult(status -> backfill());
+      }
+    } catch (Exception e) {
+      log.error("Customer stats backfill failed: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Rebuild customer_stats from live and archived orders. The table is locked for the
+   * duration so concurrent payments apply their update on top of the rebuilt rows.
+   *
+   * @return number of customers written
+   */
+  @Transactional
+  public int backfill() {
+    long startTime = System.currentTimeMillis();
+
+    jdbcTemplate.execute("LOCK TABLE customer_stats IN EXCLUSIVE MODE");
+    jdbcTemplate.update("DELETE FROM customer_stats");
+
+    int rows = jdbcTemplate.update(
+        "INSERT INTO customer_stats " +
+            "(user_id, customer_name, customer_email, order_count, total_spent, average_order_value, " +
+            "first_order_at, last_order_at, updated_at) " +
+            "SELECT p.user_id, " +
+            "MAX(u.first_name || ' ' || u.last_name), MAX(u.email), " +
+            "COUNT(*) FILTER (WHERE p.payment_status <> 'REFUNDED'), " +
+            "SUM(p.net_amount), " +
+            "COALESCE(ROUND(SUM(p.net_amount) / " +
+            "NULLIF(COUNT(*) FILTER (WHERE p.payment_status <> 'REFUNDED'), 0), 2), 0), " +
+            "MIN(p.created_at), MAX(p.created_at), now() " +
+            "FROM (" +
+            "SELECT user_id, payment_status, created_at, " +
+            "total_amount - COALESCE(amount_refunded, 0) AS net_amount FROM orders " +
+            "WHERE payment_status IN ('PAID', 'PARTIALLY_REFUNDED', 'REFUNDED') " +
+            "UNION ALL " +
+            "SELECT user_id, payment_status, created_at, " +
+            "total_amount - COALESCE(amount_refunded, 0) FROM orders_archive " +
+            "WHERE payment_status IN ('PAID', 'PARTIALLY_REFUNDED', 'REFUNDED')" +
+            ") p " +
+            "LEFT JOIN users u ON CAST(u.id AS VARCHAR) = p.user_id " +
+            "GROUP BY p.user_id");
+
+    log.info("Backfilled customer stats for {} customers in {}ms",
+        rows, System.currentTimeMillis() - startTime);
+    return rows;
+  }
+}
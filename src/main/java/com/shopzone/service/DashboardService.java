@@ -2,31 +2,38 @@ package com.shopzone.service;
 
 import com.shopzone.dto.response.*;
 import com.shopzone.model.Order;
-import com.shopzone.model.OrderItem;
 import com.shopzone.model.enums.OrderStatus;
-import com.shopzone.model.enums.PaymentStatus;
 import com.shopzone.repository.jpa.OrderRepository;
-import com.shopzone.repository.jpa.ReviewRepository;
-import com.shopzone.repository.jpa.UserRepository;
-import com.shopzone.repository.mongo.ProductRepository;
+import com.shopzone.repository.jpa.ProductSalesTotalRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.DayOfWeek;
-import java.time.LocalDate;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.temporal.TemporalAdjusters;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 /**
  * Service for admin dashboard statistics.
  * Aggregates data from orders, users, products, and reviews.
+ *
+ * Headline stats are computed on a schedule ({@code shopzone.dashboard.refresh-interval-ms})
+ * and served from memory, so dashboard views do not hit the databases.
  */
 @Service
 @RequiredArgsConstructor
@@ -34,32 +41,79 @@ import java.util.stream.Collectors;
 public class DashboardService {
 
   private final OrderRepository orderRepository;
-  private final UserRepository userRepository;
-  private final ProductRepository productRepository;
-  private final ReviewRepository reviewRepository;
+  private final ProductSalesTotalRepository productSalesTotalRepository;
+  private final CustomerStatsService customerStatsService;
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+  private final MongoTemplate mongoTemplate;
 
+  private static final int LOW_STOCK_THRESHOLD = 10;
 
-  @Transactional(readOnly = true)
+  private static final String SQL_STATS = buildStatsSql();
+
+  private final AtomicReference<DashboardStatsResponse> snapshot = new AtomicReference<>();
+
+
+  /**
+   * Dashboard statistics served from the in-memory snapshot. The snapshot is built
+   * synchronously only if no refresh has succeeded yet.
+   */
   public DashboardStatsResponse getDashboardStats() {
-    log.info("Generating dashboard statistics");
+    DashboardStatsResponse current = snapshot.get();
+    if (current == null) {
+      current = refreshSnapshot();
+    }
+
+    return current.toBuilder()
+        .snapshotAgeMs(Duration.between(current.getGeneratedAt(), LocalDateTime.now()).toMillis())
+        .build();
+  }
 
-    LocalDateTime startOfToday = LocalDate.now().atStartOfDay();
-    LocalDateTime startOfWeek = LocalDate.now()
+  /**
+   * Rebuild the snapshot. On failure the previous snapshot keeps being served and its
+   * growing snapshotAgeMs shows how stale it is.
+   */
+  @Scheduled(fixedDelayString = "${shopzone.dashboard.refresh-interval-ms:30000}")
+  public void scheduledRefresh() {
+    try {
+      refreshSnapshot();
+    } catch (Exception e) {
+      log.error("Failed to refresh dashboard snapshot: {}", e.getMessage());
+    }
+  }
+
+  private DashboardStatsResponse refreshSnapshot() {
+    long startTime = System.currentTimeMillis();
+    DashboardStatsResponse stats = computeDashboardStats();
+    snapshot.set(stats);
+    log.debug("Dashboard snapshot refreshed in {}ms", System.currentTimeMillis() - startTime);
+    return stats;
+  }
+
+  /**
+   * Builds the stats with one aggregate statement against Postgres and one
+   * $facet aggregation against Mongo.
+   */
+  private DashboardStatsResponse computeDashboardStats() {
+    LocalDateTime now = LocalDateTime.now();
+    LocalDateTime startOfToday = now.toLocalDate().atStartOfDay();
+    LocalDateTime startOfWeek = now.toLocalDate()
         .with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
         .atStartOfDay();
-    LocalDateTime startOfMonth = LocalDate.now().withDayOfMonth(1).atStartOfDay();
+    LocalDateTime startOfMonth = now.toLocalDate().withDayOfMonth(1).atStartOfDay();
+
+    MapSqlParameterSource params = new MapSqlParameterSource()
+        .addValue("today", startOfToday)
+        .addValue("week", startOfWeek)
+        .addValue("month", startOfMonth);
+    Map<String, Object> row = jdbcTemplate.queryForMap(SQL_STATS, params);
 
-    long totalOrders = orderRepository.count();
+    long totalOrders = longValue(row, "total_orders");
 
     Map<String, Long> ordersByStatus = new LinkedHashMap<>();
     for (OrderStatus status : OrderStatus.values()) {
-      ordersByStatus.put(status.name(), orderRepository.countByStatus(status));
+      ordersByStatus.put(status.name(), longValue(row, statusColumn(status)));
     }
 
-    long ordersToday = orderRepository.countByCreatedAtAfter(startOfToday);
-    long ordersThisWeek = orderRepository.countByCreatedAtAfter(startOfWeek);
-    long ordersThisMonth = orderRepository.countByCreatedAtAfter(startOfMonth);
-
     long pendingOrders = ordersByStatus.getOrDefault("PENDING", 0L)
         + ordersByStatus.getOrDefault("CONFIRMED", 0L);
     long processingOrders = ordersByStatus.getOrDefault("PROCESSING", 0L);
@@ -67,69 +121,119 @@ public class DashboardService {
     long deliveredOrders = ordersByStatus.getOrDefault("DELIVERED", 0L);
     long cancelledOrders = ordersByStatus.getOrDefault("CANCELLED", 0L);
 
-    BigDecimal totalRevenue = orderRepository.getTotalRevenue();
-    if (totalRevenue == null) totalRevenue = BigDecimal.ZERO;
-
-    BigDecimal revenueToday = orderRepository.calculateRevenueSince(startOfToday);
-    if (revenueToday == null) revenueToday = BigDecimal.ZERO;
-
-    BigDecimal revenueThisWeek = orderRepository.calculateRevenueSince(startOfWeek);
-    if (revenueThisWeek == null) revenueThisWeek = BigDecimal.ZERO;
-
-    BigDecimal revenueThisMonth = orderRepository.calculateRevenueSince(startOfMonth);
-    if (revenueThisMonth == null) revenueThisMonth = BigDecimal.ZERO;
+    BigDecimal totalRevenue = decimalValue(row, "total_revenue");
 
     BigDecimal averageOrderValue = totalOrders > 0
         ? totalRevenue.divide(BigDecimal.valueOf(totalOrders), 2, RoundingMode.HALF_UP)
         : BigDecimal.ZERO;
 
-    long totalUsers = userRepository.count();
-    long newUsersToday = userRepository.countByCreatedAtAfter(startOfToday);
-    long newUsersThisWeek = userRepository.countByCreatedAtAfter(startOfWeek);
-    long newUsersThisMonth = userRepository.countByCreatedAtAfter(startOfMonth);
-
-    long totalProducts = productRepository.count();
-    long activeProducts = productRepository.countByActiveTrue();
-    long outOfStockProducts = productRepository.countOutOfStock();
-    long lowStockProducts = productRepository.countLowStock(10);
-
-    long totalReviews = reviewRepository.count();
-
     BigDecimal cancellationRate = totalOrders > 0
         ? BigDecimal.valueOf(cancelledOrders)
         .multiply(BigDecimal.valueOf(100))
         .divide(BigDecimal.valueOf(totalOrders), 2, RoundingMode.HALF_UP)
         : BigDecimal.ZERO;
 
+    Document products = countProducts();
+
     return DashboardStatsResponse.builder()
         .totalOrders(totalOrders)
-        .ordersToday(ordersToday)
-        .ordersThisWeek(ordersThisWeek)
-        .ordersThisMonth(ordersThisMonth)
-        .ordersByStatus(ordersByStatus)
+        .ordersToday(longValue(row, "orders_today"))
+        .ordersThisWeek(longValue(row, "orders_week"))
+        .ordersThisMonth(longValue(row, "orders_month"))
+        .ordersByStatus(Collections.unmodifiableMap(ordersByStatus))
         .pendingOrders(pendingOrders)
         .processingOrders(processingOrders)
         .shippedOrders(shippedOrders)
         .deliveredOrders(deliveredOrders)
         .cancelledOrders(cancelledOrders)
         .totalRevenue(totalRevenue)
-        .revenueToday(revenueToday)
-        .revenueThisWeek(revenueThisWeek)
-        .revenueThisMonth(revenueThisMonth)
+        .revenueToday(decimalValue(row, "revenue_today"))
+        .revenueThisWeek(decimalValue(row, "revenue_week"))
+        .revenueThisMonth(decimalValue(row, "revenue_month"))
         .averageOrderValue(averageOrderValue)
-        .totalUsers(totalUsers)
-        .newUsersToday(newUsersToday)
-        .newUsersThisWeek(newUsersThisWeek)
-        .newUsersThisMonth(newUsersThisMonth)
-        .totalProducts(totalProducts)
-        .activeProducts(activeProducts)
-        .outOfStockProducts(outOfStockProducts)
-        .lowStockProducts(lowStockProducts)
-        .totalReviews(totalReviews)
+        .totalUsers(longValue(row, "total_users"))
+        .newUsersToday(longValue(row, "users_today"))
+        .newUsersThisWeek(longValue(row, "users_week"))
+        .newUsersThisMonth(longValue(row, "users_month"))
+        .totalProducts(facetCount(products, "total"))
+        .activeProducts(facetCount(products, "active"))
+        .outOfStockProducts(facetCount(products, "outOfStock"))
+        .lowStockProducts(facetCount(products, "lowStock"))
+        .totalReviews(longValue(row, "total_reviews"))
         .cancellationRate(cancellationRate)
+        .generatedAt(now)
         .build();
   }
 
+  /**
+   * All product counts in a single $facet aggregation.
+   */
+  private Document countProducts() {
+    Aggregation aggregation = Aggregation.newAggregation(
+        Aggregation.facet(Aggregation.count().as("n")).as("total")
+            .and(Aggregation.match(Criteria.where("active").is(true)),
+                Aggregation.count().as("n")).as("active")
+            .and(Aggregation.match(Criteria.where("active").is(true).and("stock").is(0)),
+                Aggregation.count().as("n")).as("outOfStock")
+            .and(Aggregation.match(Criteria.where("active").is(true)
+                    .and("stock").gt(0).lte(LOW_STOCK_THRESHOLD)),
+                Aggregation.count().as("n")).as("lowStock"));
+
+    Document result = mongoTemplate.aggregate(aggregation, "products", Document.class)
+        .getUniqueMappedResult();
+    return result != null ? result : new Document();
+  }
+
+  private static String buildStatsSql() {
+    StringBuilder statusCounts = new StringBuilder();
+    for (OrderStatus status : OrderStatus.values()) {
+      statusCounts.append("COUNT(*) FILTER (WHERE status = '").append(status.name())
+          .append("') AS ").append(statusColumn(status)).append(", ");
+    }
+
+    return "SELECT * FROM (" +
+        "SELECT COUNT(*) AS total_orders, " +
+        "COUNT(*) FILTER (WHERE created_at > :today) AS orders_today, " +
+        "COUNT(*) FILTER (WHERE created_at > :week) AS orders_week, " +
+        "COUNT(*) FILTER (WHERE created_at > :month) AS orders_month, " +
+        statusCounts +
+        "COALESCE(SUM(total_amount) FILTER (WHERE status NOT IN ('CANCELLED', 'REFUNDED')), 0) AS total_revenue, " +
+        "COALESCE(SUM(total_amount) FILTER (WHERE payment_status = 'PAID' AND created_at >= :today), 0) AS revenue_today, " +
+        "COALESCE(SUM(total_amount) FILTER (WHERE payment_status = 'PAID' AND created_at >= :week), 0) AS revenue_week, " +
+        "COALESCE(SUM(total_amount) FILTER (WHERE payment_status = 'PAID' AND created_at >= :month), 0) AS revenue_month " +
+        "FROM orders) o " +
+        "CROSS JOIN (" +
+        "SELECT COUNT(*) AS total_users, " +
+        "COUNT(*) FILTER (WHERE created_at > :today) AS users_today, " +
+        "COUNT(*) FILTER (WHERE created_at > :week) AS users_week, " +
+        "COUNT(*) FILTER (WHERE created_at > :month) AS users_month " +
+        "FROM users) u " +
+        "CROSS JOIN (SELECT COUNT(*) AS total_reviews FROM reviews) r";
+  }
+
+  private static String statusColumn(OrderStatus status) {
+    return "status_" + status.name().toLowerCase();
+  }
+
+  private static long longValue(Map<String, Object> row, String column) {
+    Object value = row.get(column);
+    return value != null ? ((Number) value).longValue() : 0L;
+  }
+
+  private static BigDecimal decimalValue(Map<String, Object> row, String column) {
+    Object value = row.get(column);
+    return value != null ? new BigDecimal(value.toString()) : BigDecimal.ZERO;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static long facetCount(Document facets, String facet) {
+    List<Document> buckets = (List<Document>) facets.get(facet);
+    if (buckets == null || buckets.isEmpty()) {
+      return 0L;
+    }
+    return ((Number) buckets.get(0).get("n")).longValue();
+  }
+
 
   @Transactional(readOnly = true)
   public List<RecentOrderResponse> getRecentOrders(int limit) {
@@ -157,32 +261,14 @@ public class DashboardService {
   public List<TopProductResponse> getTopSellingProducts(int limit) {
     log.debug("Fetching top {} selling products", limit);
 
-    List<Order> completedOrders = orderRepository.findByStatusIn(
-        List.of(OrderStatus.DELIVERED, OrderStatus.SHIPPED,
-            OrderStatus.PROCESSING, OrderStatus.CONFIRMED));
-
-    Map<String, TopProductAggregator> productSales = new HashMap<>();
-
-    for (Order order : completedOrders) {
-      if (order.getItems() == null) continue;
-      for (OrderItem item : order.getItems()) {
-        productSales.computeIfAbsent(item.getProductId(),
-                k -> new TopProductAggregator(item.getProductId(),
-                    item.getProductName(), item.getProductImage()))
-            .addSale(item.getQuantity(), item.getTotalPrice());
-      }
-    }
-
-    return productSales.values().stream()
-        .sorted(Comparator.comparingInt(TopProductAggregator::getTotalQuantity).reversed())
-        .limit(limit)
-        .map(agg -> TopProductResponse.builder()
-            .productId(agg.getProductId())
-            .productName(agg.getProductName())
-            .productImage(agg.getProductImage())
-            .totalQuantitySold(agg.getTotalQuantity())
-            .totalRevenue(agg.getTotalRevenue())
-            .orderCount(agg.getOrderCount())
+    return productSalesTotalRepository.findTopSellers(PageRequest.of(0, limit)).stream()
+        .map(total -> TopProductResponse.builder()
+            .productId(total.getProductId())
+            .productName(total.getProductName())
+            .productImage(total.getProductImage())
+            .totalQuantitySold((int) total.getTotalQuantity())
+            .totalRevenue(total.getTotalRevenue())
+            .orderCount((int) total.getOrderCount())
             .build())
         .collect(Collectors.toList());
   }
@@ -192,81 +278,15 @@ public class DashboardService {
   public List<TopCustomerResponse> getTopCustomers(int limit) {
     log.debug("Fetching top {} customers", limit);
 
-    List<Order> paidOrders = orderRepository.findByPaymentStatus(PaymentStatus.PAID);
-
-    Map<String, TopCustomerAggregator> customerSpending = new HashMap<>();
-
-    for (Order order : paidOrders) {
-      customerSpending.computeIfAbsent(order.getUserId(),
-              k -> new TopCustomerAggregator(order.getUserId(),
-                  order.getUserFullName(), order.getUserEmail()))
-          .addOrder(order.getTotalAmount());
-    }
-
-    return customerSpending.values().stream()
-        .sorted(Comparator.comparing(TopCustomerAggregator::getTotalSpent).reversed())
-        .limit(limit)
-        .map(agg -> TopCustomerResponse.builder()
-            .userId(agg.getUserId())
-            .customerName(agg.getCustomerName())
-            .customerEmail(agg.getCustomerEmail())
-            .totalOrders(agg.getOrderCount())
-            .totalSpent(agg.getTotalSpent())
-            .averageOrderValue(agg.getOrderCount() > 0
-                ? agg.getTotalSpent().divide(
-                BigDecimal.valueOf(agg.getOrderCount()), 2, RoundingMode.HALF_UP)
-                : BigDecimal.ZERO)
+    return customerStatsService.getTopCustomers(limit).stream()
+        .map(stats -> TopCustomerResponse.builder()
+            .userId(stats.getUserId())
+            .customerName(stats.getCustomerName())
+            .customerEmail(stats.getCustomerEmail())
+            .totalOrders((int) stats.getOrderCount())
+            .totalSpent(stats.getTotalSpent())
+            .averageOrderValue(stats.getAverageOrderValue())
             .build())
         .collect(Collectors.toList());
   }
-
-
-  @lombok.Data
-  @lombok.AllArgsConstructor
-  private static class TopProductAggregator {
-    private String productId;
-    private String productName;
-    private String productImage;
-    private int totalQuantity;
-    private BigDecimal totalRevenue;
-    private int orderCount;
-
-    TopProductAggregator(String productId, String productName, String productImage) {
-      this.productId = productId;
-      this.productName = productName;
-      this.productImage = productImage;
-      this.totalQuantity = 0;
-      this.totalRevenue = BigDecimal.ZERO;
-      this.orderCount = 0;
-    }
-
-    void addSale(int quantity, BigDecimal revenue) {
-      this.totalQuantity += quantity;
-      this.totalRevenue = this.totalRevenue.add(revenue != null ? revenue : BigDecimal.ZERO);
-      this.orderCount++;
-    }
-  }
-
-  @lombok.Data
-  @lombok.AllArgsConstructor
-  private static class TopCustomerAggregator {
-    private String userId;
-    private String customerName;
-    private String customerEmail;
-    private int orderCount;
-    private BigDecimal totalSpent;
-
-    TopCustomerAggregator(String userId, String customerName, String customerEmail) {
-      this.userId = userId;
-      this.customerName = customerName;
-      this.customerEmail = customerEmail;
-      this.orderCount = 0;
-      this.totalSpent = BigDecimal.ZERO;
-    }
-
-    void addOrder(BigDecimal amount) {
-      this.orderCount++;
-      this.totalSpent = this.totalSpent.add(amount != null ? amount : BigDecimal.ZERO);
-    }
-  }
-}
\ No newline at end of file
+}
@@ -0,0 +1,295 @@
+package com.shopzone.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.shopzone.model.Order;
+import com.shopzone.model.Payment;
+import com.shopzone.model.ReportMetricsDaily;
+import com.shopzone.model.enums.ExportFormat;
+import com.shopzone.model.enums.OrderStatus;
+import com.shopzone.model.enums.PaymentStatus;
+import com.shopzone.repository.jpa.OrderRepository;
+import com.shopzone.repository.jpa.PaymentRepository;
+import com.shopzone.repository.jpa.ReportMetricsDailyRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.output.CloseShieldOutputStream;
+import org.apache.commons.io.output.CountingOutputStream;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams admin exports (orders, payments, revenue report) as CSV or NDJSON.
+ *
+ * Rows come from a forward-only JDBC cursor inside a read-only transaction and are
+ * detached as soon as they are written, so memory stays flat regardless of row count.
+ * Each export records rows, bytes, duration and rows/second under shopzone.export.*.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExportService {
+
+  private static final List<String> ORDER_COLUMNS = List.of(
+      "orderNumber", "createdAt", "userId", "userEmail", "userFullName", "status",
+      "paymentStatus", "subtotal", "taxAmount", "shippingCost", "discountAmount",
+      "totalAmount", "amountRefunded", "shippingCarrier", "trackingNumber",
+      "paidAt", "shippedAt", "deliveredAt", "cancelledAt");
+
+  private static final List<String> PAYMENT_COLUMNS = List.of(
+      "orderNumber", "createdAt", "userId", "status", "amount", "currency", "paymentMethod",
+      "cardBrand", "cardLastFour", "amountRefunded", "failureCode", "paidAt", "refundedAt");
+
+  private static final List<String> REVENUE_COLUMNS = List.of(
+      "date", "paidOrders", "revenue", "tax", "shipping", "discount", "newUsers");
+
+  private final OrderRepository orderRepository;
+  private final PaymentRepository paymentRepository;
+  private final ReportMetricsDailyRepository reportMetricsDailyRepository;
+  private final EntityManager entityManager;
+  private final ObjectMapper objectMapper;
+  private final MeterRegistry meterRegistry;
+
+
+  @Transactional(readOnly = true)
+  public void exportOrders(OrderStatus status, PaymentStatus paymentStatus,
+                           LocalDateTime startDate, LocalDateTime endDate,
+                           ExportFormat format, boolean gzip, OutputStream out) {
+    try (Stream<Order> orders = orderRepository.streamWithFilters(status, paymentStatus, startDate, endDate)) {
+      export("orders", format, gzip, out, ORDER_COLUMNS, orders, this::orderRow);
+    }
+  }
+
+  @Transactional(readOnly = true)
+  public void exportPayments(PaymentStatus status, LocalDateTime startDate, LocalDateTime endDate,
+                             ExportFormat format, boolean gzip, OutputStream out) {
+    try (Stream<Payment> payments = paymentRepository.streamWithFilters(status, startDate, endDate)) {
+      export("payments", format, gzip, out, PAYMENT_COLUMNS, payments, this::paymentRow);
+    }
+  }
+
+  @Transactional(readOnly = true)
+  public void exportRevenueReport(LocalDate startDate, LocalDate endDate,
+                                  ExportFormat format, boolean gzip, OutputStream out) {
+    if (startDate == null) startDate = LocalDate.now().minusDays(30);
+    if (endDate == null) endDate = LocalDate.now();
+
+    Stream<ReportMetricsDaily> days = reportMetricsDailyRepository
+        .findByMetricDateBetweenOrderByMetricDate(startDate, endDate).stream();
+    export("revenue", format, gzip, out, REVENUE_COLUMNS, days, this::revenueRow);
+  }
+
+  public static String fileName(String baseName, ExportFormat format, boolean gzip) {
+    return baseName + "-" + LocalDate.now() + "." + format.getExtension() + (gzip ? ".gz" : "");
+  }
+
+  public static MediaType mediaType(ExportFormat format, boolean gzip) {
+    return MediaType.parseMediaType(gzip ? "application/gzip" : format.getContentType());
+  }
+
+
+  private <T> void export(String type, ExportFormat format, boolean gzip, OutputStream out,
+                          List<String> columns, Stream<T> rows, Function<T, Map<String, Object>> mapper) {
+    long startTime = System.nanoTime();
+    long rowCount = 0;
+    CountingOutputStream counted = new CountingOutputStream(CloseShieldOutputStream.wrap(out));
+
+    try (OutputStream target = gzip ? new GZIPOutputStream(counted, 64 * 1024) : counted;
+         RowWriter writer = format == ExportFormat.CSV
+             ? new CsvRowWriter(target, columns)
+             : new NdjsonRowWriter(target, objectMapper)) {
+
+      Iterator<T> iterator = rows.iterator();
+      while (iterator.hasNext()) {
+        T row = iterator.next();
+        writer.write(mapper.apply(row));
+        entityManager.detach(row);
+        rowCount++;
+      }
+    } catch (IOException | UncheckedIOException e) {
+      log.warn("{} export aborted after {} rows: {}", type, rowCount, e.getMessage());
+      throw new RuntimeException("Export failed", e);
+    } finally {
+      recordMetrics(type, format, rowCount, counted.getByteCount(), System.nanoTime() - startTime);
+    }
+  }
+
+  private void recordMetrics(String type, ExportFormat format, long rows, long bytes, long elapsedNanos) {
+    String formatTag = format.name().toLowerCase();
+
+    Timer.builder("shopzone.export.duration")
+        .tag("type", type).tag("format", formatTag)
+        .register(meterRegistry)
+        .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    meterRegistry.counter("shopzone.export.rows", "type", type, "format", formatTag).increment(rows);
+    meterRegistry.counter("shopzone.export.bytes", "type", type, "format", formatTag).increment(bytes);
+
+    double seconds = elapsedNanos / 1_000_000_000.0;
+    double rowsPerSecond = seconds > 0 ? rows / seconds : rows;
+    DistributionSummary.builder("shopzone.export.throughput")
+        .baseUnit("rows/s")
+        .tag("type", type).tag("format", formatTag)
+        .register(meterRegistry)
+        .record(rowsPerSecond);
+
+    log.info("Exported {} {} rows ({} bytes) in {}ms ({} rows/s)",
+        rows, type, bytes, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), Math.round(rowsPerSecond));
+  }
+
+  private Map<String, Object> orderRow(Order order) {
+    Map<String, Object> row = new LinkedHashMap<>();
+    row.put("orderNumber", order.getOrderNumber());
+    row.put("createdAt", order.getCreatedAt());
+    row.put("userId", order.getUserId());
+    row.put("userEmail", order.getUserEmail());
+    row.put("userFullName", order.getUserFullName());
+    row.put("status", order.getStatus());
+    row.put("paymentStatus", order.getPaymentStatus());
+    row.put("subtotal", order.getSubtotal());
+    row.put("taxAmount", order.getTaxAmount());
+    row.put("shippingCost", order.getShippingCost());
+    row.put("discountAmount", order.getDiscountAmount());
+    row.put("totalAmount", order.getTotalAmount());
+    row.put("amountRefunded", order.getAmountRefunded());
+    row.put("shippingCarrier", order.getShippingCarrier());
+    row.put("trackingNumber", order.getTrackingNumber());
+    row.put("paidAt", order.getPaidAt());
+    row.put("shippedAt", order.getShippedAt());
+    row.put("deliveredAt", order.getDeliveredAt());
+    row.put("cancelledAt", order.getCancelledAt());
+    return row;
+  }
+
+  private Map<String, Object> paymentRow(Payment payment) {
+    Map<String, Object> row = new LinkedHashMap<>();
+    row.put("orderNumber", payment.getOrderNumber());
+    row.put("createdAt", payment.getCreatedAt());
+    row.put("userId", payment.getUserId());
+    row.put("status", payment.getStatus());
+    row.put("amount", payment.getAmount());
+    row.put("currency", payment.getCurrency());
+    row.put("paymentMethod", payment.getPaymentMethod());
+    row.put("cardBrand", payment.getCardBrand());
+    row.put("cardLastFour", payment.getCardLastFour());
+    row.put("amountRefunded", payment.getAmountRefunded());
+    row.put("failureCode", payment.getFailureCode());
+    row.put("paidAt", payment.getPaidAt());
+    row.put("refundedAt", payment.getRefundedAt());
+    return row;
+  }
+
+  private Map<String, Object> revenueRow(ReportMetricsDaily day) {
+    Map<String, Object> row = new LinkedHashMap<>();
+    row.put("date", day.getMetricDate());
+    row.put("paidOrders", day.getPaidOrders());
+    row.put("revenue", day.getRevenue());
+    row.put("tax", day.getTax());
+    row.put("shipping", day.getShipping());
+    row.put("discount", day.getDiscount());
+    row.put("newUsers", day.getNewUsers());
+    return row;
+  }
+
+
+  private interface RowWriter extends AutoCloseable {
+    void write(Map<String, Object> row) throws IOException;
+
+    @Override
+    void close() throws IOException;
+  }
+
+  /**
+   * RFC 4180 CSV: header line, fields quoted only when they contain a separator,
+   * quote or line break.
+   */
+  private static class CsvRowWriter implements RowWriter {
+    private final Writer writer;
+    private final List<String> columns;
+
+    CsvRowWriter(OutputStream out, List<String> columns) throws IOException {
+      this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+      this.columns = columns;
+      writeLine(columns.stream().map(c -> (Object) c).toList());
+    }
+
+    @Override
+    public void write(Map<String, Object> row) throws IOException {
+      writeLine(columns.stream().map(row::get).toList());
+    }
+
+    private void writeLine(List<Object> values) throws IOException {
+      for (int i = 0; i < values.size(); i++) {
+        if (i > 0) {
+          writer.write(',');
+        }
+        writer.write(escape(values.get(i)));
+      }
+      writer.write("\r\n");
+    }
+
+    private static String escape(Object value) {
+      if (value == null) {
+        return "";
+      }
+      String text = value.toString();
+      if (text.indexOf(',') < 0 && text.indexOf('"') < 0
+          && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+        return text;
+      }
+      return "\"" + text.replace("\"", "\"\"") + "\"";
+    }
+
+    @Override
+    public void close() throws IOException {
+      writer.close();
+    }
+  }
+
+  /**
+   * One JSON object per line, each line terminated by a newline.
+   */
+  private static class NdjsonRowWriter implements RowWriter {
+    private final OutputStream out;
+    private final ObjectWriter objectWriter;
+
+    NdjsonRowWriter(OutputStream out, ObjectMapper objectMapper) {
+      this.out = new BufferedOutputStream(out, 64 * 1024);
+      this.objectWriter = objectMapper.writer();
+    }
+
+    @Override
+    public void write(Map<String, Object> row) throws IOException {
+      out.write(objectWriter.writeValueAsBytes(row));
+      out.write('\n');
+    }
+
+    @Override
+    public void close() throws IOException {
+      out.close();
+    }
+  }
+}
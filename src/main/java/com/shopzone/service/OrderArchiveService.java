@@ -0,0 +1,151 @@
+package com.shopzone.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopzone.config.OrderConfig;
+import com.shopzone.dto.response.OrderResponse;
+import com.shopzone.model.ArchivedOrder;
+import com.shopzone.model.Order;
+import com.shopzone.model.enums.OrderStatus;
+import com.shopzone.repository.jpa.ArchivedOrderRepository;
+import com.shopzone.repository.jpa.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Moves finished orders older than {@code shopzone.order.archive-after-months} out of the
+ * live orders table into orders_archive as compressed JSON, then lets OrderPartitionService
+ * drop the emptied monthly partitions.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderArchiveService {
+
+  private static final List<OrderStatus> ARCHIVABLE_STATUSES = List.of(
+      OrderStatus.DELIVERED, OrderStatus.RETURNED, OrderStatus.CANCELLED, OrderStatus.REFUNDED);
+
+  private final OrderRepository orderRepository;
+  private final ArchivedOrderRepository archivedOrderRepository;
+  private final OrderPartitionService orderPartitionService;
+  private final OrderConfig orderConfig;
+  private final ObjectMapper objectMapper;
+  private final TransactionTemplate transactionTemplate;
+  private final ScheduledJobLock scheduledJobLock;
+
+
+  /**
+   * Nightly archival run. The cutoff is aligned to the start of a month so that
+   * whole partitions empty out and can be dropped. Only one instance archives at a time,
+   * so two runs never pick the same orders.
+   */
+  @Scheduled(cron = "${shopzone.order.archive-cron:0 30 3 * * *}")
+  public void archiveOldOrders() {
+    scheduledJobLock.runExclusively("order-archive", this::archive);
+  }
+
+  /**
+   * Look up an order that has already been moved to the archive.
+   */
+  @Transactional(readOnly = true)
+  public Optional<OrderResponse> findArchivedOrder(String orderNumber) {
+    return archivedOrderRepository.findById(orderNumber)
+        .map(archived -> {
+          OrderResponse response = decompress(archived.getPayload());
+          response.setCanCancel(false);
+          response.setCanReturn(false);
+          return response;
+        });
+  }
+
+
+  private void archive() {
+    LocalDateTime cutoff = LocalDate.now()
+        .withDayOfMonth(1)
+        .minusMonths(orderConfig.getArchiveAfterMonths())
+        .atStartOfDay();
+    int batchSize = orderConfig.getArchiveBatchSize();
+
+    log.info("Archiving finished orders created before {}", cutoff);
+    long startTime = System.currentTimeMillis();
+    int total = 0;
+    int archived;
+
+    do {
+      Integer result = transactionTemplate.execute(status -> archiveBatch(cutoff, batchSize));
+      archived = result != null ? result : 0;
+      total += archived;
+    } while (archived == batchSize);
+
+    log.info("Archived {} orders in {}ms", total, System.currentTimeMillis() - startTime);
+
+    try {
+      orderPartitionService.dropEmptyPartitionsBefore(cutoff);
+    } catch (Exception e) {
+      log.error("Failed to drop archived order partitions: {}", e.getMessage());
+    }
+  }
+
+  private int archiveBatch(LocalDateTime cutoff, int batchSize) {
+    List<String> ids = orderRepository.findArchivableOrderIds(
+        cutoff, ARCHIVABLE_STATUSES, PageRequest.of(0, batchSize));
+    if (ids.isEmpty()) {
+      return 0;
+    }
+
+    List<Order> orders = orderRepository.findAllWithItemsByIdIn(ids);
+    archivedOrderRepository.saveAll(orders.stream().map(this::toArchive).toList());
+    orderRepository.deleteAll(orders);
+
+    log.debug("Archived batch of {} orders", orders.size());
+    return ids.size();
+  }
+
+  private ArchivedOrder toArchive(Order order) {
+    return ArchivedOrder.builder()
+        .orderNumber(order.getOrderNumber())
+        .orderId(order.getId())
+        .userId(order.getUserId())
+        .status(order.getStatus())
+        .paymentStatus(order.getPaymentStatus())
+        .totalAmount(order.getTotalAmount())
+        .amountRefunded(order.getAmountRefunded())
+        .createdAt(order.getCreatedAt())
+        .payload(compress(OrderResponse.fromEntity(order)))
+        .build();
+  }
+
+  private byte[] compress(OrderResponse response) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (OutputStream gzip = new GZIPOutputStream(bytes)) {
+      objectMapper.writeValue(gzip, response);
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to compress order " + response.getOrderNumber(), e);
+    }
+    return bytes.toByteArray();
+  }
+
+  private OrderResponse decompress(byte[] payload) {
+    try (InputStream gzip = new GZIPInputStream(new ByteArrayInputStream(payload))) {
+      return objectMapper.readValue(gzip, OrderResponse.class);
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to read archived order", e);
+    }
+  }
+}
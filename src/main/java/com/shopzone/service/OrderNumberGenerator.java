@@ -1,8 +1,11 @@
 package com.shopzone.service;
 
+import com.shopzone.repository.jpa.OrderNumberReservationRepository;
 import com.shopzone.repository.jpa.OrderRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.security.SecureRandom;
 import java.time.LocalDate;
@@ -17,7 +20,7 @@ import java.time.format.DateTimeFormatter;
  * Benefits:
  * - Human-readable and easy to communicate
  * - Date prefix allows quick identification of order age
- * - Random suffix ensures uniqueness
+ * - Random suffix, claimed in order_numbers so no number is issued twice
  * - Short enough to read over phone
  */
 @Service
@@ -25,6 +28,7 @@ import java.time.format.DateTimeFormatter;
 public class OrderNumberGenerator {
 
   private final OrderRepository orderRepository;
+  private final OrderNumberReservationRepository reservationRepository;
 
   private static final String PREFIX = "ORD";
   private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
@@ -35,11 +39,14 @@ public class OrderNumberGenerator {
   private final SecureRandom random = new SecureRandom();
 
   /**
-   * Generate a unique order number.
+   * Generate a unique order number and claim it in order_numbers. Must run in the
+   * transaction that creates the order, so the claim is rolled back with a failed order.
+   * Orders placed before order_numbers existed are not in it, hence the orders check too.
    *
    * @return Unique order number in format ORD-YYYYMMDD-XXXX
-   * @throws RuntimeException if unable to generate unique number after max attempts
+   * @throws IllegalStateException if unable to generate unique number after max attempts
    */
+  @Transactional(propagation = Propagation.MANDATORY)
   public String generate() {
     String datePart = LocalDate.now().format(DATE_FORMAT);
 
@@ -47,14 +54,22 @@ public class OrderNumberGenerator {
       String suffix = generateRandomSuffix();
       String orderNumber = String.format("%s-%s-%s", PREFIX, datePart, suffix);
 
-      if (!orderRepository.existsByOrderNumber(orderNumber)) {
+      if (claim(orderNumber)) {
         return orderNumber;
       }
     }
 
     String suffix = generateRandomSuffix();
     long timestamp = System.currentTimeMillis() % 10000;
-    return String.format("%s-%s-%s%d", PREFIX, datePart, suffix, timestamp);
+    String orderNumber = String.format("%s-%s-%s%d", PREFIX, datePart, suffix, timestamp);
+    if (claim(orderNumber)) {
+      return orderNumber;
+    }
+    throw new IllegalStateException("Unable to generate a unique order number");
+  }
+
+  private boolean claim(String orderNumber) {
+    return !orderRepository.existsByOrderNumber(orderNumber) && reservationRepository.claim(orderNumber) == 1;
   }
 
   /**
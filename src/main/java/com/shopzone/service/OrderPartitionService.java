@@ -0,0 +1,150 @@
+package com.shopzone.service;
+
+import com.shopzone.config.OrderConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Maintains the monthly RANGE partitions of orders / order_items.
+ *
+ * Only active once the tables have been converted with db/orders-partitioning.sql;
+ * on an unpartitioned schema every method is a no-op. Creating and dropping partitions
+ * runs on one instance at a time.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderPartitionService {
+
+  private static final DateTimeFormatter SUFFIX_FORMAT = DateTimeFormatter.ofPattern("yyyy_MM");
+  private static final String LOCK_NAME = "order-partitions";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final OrderConfig orderConfig;
+  private final ScheduledJobLock scheduledJobLock;
+
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void onStartup() {
+    ensureUpcomingPartitions();
+  }
+
+  /**
+   * Create partitions for the current month and the configured number of months ahead.
+   */
+  @Scheduled(cron = "${shopzone.order.partition-cron:0 0 2 * * *}")
+  public void ensureUpcomingPartitions() {
+    scheduledJobLock.runExclusively(LOCK_NAME, this::createUpcomingPartitions);
+  }
+
+  /**
+   * Drop monthly partitions that end before the cutoff and no longer hold any rows
+   * (i.e. everything in them has been archived).
+   */
+  public void dropEmptyPartitionsBefore(LocalDateTime cutoff) {
+    scheduledJobLock.runExclusively(LOCK_NAME, () -> dropEmptyPartitions(cutoff));
+  }
+
+  public boolean isPartitioned() {
+    Boolean partitioned = jdbcTemplate.queryForObject(
+        "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table pt " +
+            "JOIN pg_class c ON c.oid = pt.partrelid WHERE c.relname = 'orders')",
+        Boolean.class);
+    return Boolean.TRUE.equals(partitioned);
+  }
+
+
+  private void createUpcomingPartitions() {
+    if (!isPartitioned()) {
+      return;
+    }
+
+    YearMonth current = YearMonth.now();
+    for (int i = 0; i <= orderConfig.getPartitionMonthsAhead(); i++) {
+      YearMonth month = current.plusMonths(i);
+      createPartition("orders", month);
+      createPartition("order_items", month);
+    }
+  }
+
+  private void dropEmptyPartitions(LocalDateTime cutoff) {
+    if (!isPartitioned()) {
+      return;
+    }
+
+    for (String partition : listPartitions("orders")) {
+      YearMonth month = parseMonth(partition, "orders_");
+      if (month == null || month.plusMonths(1).atDay(1).atStartOfDay().isAfter(cutoff)) {
+        continue;
+      }
+
+      String itemsPartition = "order_items_" + month.format(SUFFIX_FORMAT);
+      if (!isEmpty(partition) || (tableExists(itemsPartition) && !isEmpty(itemsPartition))) {
+        continue;
+      }
+
+      if (tableExists(itemsPartition)) {
+        jdbcTemplate.execute("ALTER TABLE order_items DETACH PARTITION " + itemsPartition);
+        jdbcTemplate.execute("DROP TABLE " + itemsPartition);
+      }
+      jdbcTemplate.execute("ALTER TABLE orders DETACH PARTITION " + partition);
+      jdbcTemplate.execute("DROP TABLE " + partition);
+      log.info("Dropped archived order partitions for {}", month);
+    }
+  }
+
+  private void createPartition(String parent, YearMonth month) {
+    String name = parent + "_" + month.format(SUFFIX_FORMAT);
+    String from = month.atDay(1).toString();
+    String to = month.plusMonths(1).atDay(1).toString();
+
+    jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF " + parent +
+        " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+  }
+
+  private List<String> listPartitions(String parent) {
+    return jdbcTemplate.queryForList(
+        "SELECT c.relname FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid " +
+            "JOIN pg_class p ON p.oid = i.inhparent " +
+            "WHERE p.relname = ? ORDER BY c.relname",
+        String.class, parent);
+  }
+
+  private boolean isEmpty(String table) {
+    Boolean hasRows = jdbcTemplate.queryForObject(
+        "SELECT EXISTS (SELECT 1 FROM " + table + ")", Boolean.class);
+    return !Boolean.TRUE.equals(hasRows);
+  }
+
+  private boolean tableExists(String table) {
+    Boolean exists = jdbcTemplate.queryForObject(
+        "SELECT to_regclass(?) IS NOT NULL", Boolean.class, table);
+    return Boolean.TRUE.equals(exists);
+  }
+
+  /**
+   * Month encoded in a partition name such as orders_2024_03; null for the default partition.
+   */
+  private YearMonth parseMonth(String partition, String prefix) {
+    if (!partition.startsWith(prefix)) {
+      return null;
+    }
+    try {
+      return YearMonth.parse(partition.substring(prefix.length()), SUFFIX_FORMAT);
+    } catch (DateTimeParseException e) {
+      return null;
+    }
+  }
+}
@@ -32,6 +32,7 @@ import java.time.temporal.TemporalAdjusters;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
@@ -44,6 +45,10 @@ public class OrderService {
   private final UserRepository userRepository;
   private final OrderConfig orderConfig;
   private final EmailService emailService;
+  private final OrderNumberGenerator orderNumberGenerator;
+  private final OrderArchiveService orderArchiveService;
+  private final ProductSalesRollupService productSalesRollupService;
+  private final PurchaseHistoryService purchaseHistoryService;
 
 
   /**
@@ -65,21 +70,23 @@ public class OrderService {
 
   @Transactional(readOnly = true)
   public OrderResponse getOrderForUser(String userId, String orderNumber) {
-    Order order = orderRepository.findByOrderNumberWithItems(orderNumber)
+    OrderResponse order = findOrderWithItems(orderNumber)
+        .map(OrderResponse::fromEntity)
+        .or(() -> orderArchiveService.findArchivedOrder(orderNumber))
         .orElseThrow(() -> new ResourceNotFoundException("Order not found: " + orderNumber));
 
     if (!order.getUserId().equals(userId)) {
       throw new UnauthorizedException("You don't have permission to view this order");
     }
 
-    return OrderResponse.fromEntity(order);
+    return order;
   }
 
   @Transactional
   public OrderResponse cancelOrder(String userId, String orderNumber, CancelOrderRequest request) {
     log.info("User {} requesting cancellation of order {}", userId, orderNumber);
 
-    Order order = orderRepository.findByOrderNumberWithItems(orderNumber)
+    Order order = findOrderWithItems(orderNumber)
         .orElseThrow(() -> new ResourceNotFoundException("Order not found: " + orderNumber));
 
     if (!order.getUserId().equals(userId)) {
@@ -104,6 +111,7 @@ public class OrderService {
           "Paid orders cannot be cancelled directly. Please request a refund instead.");
     }
 
+    OrderStatus previousStatus = order.getStatus();
     order.setStatus(OrderStatus.CANCELLED);
     order.setCancelledAt(LocalDateTime.now());
     order.setCancellationReason(request.getReason());
@@ -113,6 +121,7 @@ public class OrderService {
     restoreStock(order);
 
     order = orderRepository.save(order);
+    productSalesRollupService.onStatusChange(order, previousStatus);
     log.info("Order {} cancelled by user {}", orderNumber, userId);
 
     sendCancellationEmail(order, request.getReason());
@@ -142,7 +151,7 @@ public class OrderService {
 
   @Transactional(readOnly = true)
   public OrderResponse getOrderByNumberResponse(String orderNumber) {
-    Order order = orderRepository.findByOrderNumberWithItems(orderNumber)
+    Order order = findOrderWithItems(orderNumber)
         .orElseThrow(() -> new ResourceNotFoundException("Order not found: " + orderNumber));
     return OrderResponse.fromEntity(order);
   }
@@ -151,7 +160,7 @@ public class OrderService {
   public OrderResponse updateOrderStatus(String orderNumber, UpdateOrderStatusRequest request) {
     log.info("Admin updating order {} to status {}", orderNumber, request.getStatus());
 
-    Order order = orderRepository.findByOrderNumberWithItems(orderNumber)
+    Order order = findOrderWithItems(orderNumber)
         .orElseThrow(() -> new ResourceNotFoundException("Order not found: " + orderNumber));
 
     OrderStatus newStatus = request.getStatus();
@@ -188,6 +197,12 @@ public class OrderService {
     }
 
     order = orderRepository.save(order);
+    productSalesRollupService.onStatusChange(order, oldStatus);
+    if (newStatus == OrderStatus.DELIVERED) {
+      purchaseHistoryService.onOrderDelivered(order);
+    } else if (oldStatus == OrderStatus.DELIVERED) {
+      purchaseHistoryService.onOrderNoLongerDelivered(order);
+    }
     log.info("Order {} status updated to {}", orderNumber, newStatus);
 
     sendStatusUpdateEmail(order, oldStatus, newStatus, trackingNumber, carrier);
@@ -272,7 +287,7 @@ public class OrderService {
    */
   @Transactional(readOnly = true)
   public Order getOrderByNumber(String orderNumber) {
-    return orderRepository.findByOrderNumberWithItems(orderNumber)
+    return findOrderWithItems(orderNumber)
         .orElseThrow(() -> new ResourceNotFoundException("Order not found: " + orderNumber));
   }
 
@@ -387,6 +402,22 @@ public class OrderService {
 
 
 
+  /**
+   * Find a live order with its items. Order numbers embed the placement date, which
+   * bounds created_at and lets Postgres prune the lookup to a single monthly partition.
+   */
+  private Optional<Order> findOrderWithItems(String orderNumber) {
+    if (!orderNumberGenerator.isValidFormat(orderNumber)) {
+      return orderRepository.findByOrderNumberWithItems(orderNumber);
+    }
+
+    LocalDate placedOn = orderNumberGenerator.extractDate(orderNumber);
+    return orderRepository.findByOrderNumberWithItemsCreatedBetween(
+        orderNumber,
+        placedOn.minusDays(1).atStartOfDay(),
+        placedOn.plusDays(2).atStartOfDay());
+  }
+
   /**
    * Helper Method - Restore stock (private).
    */
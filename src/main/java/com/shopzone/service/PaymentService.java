@@ -3,12 +3,14 @@ package com.shopzone.service;
 import com.shopzone.config.StripeConfig;
 import com.shopzone.dto.response.PaymentIntentResponse;
 import com.shopzone.dto.response.PaymentResponse;
+import com.shopzone.controller.AdminPaymentController.PaymentBreakdown;
 import com.shopzone.controller.AdminPaymentController.PaymentStats;
 import com.shopzone.exception.BadRequestException;
 import com.shopzone.exception.ResourceNotFoundException;
 import com.shopzone.model.Order;
 import com.shopzone.model.Payment;
 import com.shopzone.model.User;
+import com.shopzone.model.enums.OrderStatus;
 import com.shopzone.model.enums.PaymentMethod;
 import com.shopzone.model.enums.PaymentStatus;
 import com.shopzone.repository.jpa.PaymentRepository;
@@ -16,6 +18,7 @@ import com.shopzone.repository.jpa.UserRepository;
 import com.stripe.model.PaymentIntent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -23,9 +26,16 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Service for payment operations.
@@ -36,14 +46,25 @@ import java.util.UUID;
 @Slf4j
 public class PaymentService {
 
+  private static final Set<PaymentStatus> REVENUE_STATUSES = EnumSet.of(
+      PaymentStatus.PAID, PaymentStatus.PARTIALLY_REFUNDED, PaymentStatus.REFUNDED);
+
   private final PaymentRepository paymentRepository;
   private final UserRepository userRepository;
   private final StripeService stripeService;
   private final StripeConfig stripeConfig;
   private final EmailService emailService;
+  private final ProductSalesRollupService productSalesRollupService;
+  private final CustomerStatsService customerStatsService;
+  private final ReportRollupService reportRollupService;
 
   private final @Lazy OrderService orderService;
 
+  private final AtomicReference<PaymentStats> statsSnapshot = new AtomicReference<>();
+
+  @Value("${shopzone.payments.stats-ttl:PT30S}")
+  private Duration statsTtl;
+
   /**
    * Create a payment intent for an order.
    * Called during checkout after order is created.
@@ -168,8 +189,15 @@ public class PaymentService {
     paymentRepository.save(payment);
 
     Order order = orderService.getOrderById(payment.getOrderId());
+    OrderStatus previousStatus = order.getStatus();
+    boolean alreadyPaid = order.getPaymentStatus() == PaymentStatus.PAID;
     order.recordPayment(chargeId, receiptUrl);
     orderService.saveOrder(order);
+    productSalesRollupService.onStatusChange(order, previousStatus);
+    if (!alreadyPaid) {
+      customerStatsService.onPaymentSuccess(order);
+      reportRollupService.onOrderPaid(order);
+    }
 
     orderService.reduceStockForOrder(order);
 
@@ -264,35 +292,81 @@ public class PaymentService {
 
   /**
    * Get payment statistics for admin dashboard.
+   *
+   * Totals are aggregated in the database (grouped by status and by card brand) and the
+   * result is cached for {@code shopzone.payments.stats-ttl}, so repeated dashboard loads
+   * neither load payment rows nor re-run the aggregates.
    */
-  @Transactional(readOnly = true)
   public PaymentStats getPaymentStatistics() {
-    long totalPayments = paymentRepository.count();
-    long successfulPayments = paymentRepository.countByStatus(PaymentStatus.PAID);
-    long failedPayments = paymentRepository.countByStatus(PaymentStatus.FAILED);
+    PaymentStats current = statsSnapshot.get();
+    if (current != null && current.getGeneratedAt().plus(statsTtl).isAfter(LocalDateTime.now())) {
+      return current;
+    }
 
-    BigDecimal totalRevenue = BigDecimal.ZERO;
-    BigDecimal totalRefunded = BigDecimal.ZERO;
+    PaymentStats stats = computePaymentStatistics();
+    statsSnapshot.set(stats);
+    return stats;
+  }
 
-    List<Payment> paidPayments = paymentRepository.findAll().stream()
-        .filter(p -> p.getStatus() == PaymentStatus.PAID || p.getStatus() == PaymentStatus.REFUNDED || p.getStatus() == PaymentStatus.PARTIALLY_REFUNDED)
-        .toList();
+  private PaymentStats computePaymentStatistics() {
+    Map<PaymentStatus, PaymentBreakdown> byStatus = new EnumMap<>(PaymentStatus.class);
+    for (Object[] row : paymentRepository.aggregateByStatus()) {
+      byStatus.put((PaymentStatus) row[0], toBreakdown(row));
+    }
 
-    for (Payment p : paidPayments) {
-      if (p.getAmount() != null) {
-        totalRevenue = totalRevenue.add(p.getAmount());
-      }
-      if (p.getAmountRefunded() != null) {
-        totalRefunded = totalRefunded.add(p.getAmountRefunded());
+    Map<String, PaymentBreakdown> byCardBrand = new LinkedHashMap<>();
+    for (Object[] row : paymentRepository.aggregateByCardBrand(REVENUE_STATUSES)) {
+      String brand = row[0] != null ? (String) row[0] : "unknown";
+      byCardBrand.put(brand, toBreakdown(row));
+    }
+
+    long totalPayments = 0;
+    for (PaymentBreakdown breakdown : byStatus.values()) {
+      totalPayments += breakdown.getCount();
+    }
+
+    long revenueCount = 0;
+    BigDecimal totalRevenue = BigDecimal.ZERO;
+    BigDecimal totalRefunded = BigDecimal.ZERO;
+    for (PaymentStatus status : REVENUE_STATUSES) {
+      PaymentBreakdown breakdown = byStatus.get(status);
+      if (breakdown != null) {
+        revenueCount += breakdown.getCount();
+        totalRevenue = totalRevenue.add(breakdown.getTotalAmount());
+        totalRefunded = totalRefunded.add(breakdown.getTotalRefunded());
       }
     }
 
     return PaymentStats.builder()
         .totalPayments(totalPayments)
-        .successfulPayments(successfulPayments)
-        .failedPayments(failedPayments)
+        .successfulPayments(countOf(byStatus, PaymentStatus.PAID))
+        .failedPayments(countOf(byStatus, PaymentStatus.FAILED))
         .totalRevenue(totalRevenue)
         .totalRefunded(totalRefunded)
+        .averagePaymentAmount(average(totalRevenue, revenueCount))
+        .byStatus(byStatus)
+        .byCardBrand(byCardBrand)
+        .generatedAt(LocalDateTime.now())
+        .build();
+  }
+
+  private static PaymentBreakdown toBreakdown(Object[] row) {
+    long count = ((Number) row[1]).longValue();
+    BigDecimal totalAmount = (BigDecimal) row[2];
+    return PaymentBreakdown.builder()
+        .count(count)
+        .totalAmount(totalAmount)
+        .totalRefunded((BigDecimal) row[3])
+        .averageAmount(average(totalAmount, count))
         .build();
   }
-}
\ No newline at end of file
+
+  private static long countOf(Map<PaymentStatus, PaymentBreakdown> byStatus, PaymentStatus status) {
+    PaymentBreakdown breakdown = byStatus.get(status);
+    return breakdown != null ? breakdown.getCount() : 0;
+  }
+
+  private static BigDecimal average(BigDecimal total, long count) {
+    return count > 0 ? total.divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP) : BigDecimal.ZERO;
+  }
+}
@@ -0,0 +1,141 @@
+package com.shopzone.service;
+
+import com.shopzone.model.Product;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Maintains Product.popularity, the boost behind relevance ranking.
+ *
+ * Popularity is the quantity sold per day from product_sales_daily, with each day's
+ * sales halved for every half-life of age, summed over a window of recent days. A
+ * scheduled job recomputes it and writes only values that moved by more than the
+ * minimum change. Each write sets the partial-sync flag, so the search outbox pushes the
+ * new values to Elasticsearch in its batched partial updates.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductPopularityService {
+
+  private static final int WRITE_BATCH_SIZE = 1000;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final MongoTemplate mongoTemplate;
+
+  @Value("${shopzone.search.popularity.half-life:P14D}")
+  private Duration halfLife;
+
+  @Value("${shopzone.search.popularity.window:P90D}")
+  private Duration window;
+
+  /** Relative change below which a product's popularity is not rewritten. */
+  @Value("${shopzone.search.popularity.min-change:0.05}")
+  private double minChange;
+
+
+  @Scheduled(
+      initialDelayString = "${shopzone.search.popularity.initial-delay-ms:60000}",
+      fixedDelayString = "${shopzone.search.popularity.refresh-interval-ms:3600000}")
+  public void refresh() {
+    try {
+      long startTime = System.currentTimeMillis();
+      Map<String, Double> computed = compute();
+      Map<String, Double> current = currentPopularity();
+
+      Set<String> productIds = new HashSet<>(computed.keySet());
+      productIds.addAll(current.keySet());
+
+      Map<String, Double> changed = new HashMap<>();
+      for (String productId : productIds) {
+        double next = computed.getOrDefault(productId, 0.0);
+        double previous = current.getOrDefault(productId, 0.0);
+        // Floor of 1 so products with a handful of sales do not churn on every run
+        if (Math.abs(next - previous) > minChange * Math.max(previous, 1.0)) {
+          changed.put(productId, next);
+        }
+      }
+
+      write(changed);
+      log.info("Updated popularity of {} products ({} with recent sales) in {}ms",
+          changed.size(), computed.size(), System.currentTimeMillis() - startTime);
+    } catch (Exception e) {
+      log.error("Popularity refresh failed: {}", e.getMessage());
+    }
+  }
+
+
+  private Map<String, Double> compute() {
+    double halfLifeDays = Math.max(halfLife.toHours() / 24.0, 1.0 / 24);
+    LocalDate from = LocalDate.now().minusDays(window.toDays());
+
+    Map<String, Double> popularity = new HashMap<>();
+    jdbcTemplate.query(
+        "SELECT product_id, SUM(quantity * POWER(0.5, (CURRENT_DATE - sale_date) / ?)) AS popularity " +
+            "FROM product_sales_daily WHERE sale_date >= ? " +
+            "GROUP BY product_id HAVING SUM(quantity) > 0",
+        (RowCallbackHandler) rs ->
+            popularity.put(rs.getString("product_id"), Math.round(rs.getDouble("popularity") * 100) / 100.0),
+        halfLifeDays, from);
+    return popularity;
+  }
+
+  private Map<String, Double> currentPopularity() {
+    Query query = Query.query(Criteria.where("popularity").gt(0));
+    query.fields().include("popularity");
+
+    Map<String, Double> popularity = new HashMap<>();
+    try (Stream<Product> products = mongoTemplate.stream(query, Product.class)) {
+      products.forEach(product -> popularity.put(product.getId(), product.getPopularity()));
+    }
+    return popularity;
+  }
+
+  /**
+   * Write the new values with the partial-sync flag set, as the repository's stock and
+   * rating updates do.
+   */
+  private void write(Map<String, Double> popularity) {
+    BulkOperations updates = null;
+    int pending = 0;
+    for (Map.Entry<String, Double> entry : popularity.entrySet()) {
+      if (updates == null) {
+        updates = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+      }
+      updates.updateOne(
+          Query.query(Criteria.where("id").is(entry.getKey())),
+          new Update()
+              .set("popularity", entry.getValue())
+              .set("searchPartialSyncRequestedAt", LocalDateTime.now())
+              .set("searchSyncToken", UUID.randomUUID().toString()));
+      if (++pending == WRITE_BATCH_SIZE) {
+        updates.execute();
+        updates = null;
+        pending = 0;
+      }
+    }
+    if (updates != null) {
+      updates.execute();
+    }
+  }
+}
@@ -0,0 +1,133 @@
+package com.shopzone.service;
+
+import com.shopzone.model.ProductRatingStats;
+import com.shopzone.model.Review;
+import com.shopzone.repository.jpa.ProductRatingStatsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Maintains the product_rating_stats rollup: review count, rating sum, verified count
+ * and per-star counts per product. Every review change is applied as a delta in the
+ * caller's transaction, so rating reads never scan the reviews table.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductRatingStatsService {
+
+  private final ProductRatingStatsRepository ratingStatsRepository;
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+
+
+  @Transactional
+  public RatingSummary onReviewCreated(Review review) {
+    return applyDelta(review.getProductId(), 1, review.getRating(),
+        Boolean.TRUE.equals(review.getVerifiedPurchase()));
+  }
+
+  @Transactional
+  public RatingSummary onReviewDeleted(Review review) {
+    return applyDelta(review.getProductId(), -1, review.getRating(),
+        Boolean.TRUE.equals(review.getVerifiedPurchase()));
+  }
+
+  /**
+   * Move a review from previousRating to its current rating.
+   */
+  @Transactional
+  public RatingSummary onRatingChanged(Review review, int previousRating) {
+    int rating = review.getRating();
+    if (rating == previousRating) {
+      return getSummary(review.getProductId());
+    }
+
+    long[] stars = new long[6];
+    stars[previousRating]--;
+    stars[rating]++;
+    ratingStatsRepository.applyDelta(review.getProductId(), 0, rating - previousRating, 0,
+        stars[1], stars[2], stars[3], stars[4], stars[5]);
+    return getSummary(review.getProductId());
+  }
+
+  @Transactional(readOnly = true)
+  public ProductRatingStats getStats(String productId) {
+    return ratingStatsRepository.findById(productId)
+        .orElseGet(() -> ProductRatingStats.builder().productId(productId).build());
+  }
+
+  /**
+   * Populate the table on first start after it was introduced.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void backfillIfEmpty() {
+    try {
+      if (ratingStatsRepository.count() == 0) {
+        transactionTemplate.executeWithoutResult(status -> backfill());
+      }
+    } catch (Exception e) {
+      log.error("Product rating stats backfill failed: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Rebuild product_rating_stats from the reviews table. The table is locked for the
+   * duration so concurrent review changes apply their delta on top of the rebuilt rows.
+   *
+   * @return number of products written
+   */
+  @Transactional
+  public int backfill() {
+    long startTime = System.currentTimeMillis();
+
+    jdbcTemplate.execute("LOCK TABLE product_rating_stats IN EXCLUSIVE MODE");
+    jdbcTemplate.update("DELETE FROM product_rating_stats");
+
+    int rows = jdbcTemplate.update(
+        "INSERT INTO product_rating_stats " +
+            "(product_id, review_count, rating_sum, verified_count, " +
+            "star1_count, star2_count, star3_count, star4_count, star5_count, updated_at) " +
+            "SELECT product_id, COUNT(*), SUM(rating), COUNT(*) FILTER (WHERE verified_purchase), " +
+            "COUNT(*) FILTER (WHERE rating = 1), COUNT(*) FILTER (WHERE rating = 2), " +
+            "COUNT(*) FILTER (WHERE rating = 3), COUNT(*) FILTER (WHERE rating = 4), " +
+            "COUNT(*) FILTER (WHERE rating = 5), now() " +
+            "FROM reviews GROUP BY product_id");
+
+    log.info("Backfilled rating stats for {} products in {}ms",
+        rows, System.currentTimeMillis() - startTime);
+    return rows;
+  }
+
+
+  private RatingSummary applyDelta(String productId, int sign, int rating, boolean verified) {
+    long[] stars = new long[6];
+    stars[rating] = sign;
+    ratingStatsRepository.applyDelta(productId, sign, (long) sign * rating, verified ? sign : 0,
+        stars[1], stars[2], stars[3], stars[4], stars[5]);
+    return getSummary(productId);
+  }
+
+  private RatingSummary getSummary(String productId) {
+    List<Object[]> rows = ratingStatsRepository.findCountAndSum(productId);
+    if (rows.isEmpty()) {
+      return new RatingSummary(0.0, 0);
+    }
+    long count = ((Number) rows.get(0)[0]).longValue();
+    long sum = ((Number) rows.get(0)[1]).longValue();
+    return new RatingSummary(count > 0 ? (double) sum / count : 0.0, (int) count);
+  }
+
+  /**
+   * Average rating and review count after an update, for pushing to the search index.
+   */
+  public record RatingSummary(double averageRating, int reviewCount) {}
+}
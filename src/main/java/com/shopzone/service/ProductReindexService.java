@@ -0,0 +1,339 @@
+package com.shopzone.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import com.shopzone.exception.BadRequestException;
+import com.shopzone.model.Category;
+import com.shopzone.model.Product;
+import com.shopzone.model.elasticsearch.ProductDocument;
+import com.shopzone.repository.mongo.CategoryRepository;
+import com.shopzone.repository.mongo.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.index.AliasAction;
+import org.springframework.data.elasticsearch.core.index.AliasActionParameters;
+import org.springframework.data.elasticsearch.core.index.AliasActions;
+import org.springframework.data.elasticsearch.core.index.Settings;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.BulkOptions;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Full rebuild of the products search index without a window of empty results.
+ *
+ * Searches and single-product syncs always go through the {@code products} alias. A
+ * reindex builds a new versioned index ({@code products_yyyyMMddHHmmss}) with replicas
+ * and refresh disabled, streams active products from a Mongo cursor into it with bulk
+ * requests, restores the settings, then moves the alias in one atomic request and
+ * deletes the previous index. A lease in MongoDB (held through ProductSearchOutbox) keeps
+ * one reindex running across all instances, and the search outbox relay is paused for
+ * the whole rebuild,
+ * so every change made meanwhile (full saves, stock, rating and popularity updates,
+ * deletions) stays pending in MongoDB and is applied through the alias once it points at
+ * the new index.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductReindexService {
+
+  public static final String ALIAS = "products";
+
+  private static final DateTimeFormatter VERSION_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+  private final MongoTemplate mongoTemplate;
+  private final ProductRepository productRepository;
+  private final CategoryRepository categoryRepository;
+  private final ElasticsearchOperations elasticsearchOperations;
+  private final ElasticsearchClient elasticsearchClient;
+  private final ProductSyncService productSyncService;
+  private final SearchResultCache searchResultCache;
+  private final ProductSearchOutbox productSearchOutbox;
+
+  private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "product-reindex");
+    thread.setDaemon(true);
+    return thread;
+  });
+  private final AtomicBoolean running = new AtomicBoolean(false);
+  private final String instanceId = UUID.randomUUID().toString();
+  private volatile ReindexStatus status = ReindexStatus.idle();
+
+  @Value("${shopzone.search.reindex-batch-size:1000}")
+  private int batchSize;
+
+  @Value("${shopzone.search.index-replicas:1}")
+  private int replicas;
+
+
+  /**
+   * Start a reindex in the background.
+   *
+   * @return the initial status, including the name of the index being built
+   */
+  public ReindexStatus startReindex() {
+    if (!running.compareAndSet(false, true)) {
+      throw new BadRequestException("A reindex is already running: " + status.indexName());
+    }
+    try {
+      if (!productSearchOutbox.acquireReindexLease(instanceId)) {
+        throw new BadRequestException("A reindex is already running on another instance");
+      }
+    } catch (RuntimeException e) {
+      running.set(false);
+      throw e;
+    }
+
+    String indexName = ALIAS + "_" + LocalDateTime.now().format(VERSION_FORMAT);
+    status = ReindexStatus.started(indexName, productRepository.countByActiveTrue());
+    executor.submit(() -> {
+      try {
+        reindex(indexName);
+      } finally {
+        running.set(false);
+      }
+    });
+    return status;
+  }
+
+  public ReindexStatus getStatus() {
+    return status;
+  }
+
+  /**
+   * Changes to existing fields (such as the brand subfields) only reach an existing index
+   * through a reindex, so start one on startup if the live index predates them. New
+   * fields (such as popularity) are added to the live mapping in place. During a rolling
+   * deploy only the first instance gets the reindex lease; the others skip the rebuild.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void reindexIfMappingOutdated() {
+    try {
+      IndexOperations aliasOps = elasticsearchOperations.indexOps(IndexCoordinates.of(ALIAS));
+      if (!aliasOps.exists()) {
+        return;
+      }
+      Map<String, Object> mapping = aliasOps.getMapping();
+      if (!hasBrandSubfields(mapping)) {
+        log.info("Products index mapping is outdated, starting reindex");
+        try {
+          startReindex();
+        } catch (BadRequestException e) {
+          log.info("Skipping startup reindex: {}", e.getMessage());
+        }
+      } else if (!hasField(mapping, "popularity")) {
+        log.info("Adding new fields to the products index mapping");
+        aliasOps.putMapping(aliasOps.createMapping(ProductDocument.class));
+      }
+    } catch (Exception e) {
+      log.warn("Failed to check products index mapping: {}", e.getMessage());
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+
+  private void reindex(String indexName) {
+    long startTime = System.nanoTime();
+    IndexOperations newIndex = elasticsearchOperations.indexOps(IndexCoordinates.of(indexName));
+
+    try {
+      productSearchOutbox.awaitRelayPaused();
+      createIndex(newIndex);
+      log.info("Reindexing products into {} ({} active products)", indexName, status.total());
+
+      long indexed = indexProducts(indexName, startTime);
+
+      elasticsearchClient.indices().putSettings(p -> p
+          .index(indexName)
+          .settings(s -> s
+              .numberOfReplicas(String.valueOf(replicas))
+              .refreshInterval(t -> t.time("1s"))));
+      newIndex.refresh();
+      productSearchOutbox.renewReindexLease(instanceId);
+
+      List<String> previous = swapAlias(indexName);
+      searchResultCache.invalidate();
+      for (String oldIndex : previous) {
+        elasticsearchOperations.indexOps(IndexCoordinates.of(oldIndex)).delete();
+      }
+
+      double seconds = Duration.ofNanos(System.nanoTime() - startTime).toMillis() / 1000.0;
+      status = status.completed(indexed, docsPerSecond(indexed, seconds));
+      log.info("Reindex into {} completed: {} products in {}s ({} docs/s), replaced {}",
+          indexName, indexed, seconds, Math.round(status.docsPerSecond()), previous);
+    } catch (Exception e) {
+      log.error("Reindex into {} failed: {}", indexName, e.getMessage(), e);
+      status = status.failed(e.getMessage());
+      try {
+        if (newIndex.exists() && !isAliased(indexName)) {
+          newIndex.delete();
+        }
+      } catch (Exception cleanup) {
+        log.warn("Failed to delete partial index {}: {}", indexName, cleanup.getMessage());
+      }
+    } finally {
+      productSearchOutbox.releaseReindexLease(instanceId);
+    }
+  }
+
+  private void createIndex(IndexOperations indexOps) {
+    Settings settings = indexOps.createSettings(ProductDocument.class).flatten();
+    settings.put("index.number_of_replicas", 0);
+    settings.put("index.refresh_interval", "-1");
+    indexOps.create(settings, indexOps.createMapping(ProductDocument.class));
+  }
+
+  private long indexProducts(String indexName, long startTime) {
+    Map<String, Category> categories = categoryRepository.findAll().stream()
+        .collect(Collectors.toMap(Category::getId, Function.identity()));
+    IndexCoordinates coordinates = IndexCoordinates.of(indexName);
+
+    Query query = Query.query(Criteria.where("active").is(true))
+        .cursorBatchSize(batchSize)
+        .noCursorTimeout();
+
+    long indexed = 0;
+    List<IndexQuery> batch = new ArrayList<>(batchSize);
+
+    try (Stream<Product> products = mongoTemplate.stream(query, Product.class)) {
+      Iterator<Product> iterator = products.iterator();
+      while (iterator.hasNext()) {
+        Product product = iterator.next();
+        ProductDocument document = productSyncService.convertToDocument(
+            product, product.getCategoryId() != null ? categories.get(product.getCategoryId()) : null);
+        batch.add(new IndexQueryBuilder().withId(document.getId()).withObject(document).build());
+
+        if (batch.size() >= batchSize) {
+          indexed += flush(batch, coordinates, indexed, startTime);
+        }
+      }
+      if (!batch.isEmpty()) {
+        indexed += flush(batch, coordinates, indexed, startTime);
+      }
+    }
+    return indexed;
+  }
+
+  private int flush(List<IndexQuery> batch, IndexCoordinates coordinates, long indexedSoFar, long startTime) {
+    elasticsearchOperations.bulkIndex(batch, BulkOptions.defaultOptions(), coordinates);
+    int size = batch.size();
+    batch.clear();
+
+    productSearchOutbox.renewReindexLease(instanceId);
+
+    long indexed = indexedSoFar + size;
+    double seconds = Duration.ofNanos(System.nanoTime() - startTime).toMillis() / 1000.0;
+    status = status.progress(indexed, docsPerSecond(indexed, seconds));
+    log.debug("Reindex {}: {}/{} products ({} docs/s)",
+        status.indexName(), indexed, status.total(), Math.round(status.docsPerSecond()));
+    return size;
+  }
+
+  /**
+   * Point the alias at the new index in a single request.
+   *
+   * @return indices the alias pointed to before
+   */
+  private List<String> swapAlias(String indexName) {
+    IndexOperations aliasOps = elasticsearchOperations.indexOps(IndexCoordinates.of(ALIAS));
+    List<AliasAction> actions = new ArrayList<>();
+    List<String> previous = new ArrayList<>();
+
+    Set<String> aliasedIndices = aliasOps.getAliases(ALIAS).keySet();
+    if (aliasedIndices.isEmpty() && aliasOps.exists()) {
+      // First run: "products" is still the concrete index created from ProductDocument
+      actions.add(new AliasAction.RemoveIndex(AliasActionParameters.builder().withIndices(ALIAS).build()));
+    } else {
+      for (String index : aliasedIndices) {
+        actions.add(new AliasAction.Remove(
+            AliasActionParameters.builder().withIndices(index).withAliases(ALIAS).build()));
+        previous.add(index);
+      }
+    }
+    actions.add(new AliasAction.Add(
+        AliasActionParameters.builder().withIndices(indexName).withAliases(ALIAS).build()));
+
+    aliasOps.alias(new AliasActions(actions.toArray(new AliasAction[0])));
+    return previous;
+  }
+
+  private boolean isAliased(String indexName) {
+    return elasticsearchOperations.indexOps(IndexCoordinates.of(ALIAS))
+        .getAliases(ALIAS).containsKey(indexName);
+  }
+
+  private static boolean hasBrandSubfields(Map<String, Object> mapping) {
+    Object properties = mapping.get("properties");
+    if (!(properties instanceof Map<?, ?> props) || !(props.get("brand") instanceof Map<?, ?> brand)) {
+      return false;
+    }
+    Object fields = brand.get("fields");
+    return fields instanceof Map<?, ?> subfields
+        && subfields.containsKey("normalized") && subfields.containsKey("ngram");
+  }
+
+  private static boolean hasField(Map<String, Object> mapping, String field) {
+    return mapping.get("properties") instanceof Map<?, ?> props && props.containsKey(field);
+  }
+
+  private static double docsPerSecond(long docs, double seconds) {
+    return seconds > 0 ? docs / seconds : docs;
+  }
+
+  public record ReindexStatus(String state, String indexName, long indexed, long total,
+                              double docsPerSecond, LocalDateTime startedAt,
+                              LocalDateTime finishedAt, String error) {
+
+    static ReindexStatus idle() {
+      return new ReindexStatus("IDLE", null, 0, 0, 0, null, null, null);
+    }
+
+    static ReindexStatus started(String indexName, long total) {
+      return new ReindexStatus("RUNNING", indexName, 0, total, 0, LocalDateTime.now(), null, null);
+    }
+
+    ReindexStatus progress(long indexed, double docsPerSecond) {
+      return new ReindexStatus(state, indexName, indexed, total, docsPerSecond, startedAt, null, null);
+    }
+
+    ReindexStatus completed(long indexed, double docsPerSecond) {
+      return new ReindexStatus("COMPLETED", indexName, indexed, total, docsPerSecond,
+          startedAt, LocalDateTime.now(), null);
+    }
+
+    ReindexStatus failed(String error) {
+      return new ReindexStatus("FAILED", indexName, indexed, total, docsPerSecond,
+          startedAt, LocalDateTime.now(), error);
+    }
+  }
+}
@@ -0,0 +1,140 @@
+package com.shopzone.service;
+
+import com.shopzone.model.Order;
+import com.shopzone.model.OrderItem;
+import com.shopzone.model.enums.OrderStatus;
+import com.shopzone.repository.jpa.ProductSalesDailyRepository;
+import com.shopzone.repository.jpa.ProductSalesTotalRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the product_sales_daily / product_sales_total rollups.
+ *
+ * An order's items count as sold while the order is in one of {@link #SOLD_STATUSES}.
+ * Every status change is applied as a +/- delta in the same transaction as the order
+ * update, so the rollups stay consistent with the orders table.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductSalesRollupService {
+
+  public static final Set<OrderStatus> SOLD_STATUSES = EnumSet.of(
+      OrderStatus.CONFIRMED, OrderStatus.PROCESSING, OrderStatus.SHIPPED, OrderStatus.DELIVERED);
+
+  private static final String SOLD_STATUS_LIST = SOLD_STATUSES.stream()
+      .map(status -> "'" + status.name() + "'")
+      .collect(Collectors.joining(", "));
+
+  private final ProductSalesDailyRepository dailyRepository;
+  private final ProductSalesTotalRepository totalRepository;
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+
+
+  /**
+   * Apply the effect of an order moving from previousStatus to its current status.
+   * Must be called inside the transaction that saves the order.
+   */
+  @Transactional
+  public void onStatusChange(Order order, OrderStatus previousStatus) {
+    boolean wasSold = previousStatus != null && SOLD_STATUSES.contains(previousStatus);
+    boolean isSold = SOLD_STATUSES.contains(order.getStatus());
+    if (wasSold == isSold || order.getItems() == null) {
+      return;
+    }
+
+    int sign = isSold ? 1 : -1;
+    LocalDate saleDate = order.getCreatedAt().toLocalDate();
+
+    for (OrderItem item : order.getItems()) {
+      BigDecimal revenue = item.getTotalPrice() != null ? item.getTotalPrice() : BigDecimal.ZERO;
+      long quantity = (long) sign * item.getQuantity();
+      BigDecimal signedRevenue = sign > 0 ? revenue : revenue.negate();
+
+      dailyRepository.applyDelta(saleDate, item.getProductId(), item.getProductName(),
+          item.getProductImage(), quantity, signedRevenue, sign);
+      totalRepository.applyDelta(item.getProductId(), item.getProductName(),
+          item.getProductImage(), quantity, signedRevenue, sign);
+    }
+
+    log.debug("Applied {} sales delta for order {} ({} -> {})",
+        isSold ? "+" : "-", order.getOrderNumber(), previousStatus, order.getStatus());
+  }
+
+  /**
+   * Populate the rollups on first start after they were introduced.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void backfillIfEmpty() {
+    try {
+      if (totalRepository.count() == 0) {
+        transactionTemplate.executeWithoutResult(status -> backfill());
+      }
+    } catch (Exception e) {
+      log.error("Product sales backfill failed: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Rebuild the rollups from the orders table.
+   *
+   * Only days from the oldest live order onward are rebuilt, so sales of orders already
+   * moved to the archive are kept. The rollup tables are locked for the duration, which
+   * makes concurrent status changes wait and then apply their delta on top of the rebuilt rows.
+   *
+   * @return number of daily rows written
+   */
+  @Transactional
+  public int backfill() {
+    long startTime = System.currentTimeMillis();
+
+    jdbcTemplate.execute("LOCK TABLE product_sales_daily, product_sales_total IN EXCLUSIVE MODE");
+
+    Timestamp oldestOrder = jdbcTemplate.queryForObject(
+        "SELECT MIN(created_at) FROM orders", Timestamp.class);
+    if (oldestOrder == null) {
+      log.info("No orders to backfill product sales from");
+      return 0;
+    }
+    LocalDate from = oldestOrder.toLocalDateTime().toLocalDate();
+
+    jdbcTemplate.update("DELETE FROM product_sales_daily WHERE sale_date >= ?", from);
+
+    int rows = jdbcTemplate.update(
+        "INSERT INTO product_sales_daily " +
+            "(sale_date, product_id, product_name, product_image, quantity, revenue, order_count) " +
+            "SELECT CAST(o.created_at AS DATE), i.product_id, MAX(i.product_name), MAX(i.product_image), " +
+            "SUM(i.quantity), SUM(i.total_price), COUNT(*) " +
+            "FROM orders o JOIN order_items i ON i.order_id = o.id " +
+            "WHERE o.status IN (" + SOLD_STATUS_LIST + ") AND o.created_at >= ? " +
+            "GROUP BY CAST(o.created_at AS DATE), i.product_id",
+        from.atStartOfDay());
+
+    jdbcTemplate.update("DELETE FROM product_sales_total");
+    jdbcTemplate.update(
+        "INSERT INTO product_sales_total " +
+            "(product_id, product_name, product_image, total_quantity, total_revenue, order_count, updated_at) " +
+            "SELECT product_id, MAX(product_name), MAX(product_image), " +
+            "SUM(quantity), SUM(revenue), SUM(order_count), now() " +
+            "FROM product_sales_daily GROUP BY product_id");
+
+    log.info("Backfilled {} product sales rows from {} in {}ms",
+        rows, from, System.currentTimeMillis() - startTime);
+    return rows;
+  }
+}
@@ -0,0 +1,262 @@
+package com.shopzone.service;
+
+import com.shopzone.dto.request.ProductSearchRequest;
+import com.shopzone.dto.response.AutocompleteResponse;
+import com.shopzone.dto.response.SearchResultResponse;
+import com.shopzone.model.Category;
+import com.shopzone.model.Product;
+import com.github.slugify.Slugify;
+import com.shopzone.repository.mongo.CategoryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Degraded product search served from MongoDB while Elasticsearch is unavailable.
+ *
+ * Uses the products text index for the query and indexed equality filters for the rest
+ * (brand matches exactly, as the brand facet returns it). There is no fuzzy matching, no
+ * facets, no total count and no cursor paging; results come back marked as fallback so
+ * the storefront can tell.
+ *
+ * This runs against the primary MongoDB exactly when search is already degraded, so at
+ * most max-concurrent fallback queries run at a time. Requests beyond that get an empty
+ * fallback result rather than queueing on the database.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductSearchFallback {
+
+  private static final String FIRST_CURSOR = "*";
+  private static final Pattern SLUG_PREFIX = Pattern.compile("[a-z0-9-]+");
+
+  private final MongoTemplate mongoTemplate;
+  private final CategoryRepository categoryRepository;
+  private final ProductSyncService productSyncService;
+  private final MeterRegistry meterRegistry;
+  private final Slugify slugify = Slugify.builder().build();
+
+  @Value("${shopzone.search.fallback.max-concurrent:8}")
+  private int maxConcurrent;
+
+  private Semaphore permits;
+
+
+  @PostConstruct
+  void initPermits() {
+    permits = new Semaphore(maxConcurrent);
+  }
+
+
+  public SearchResultResponse search(ProductSearchRequest request) {
+    long startTime = System.currentTimeMillis();
+
+    // Cursor paging needs Elasticsearch sort values: the first cursor page is served from
+    // MongoDB and ends the cursor, later cursors get no results instead of page 0 again
+    boolean cursorMode = request.getCursor() != null && !request.getCursor().isBlank();
+    if (cursorMode && !FIRST_CURSOR.equals(request.getCursor())) {
+      return emptySearch(request, startTime);
+    }
+    if (!permits.tryAcquire()) {
+      rejected("search");
+      return emptySearch(request, startTime);
+    }
+    try {
+      return doSearch(request, startTime);
+    } finally {
+      permits.release();
+    }
+  }
+
+  public AutocompleteResponse autocomplete(String prefix, int limit) {
+    long startTime = System.currentTimeMillis();
+
+    if (!permits.tryAcquire()) {
+      rejected("autocomplete");
+      return AutocompleteResponse.builder()
+          .query(prefix)
+          .suggestions(List.of())
+          .searchTimeMs(System.currentTimeMillis() - startTime)
+          .fallback(true)
+          .build();
+    }
+    try {
+      return doAutocomplete(prefix, limit, startTime);
+    } finally {
+      permits.release();
+    }
+  }
+
+
+  private SearchResultResponse emptySearch(ProductSearchRequest request, long startTime) {
+    return SearchResultResponse.builder()
+        .products(List.of())
+        .currentPage(request.getPage())
+        .pageSize(request.getSize())
+        .query(request.getQuery())
+        .searchTimeMs(System.currentTimeMillis() - startTime)
+        .fallback(true)
+        .build();
+  }
+
+  private void rejected(String operation) {
+    log.debug("Search fallback at capacity, rejecting {}", operation);
+    meterRegistry.counter("shopzone.search.fallback.rejected", "operation", operation).increment();
+  }
+
+  /**
+   * Reads one product past the page to tell whether another page follows, instead of
+   * counting every match. totalHits is therefore a lower bound.
+   */
+  private SearchResultResponse doSearch(ProductSearchRequest request, long startTime) {
+    boolean hasText = request.getQuery() != null && !request.getQuery().isBlank();
+    Query query = hasText
+        ? TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(request.getQuery())).sortByScore()
+        : new Query();
+    applyFilters(query, request);
+
+    boolean cursorMode = request.getCursor() != null && !request.getCursor().isBlank();
+    int page = cursorMode ? 0 : request.getPage();
+    Sort sort = buildSort(request, hasText);
+    if (sort.isSorted()) {
+      query.with(sort);
+    }
+    query.skip((long) page * request.getSize()).limit(request.getSize() + 1);
+
+    List<Product> products = mongoTemplate.find(query, Product.class);
+    boolean hasMore = products.size() > request.getSize();
+    if (hasMore) {
+      products = products.subList(0, request.getSize());
+    }
+    long totalHits = (long) page * request.getSize() + products.size() + (hasMore ? 1 : 0);
+
+    Map<String, Category> categories = categoryRepository.findAllById(products.stream()
+            .map(Product::getCategoryId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet()))
+        .stream()
+        .collect(Collectors.toMap(Category::getId, Function.identity()));
+
+    List<SearchResultResponse.ProductHit> hits = products.stream()
+        .map(product -> SearchResultResponse.ProductHit.from(
+            productSyncService.convertToDocument(product, categories.get(product.getCategoryId())), 0f))
+        .toList();
+
+    return SearchResultResponse.builder()
+        .products(hits)
+        .totalHits(totalHits)
+        .totalPages(page + (hasMore ? 2 : 1))
+        .currentPage(page)
+        .pageSize(request.getSize())
+        .query(request.getQuery())
+        .searchTimeMs(System.currentTimeMillis() - startTime)
+        .fallback(true)
+        .build();
+  }
+
+  /**
+   * Matches the prefix against product slugs, which are the lowercased, hyphenated names,
+   * so the anchored case-sensitive regex is answered from the slug index. The slugified
+   * prefix is left unquoted because MongoDB only bounds the index scan for plain literal
+   * prefixes; prefixes that slugify to anything but [a-z0-9-] match nothing. Products with
+   * a custom slug are not suggested here.
+   */
+  private AutocompleteResponse doAutocomplete(String prefix, int limit, long startTime) {
+    String slugPrefix = slugify.slugify(prefix.trim());
+    if (!SLUG_PREFIX.matcher(slugPrefix).matches()) {
+      return AutocompleteResponse.builder()
+          .query(prefix)
+          .suggestions(List.of())
+          .searchTimeMs(System.currentTimeMillis() - startTime)
+          .fallback(true)
+          .build();
+    }
+
+    Query query = Query.query(Criteria.where("slug").regex("^" + slugPrefix)
+            .and("active").is(true))
+        .limit(limit);
+    query.fields().include("name", "slug", "price", "images");
+
+    List<AutocompleteResponse.Suggestion> suggestions = mongoTemplate.find(query, Product.class).stream()
+        .map(product -> AutocompleteResponse.Suggestion.builder()
+            .text(product.getName())
+            .type("product")
+            .id(product.getId())
+            .slug(product.getSlug())
+            .price(product.getPrice() != null ? product.getPrice().doubleValue() : null)
+            .imageUrl(product.getImages() != null && !product.getImages().isEmpty()
+                ? product.getImages().get(0) : null)
+            .build())
+        .toList();
+
+    return AutocompleteResponse.builder()
+        .query(prefix)
+        .suggestions(suggestions)
+        .searchTimeMs(System.currentTimeMillis() - startTime)
+        .fallback(true)
+        .build();
+  }
+
+
+  private void applyFilters(Query query, ProductSearchRequest request) {
+    query.addCriteria(Criteria.where("active").is(true));
+
+    if (request.getMinPrice() != null || request.getMaxPrice() != null) {
+      Criteria price = Criteria.where("price");
+      if (request.getMinPrice() != null) {
+        price.gte(BigDecimal.valueOf(request.getMinPrice()));
+      }
+      if (request.getMaxPrice() != null) {
+        price.lte(BigDecimal.valueOf(request.getMaxPrice()));
+      }
+      query.addCriteria(price);
+    }
+    if (request.getCategoryId() != null && !request.getCategoryId().isBlank()) {
+      query.addCriteria(Criteria.where("categoryId").is(request.getCategoryId()));
+    }
+    if (request.getBrand() != null && !request.getBrand().isBlank()) {
+      query.addCriteria(Criteria.where("brand").is(request.getBrand().trim()));
+    }
+    if (request.getTags() != null && !request.getTags().isEmpty()) {
+      query.addCriteria(Criteria.where("tags").all(request.getTags()));
+    }
+    if (request.getMinRating() != null) {
+      query.addCriteria(Criteria.where("averageRating").gte(request.getMinRating()));
+    }
+    if (Boolean.TRUE.equals(request.getInStock())) {
+      query.addCriteria(Criteria.where("stock").gt(0));
+    }
+  }
+
+  private Sort buildSort(ProductSearchRequest request, boolean hasText) {
+    Sort.Direction direction = "asc".equalsIgnoreCase(request.getSortDir())
+        ? Sort.Direction.ASC : Sort.Direction.DESC;
+
+    return switch (String.valueOf(request.getSortBy())) {
+      case "price" -> Sort.by(direction, "price");
+      case "rating" -> Sort.by(direction, "averageRating");
+      case "newest" -> Sort.by(direction, "createdAt");
+      case "name" -> Sort.by(direction, "name");
+      default -> hasText ? Sort.unsorted() : Sort.by(Sort.Direction.DESC, "createdAt");
+    };
+  }
+}
@@ -0,0 +1,482 @@
+package com.shopzone.service;
+
+import com.shopzone.model.Category;
+import com.shopzone.model.Product;
+import com.shopzone.model.elasticsearch.ProductDocument;
+import com.shopzone.repository.mongo.CategoryRepository;
+import com.shopzone.repository.mongo.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.springframework.data.elasticsearch.core.query.UpdateQuery;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertCallback;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Outbox for keeping the products search index in step with MongoDB.
+ *
+ * Every product write marks the document pending in the same write: saves go through
+ * the before-convert callback below, while stock and rating updates in ProductRepository
+ * and popularity updates set a partial-sync flag themselves. Deletes leave a tombstone in
+ * product_search_deletions. A relay drains pending products oldest first into bulk
+ * requests and clears the flag only if the product was not written again in the
+ * meantime, so the index always ends on the latest state of each product. Products with
+ * only stock, rating or popularity changes get a partial update of those fields, so any
+ * number of changes between two polls cost one small update. Failed documents stay pending and
+ * are retried with backoff. A lease in search_outbox_lease keeps a single relay active
+ * across instances.
+ *
+ * While a full reindex builds a new index the relay is paused by the reindex lease in the
+ * same collection, so changes stay pending and tombstones stay in place until the alias
+ * points at the new index, and are then applied to it. The reindex lease also keeps a
+ * single reindex running across instances.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductSearchOutbox implements BeforeConvertCallback<Product> {
+
+  private static final String DELETIONS_COLLECTION = "product_search_deletions";
+  private static final String LEASE_COLLECTION = "search_outbox_lease";
+  private static final String LEASE_ID = "products";
+  private static final Duration LEASE_DURATION = Duration.ofSeconds(30);
+  private static final Duration ABANDONED_DELETION_AGE = Duration.ofMinutes(5);
+  private static final String REINDEX_LEASE_ID = "products-reindex";
+  private static final Duration REINDEX_LEASE_DURATION = Duration.ofMinutes(2);
+  private static final long PAUSE_POLL_MILLIS = 200;
+
+  private final MongoTemplate mongoTemplate;
+  private final ProductRepository productRepository;
+  private final CategoryRepository categoryRepository;
+  private final ElasticsearchOperations elasticsearchOperations;
+  private final ProductSyncService productSyncService;
+  private final SearchResultCache searchResultCache;
+  private final SimilarProductsService similarProductsService;
+  private final MeterRegistry meterRegistry;
+
+  private final String instanceId = UUID.randomUUID().toString();
+  private final AtomicLong pendingCount = new AtomicLong();
+  private final AtomicLong lagMillis = new AtomicLong();
+
+  @Value("${shopzone.search.outbox.batch-size:500}")
+  private int batchSize;
+
+  @Value("${shopzone.search.outbox.retry-backoff:PT5S}")
+  private Duration retryBackoff;
+
+  @Value("${shopzone.search.outbox.max-retry-backoff:PT10M}")
+  private Duration maxRetryBackoff;
+
+
+  @PostConstruct
+  public void registerMetrics() {
+    Gauge.builder("shopzone.search.outbox.pending", pendingCount, AtomicLong::get)
+        .description("Products waiting to be written to the search index")
+        .register(meterRegistry);
+    Gauge.builder("shopzone.search.outbox.lag", lagMillis, value -> value.get() / 1000.0)
+        .description("Age of the oldest product change not yet in the search index")
+        .baseUnit("seconds")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Mark a product pending as part of the save that changes it.
+   */
+  @Override
+  public Product onBeforeConvert(Product product, String collection) {
+    product.setSearchSyncRequestedAt(LocalDateTime.now());
+    product.setSearchSyncToken(UUID.randomUUID().toString());
+    product.setSearchSyncAttempts(null);
+    product.setSearchSyncRetryAt(null);
+    return product;
+  }
+
+  /**
+   * Record that a product is being deleted. Call before deleting it from MongoDB.
+   */
+  public void recordDeletion(String productId) {
+    mongoTemplate.save(new Document("_id", productId).append("deletedAt", new Date()), DELETIONS_COLLECTION);
+  }
+
+  /**
+   * Take the cluster-wide reindex lease, which also pauses the relay. The lease lapses
+   * unless renewed while the reindex runs.
+   *
+   * @return false if a reindex on another instance holds it
+   */
+  public boolean acquireReindexLease(String owner) {
+    LocalDateTime now = LocalDateTime.now();
+    Query query = Query.query(Criteria.where("_id").is(REINDEX_LEASE_ID)
+        .orOperator(Criteria.where("expiresAt").lt(now), Criteria.where("owner").is(owner)));
+    Update update = new Update()
+        .set("owner", owner)
+        .set("expiresAt", now.plus(REINDEX_LEASE_DURATION))
+        .set("relayPaused", false);
+    try {
+      mongoTemplate.upsert(query, update, LEASE_COLLECTION);
+      return true;
+    } catch (DuplicateKeyException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Wait until the instance holding the relay lease has seen the reindex lease, so no
+   * batch is still being written to the old index.
+   */
+  public void awaitRelayPaused() throws InterruptedException {
+    Query lease = Query.query(Criteria.where("_id").is(REINDEX_LEASE_ID));
+    long deadline = System.nanoTime() + LEASE_DURATION.multipliedBy(2).toNanos();
+    while (System.nanoTime() < deadline) {
+      Document current = mongoTemplate.findOne(lease, Document.class, LEASE_COLLECTION);
+      if (current != null && Boolean.TRUE.equals(current.getBoolean("relayPaused"))) {
+        return;
+      }
+      if (!relayLeaseHeld()) {
+        // No relay is running anywhere; the next one to start sees the marker first
+        return;
+      }
+      Thread.sleep(PAUSE_POLL_MILLIS);
+    }
+    log.warn("Search outbox relay did not confirm the pause for reindex, continuing");
+  }
+
+  /**
+   * @throws IllegalStateException if the lease lapsed and was taken by another reindex
+   */
+  public void renewReindexLease(String owner) {
+    long renewed = mongoTemplate.updateFirst(
+        Query.query(Criteria.where("_id").is(REINDEX_LEASE_ID).and("owner").is(owner)),
+        new Update().set("expiresAt", LocalDateTime.now().plus(REINDEX_LEASE_DURATION)),
+        LEASE_COLLECTION).getMatchedCount();
+    if (renewed == 0) {
+      throw new IllegalStateException("Reindex lease was lost to another instance");
+    }
+  }
+
+  /**
+   * Let the relay apply the changes held back during a reindex, now through the alias
+   * pointing at the new index.
+   */
+  public void releaseReindexLease(String owner) {
+    mongoTemplate.remove(Query.query(Criteria.where("_id").is(REINDEX_LEASE_ID).and("owner").is(owner)),
+        LEASE_COLLECTION);
+  }
+
+  @Scheduled(fixedDelayString = "${shopzone.search.outbox.poll-interval-ms:1000}")
+  public void relay() {
+    try {
+      if (acquireLease()) {
+        if (reindexRunning()) {
+          acknowledgeReindexPause();
+        } else {
+          drain();
+        }
+      }
+      updateMetrics();
+    } catch (Exception e) {
+      log.error("Search outbox relay failed: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Write pending deletions and product changes to the search index.
+   *
+   * @return number of products synced
+   */
+  public int drain() {
+    int synced = applyDeletions();
+
+    List<Product> batch;
+    do {
+      batch = findPending();
+      if (batch.isEmpty()) {
+        break;
+      }
+      synced += syncBatch(batch);
+    } while (batch.size() == batchSize && acquireLease() && !reindexRunning());
+
+    do {
+      if (reindexRunning()) {
+        break;
+      }
+      batch = findPartialPending();
+      if (batch.isEmpty()) {
+        break;
+      }
+      synced += syncPartialBatch(batch);
+    } while (batch.size() == batchSize && acquireLease() && !reindexRunning());
+
+    if (synced > 0) {
+      searchResultCache.invalidate();
+    }
+    return synced;
+  }
+
+
+  private List<Product> findPending() {
+    Query query = Query.query(new Criteria().andOperator(
+            Criteria.where("searchSyncRequestedAt").exists(true),
+            new Criteria().orOperator(
+                Criteria.where("searchSyncRetryAt").is(null),
+                Criteria.where("searchSyncRetryAt").lte(LocalDateTime.now()))))
+        .with(Sort.by("searchSyncRequestedAt"))
+        .limit(batchSize);
+    return mongoTemplate.find(query, Product.class);
+  }
+
+  private int syncBatch(List<Product> products) {
+    Set<String> categoryIds = products.stream()
+        .map(Product::getCategoryId)
+        .filter(id -> id != null)
+        .collect(Collectors.toSet());
+    Map<String, Category> categories = categoryRepository.findAllById(categoryIds).stream()
+        .collect(Collectors.toMap(Category::getId, Function.identity()));
+
+    List<IndexQuery> queries = new ArrayList<>();
+    List<String> inactive = new ArrayList<>();
+    for (Product product : products) {
+      if (product.isActive()) {
+        ProductDocument document = productSyncService.convertToDocument(
+            product, product.getCategoryId() != null ? categories.get(product.getCategoryId()) : null);
+        queries.add(new IndexQueryBuilder().withId(document.getId()).withObject(document).build());
+      } else {
+        inactive.add(product.getId());
+      }
+    }
+
+    Set<String> failed = new HashSet<>();
+    if (!queries.isEmpty()) {
+      try {
+        elasticsearchOperations.bulkIndex(queries, ProductDocument.class);
+      } catch (BulkFailureException e) {
+        failed.addAll(e.getFailedDocuments().keySet());
+      } catch (Exception e) {
+        log.warn("Bulk index of {} products failed: {}", queries.size(), e.getMessage());
+        queries.forEach(query -> failed.add(query.getId()));
+      }
+    }
+    for (String productId : inactive) {
+      try {
+        elasticsearchOperations.delete(productId, ProductDocument.class);
+      } catch (Exception e) {
+        failed.add(productId);
+      }
+    }
+
+    BulkOperations updates = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+    for (Product product : products) {
+      Query unchanged = Query.query(Criteria.where("id").is(product.getId())
+          .and("searchSyncToken").is(product.getSearchSyncToken()));
+      if (failed.contains(product.getId())) {
+        int attempts = product.getSearchSyncAttempts() != null ? product.getSearchSyncAttempts() : 0;
+        updates.updateOne(unchanged, new Update()
+            .set("searchSyncAttempts", attempts + 1)
+            .set("searchSyncRetryAt", LocalDateTime.now().plus(backoff(attempts))));
+      } else {
+        updates.updateOne(unchanged, new Update()
+            .unset("searchSyncRequestedAt")
+            .unset("searchPartialSyncRequestedAt")
+            .unset("searchSyncToken")
+            .unset("searchSyncAttempts")
+            .unset("searchSyncRetryAt"));
+      }
+    }
+    updates.execute();
+
+    similarProductsService.markStale(products.stream()
+        .map(Product::getId)
+        .filter(id -> !failed.contains(id))
+        .toList());
+
+    int synced = products.size() - failed.size();
+    meterRegistry.counter("shopzone.search.outbox.synced").increment(synced);
+    if (!failed.isEmpty()) {
+      meterRegistry.counter("shopzone.search.outbox.failed").increment(failed.size());
+      log.warn("Search outbox: {} of {} products failed, will retry", failed.size(), products.size());
+    }
+    log.debug("Search outbox synced {} products", synced);
+    return synced;
+  }
+
+  private List<Product> findPartialPending() {
+    Query query = Query.query(Criteria.where("searchPartialSyncRequestedAt").exists(true)
+            .and("searchSyncRequestedAt").exists(false))
+        .with(Sort.by("searchPartialSyncRequestedAt"))
+        .limit(batchSize);
+    query.fields().include("stock", "averageRating", "reviewCount", "popularity", "active", "searchSyncToken");
+    return mongoTemplate.find(query, Product.class);
+  }
+
+  /**
+   * Send the current stock, rating and popularity of each product as a partial update. Products
+   * missing from the index are moved to a full sync.
+   */
+  private int syncPartialBatch(List<Product> products) {
+    List<UpdateQuery> queries = products.stream()
+        .filter(Product::isActive)
+        .map(product -> UpdateQuery.builder(product.getId())
+            .withDocument(org.springframework.data.elasticsearch.core.document.Document.from(Map.of(
+                "stock", product.getStock() != null ? product.getStock() : 0,
+                "averageRating", product.getAverageRating() != null ? product.getAverageRating() : 0.0,
+                "reviewCount", product.getReviewCount() != null ? product.getReviewCount() : 0,
+                "popularity", product.getPopularity() != null ? product.getPopularity() : 0.0)))
+            .build())
+        .toList();
+
+    Set<String> failed = new HashSet<>();
+    if (!queries.isEmpty()) {
+      try {
+        elasticsearchOperations.bulkUpdate(queries, ProductDocument.class);
+      } catch (BulkFailureException e) {
+        failed.addAll(e.getFailedDocuments().keySet());
+      } catch (Exception e) {
+        log.warn("Bulk update of {} products failed: {}", queries.size(), e.getMessage());
+        queries.forEach(query -> failed.add(query.getId()));
+      }
+    }
+
+    BulkOperations updates = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+    for (Product product : products) {
+      Query unchanged = Query.query(Criteria.where("id").is(product.getId())
+          .and("searchSyncToken").is(product.getSearchSyncToken()));
+      if (failed.contains(product.getId())) {
+        updates.updateOne(unchanged, new Update().set("searchSyncRequestedAt", LocalDateTime.now()));
+      } else {
+        updates.updateOne(unchanged, new Update()
+            .unset("searchPartialSyncRequestedAt")
+            .unset("searchSyncToken"));
+      }
+    }
+    updates.execute();
+
+    if (!failed.isEmpty()) {
+      log.debug("Search outbox: {} partial updates moved to full sync", failed.size());
+    }
+    int synced = products.size() - failed.size();
+    meterRegistry.counter("shopzone.search.outbox.partial").increment(synced);
+    return synced;
+  }
+
+  private int applyDeletions() {
+    List<Document> tombstones = mongoTemplate.find(new Query().limit(batchSize), Document.class, DELETIONS_COLLECTION);
+    int removed = 0;
+
+    for (Document tombstone : tombstones) {
+      String productId = tombstone.getString("_id");
+      Query byId = Query.query(Criteria.where("_id").is(productId));
+      try {
+        if (productRepository.existsById(productId)) {
+          // The delete has not happened yet, or failed and will not
+          LocalDateTime deletedAt = LocalDateTime.ofInstant(
+              tombstone.getDate("deletedAt").toInstant(), ZoneId.systemDefault());
+          if (deletedAt.isBefore(LocalDateTime.now().minus(ABANDONED_DELETION_AGE))) {
+            mongoTemplate.remove(byId, DELETIONS_COLLECTION);
+          }
+          continue;
+        }
+        elasticsearchOperations.delete(productId, ProductDocument.class);
+        similarProductsService.onProductDeleted(productId);
+        mongoTemplate.remove(byId, DELETIONS_COLLECTION);
+        removed++;
+      } catch (Exception e) {
+        log.warn("Failed to remove product {} from search index, will retry: {}", productId, e.getMessage());
+      }
+    }
+    return removed;
+  }
+
+  Duration backoff(int attempts) {
+    Duration delay = retryBackoff.multipliedBy(1L << Math.min(attempts, 16));
+    return delay.compareTo(maxRetryBackoff) > 0 ? maxRetryBackoff : delay;
+  }
+
+  private boolean acquireLease() {
+    LocalDateTime now = LocalDateTime.now();
+    Query query = Query.query(Criteria.where("_id").is(LEASE_ID)
+        .orOperator(Criteria.where("expiresAt").lt(now), Criteria.where("owner").is(instanceId)));
+    Update update = new Update()
+        .set("owner", instanceId)
+        .set("expiresAt", now.plus(LEASE_DURATION));
+    try {
+      mongoTemplate.upsert(query, update, LEASE_COLLECTION);
+      return true;
+    } catch (DuplicateKeyException e) {
+      // Held by another instance
+      return false;
+    }
+  }
+
+  private boolean relayLeaseHeld() {
+    return mongoTemplate.exists(Query.query(Criteria.where("_id").is(LEASE_ID)
+        .and("expiresAt").gt(LocalDateTime.now())), LEASE_COLLECTION);
+  }
+
+  private Query activeReindexLease() {
+    return Query.query(Criteria.where("_id").is(REINDEX_LEASE_ID)
+        .and("expiresAt").gt(LocalDateTime.now()));
+  }
+
+  private boolean reindexRunning() {
+    return mongoTemplate.exists(activeReindexLease(), LEASE_COLLECTION);
+  }
+
+  /**
+   * Only called by the lease holder between polls, so no batch is in flight.
+   */
+  private void acknowledgeReindexPause() {
+    mongoTemplate.updateFirst(activeReindexLease(), new Update().set("relayPaused", true), LEASE_COLLECTION);
+  }
+
+  private void updateMetrics() {
+    Query pending = Query.query(new Criteria().orOperator(
+        Criteria.where("searchSyncRequestedAt").exists(true),
+        Criteria.where("searchPartialSyncRequestedAt").exists(true)));
+    pendingCount.set(mongoTemplate.count(pending, Product.class));
+
+    lagMillis.set(Math.max(oldestPendingAge("searchSyncRequestedAt"),
+        oldestPendingAge("searchPartialSyncRequestedAt")));
+  }
+
+  private long oldestPendingAge(String field) {
+    Query oldest = Query.query(Criteria.where(field).exists(true))
+        .with(Sort.by(field))
+        .limit(1);
+    oldest.fields().include(field);
+    Document document = mongoTemplate.findOne(oldest, Document.class, "products");
+    if (document == null || document.getDate(field) == null) {
+      return 0;
+    }
+    return System.currentTimeMillis() - document.getDate(field).getTime();
+  }
+}
@@ -1,19 +1,40 @@
 package com.shopzone.service;
 
 import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import co.elastic.clients.elasticsearch._types.aggregations.AggregationRange;
 import co.elastic.clients.elasticsearch._types.query_dsl.BoolQuery;
+import co.elastic.clients.elasticsearch._types.query_dsl.FieldValueFactorModifier;
+import co.elastic.clients.elasticsearch._types.query_dsl.FunctionBoostMode;
+import co.elastic.clients.elasticsearch._types.query_dsl.Operator;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.elasticsearch.core.search.Suggester;
+import co.elastic.clients.json.JsonData;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.shopzone.dto.request.ProductSearchRequest;
 import com.shopzone.dto.response.AutocompleteResponse;
 import com.shopzone.dto.response.SearchResultResponse;
+import com.shopzone.exception.BadRequestException;
 import com.shopzone.model.elasticsearch.ProductDocument;
-import com.shopzone.repository.elasticsearch.ProductSearchRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.NonTransientDataAccessResourceException;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.UncategorizedElasticsearchException;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregation;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregations;
 import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.client.elc.NativeQueryBuilder;
 import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
 import org.springframework.data.elasticsearch.core.SearchHit;
 import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilter;
+import org.springframework.data.elasticsearch.core.suggest.response.CompletionSuggestion;
+import org.springframework.data.elasticsearch.core.suggest.response.Suggest;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
@@ -24,18 +45,119 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ProductSearchService {
 
-  private final ProductSearchRepository productSearchRepository;
-  private final ElasticsearchOperations elasticsearchOperations;
+  private static final String SUGGESTER = "product-suggest";
+
+  /** Elasticsearch's default index.max_result_window. */
+  private static final int MAX_RESULT_WINDOW = 10_000;
+  private static final String FIRST_CURSOR = "*";
+  /** Sort keys of every search: the requested sort plus {@link #ID_TIEBREAKER}. */
+  private static final int CURSOR_SORT_KEYS = 2;
+  private static final ObjectMapper CURSOR_MAPPER = new ObjectMapper();
+
+  /** Unique last sort key, so search_after never skips or repeats products with equal sort values. */
+  private static final co.elastic.clients.elasticsearch._types.SortOptions ID_TIEBREAKER =
+      co.elastic.clients.elasticsearch._types.SortOptions.of(s -> s.field(f -> f.field("id").order(SortOrder.Asc)));
+
+  private static final String FACET_BRAND = "brand";
+  private static final String FACET_CATEGORY = "category";
+  private static final String FACET_PRICE = "price";
+  private static final String FACET_RATING = "rating";
+  private static final String FACET_IN_STOCK = "inStock";
+  private static final List<String> FACETS =
+      List.of(FACET_CATEGORY, FACET_BRAND, FACET_PRICE, FACET_RATING, FACET_IN_STOCK);
+  private static final String FACET_VALUES = "values";
+  private static final String FACET_LABEL = "label";
+  private static final int FACET_SIZE = 20;
+
+  private static final List<AggregationRange> PRICE_RANGES = List.of(
+      AggregationRange.of(r -> r.key("0-25").to("25")),
+      AggregationRange.of(r -> r.key("25-50").from("25").to("50")),
+      AggregationRange.of(r -> r.key("50-100").from("50").to("100")),
+      AggregationRange.of(r -> r.key("100-200").from("100").to("200")),
+      AggregationRange.of(r -> r.key("200-500").from("200").to("500")),
+      AggregationRange.of(r -> r.key("500+").from("500")));
+
+  /** Overlapping "N stars and up" buckets, matching the minRating filter. */
+  private static final List<AggregationRange> RATING_RANGES = List.of(
+      AggregationRange.of(r -> r.key("4").from("4")),
+      AggregationRange.of(r -> r.key("3").from("3")),
+      AggregationRange.of(r -> r.key("2").from("2")),
+      AggregationRange.of(r -> r.key("1").from("1")));
+  private static final String[] SUGGESTION_FIELDS = {"id", "name", "slug", "price", "images"};
 
+  private final ElasticsearchOperations elasticsearchOperations;
+  private final SearchResultCache searchResultCache;
+  private final AutocompleteCache autocompleteCache;
+  private final SearchCircuitBreaker searchCircuitBreaker;
+  private final ProductSearchFallback productSearchFallback;
+  private final SearchQueryMetrics searchQueryMetrics;
+  private final MeterRegistry meterRegistry;
+
+  @Value("${shopzone.search.popularity.boost-factor:1.0}")
+  private double popularityBoostFactor;
+
+  /**
+   * Search with either page/size (from/size, limited to the first
+   * {@value #MAX_RESULT_WINDOW} results) or, when a cursor is given, search_after paging:
+   * pass cursor "*" for the first page and the returned nextCursor for the following ones.
+   * When Elasticsearch fails or the search circuit is open, results come from
+   * {@link ProductSearchFallback} instead.
+   */
   public SearchResultResponse search(ProductSearchRequest request) {
     long startTime = System.currentTimeMillis();
 
-    NativeQuery query = buildSearchQuery(request);
-
-    SearchHits<ProductDocument> searchHits = elasticsearchOperations.search(
-        query,
-        ProductDocument.class
-    );
+    boolean cursorMode = request.getCursor() != null && !request.getCursor().isBlank();
+    if (!cursorMode && (long) (request.getPage() + 1) * request.getSize() > MAX_RESULT_WINDOW) {
+      throw new BadRequestException("Page too deep for page/size paging, use cursor paging instead");
+    }
+    // Decoded up front so a bad cursor is a 400 on every path, including the fallback
+    List<Object> searchAfter = cursorMode && !FIRST_CURSOR.equals(request.getCursor())
+        ? decodeCursor(request.getCursor()) : null;
+
+    String cacheKey = searchResultCache.key(request);
+    Optional<SearchResultResponse> cached = searchResultCache.get(cacheKey);
+    if (cached.isPresent()) {
+      SearchResultResponse hit = cached.get();
+      return SearchResultResponse.builder()
+          .products(hit.getProducts())
+          .totalHits(hit.getTotalHits())
+          .totalPages(hit.getTotalPages())
+          .currentPage(hit.getCurrentPage())
+          .pageSize(hit.getPageSize())
+          .query(request.getQuery())
+          .facets(hit.getFacets())
+          .nextCursor(hit.getNextCursor())
+          .searchTimeMs(System.currentTimeMillis() - startTime)
+          .cacheHit(true)
+          .cacheSavedTimeMs(hit.getSearchTimeMs())
+          .build();
+    }
+    if (!searchCircuitBreaker.allowRequest()) {
+      return searchFallback(request);
+    }
+    long generation = searchResultCache.currentGeneration();
+
+    NativeQuery query = buildSearchQuery(request, searchAfter);
+
+    SearchHits<ProductDocument> searchHits;
+    long esStart = System.nanoTime();
+    try {
+      searchHits = elasticsearchOperations.search(
+          query,
+          ProductDocument.class
+      );
+      long roundTrip = System.nanoTime() - esStart;
+      searchCircuitBreaker.recordSuccess(roundTrip);
+      searchQueryMetrics.record(searchQueryMetrics.searchShape(request), query, roundTrip,
+          searchHits.getExecutionDuration());
+    } catch (NonTransientDataAccessResourceException | UncategorizedElasticsearchException e) {
+      if (isRejectedRequest(e)) {
+        throw new BadRequestException("Invalid search request");
+      }
+      log.warn("Elasticsearch search failed, serving from MongoDB: {}", e.getMessage());
+      searchCircuitBreaker.recordFailure(e.getMessage());
+      return searchFallback(request);
+    }
 
     List<SearchResultResponse.ProductHit> products = searchHits.getSearchHits().stream()
         .map(hit -> SearchResultResponse.ProductHit.from(hit.getContent(), hit.getScore()))
@@ -44,19 +166,34 @@ public class ProductSearchService {
     long totalHits = searchHits.getTotalHits();
     int totalPages = (int) Math.ceil((double) totalHits / request.getSize());
 
+    String nextCursor = null;
+    if (cursorMode && products.size() == request.getSize()) {
+      nextCursor = encodeCursor(searchHits.getSearchHit(products.size() - 1).getSortValues());
+    }
+
     long searchTime = System.currentTimeMillis() - startTime;
 
-    return SearchResultResponse.builder()
+    SearchResultResponse response = SearchResultResponse.builder()
         .products(products)
         .totalHits(totalHits)
         .totalPages(totalPages)
         .currentPage(request.getPage())
         .pageSize(request.getSize())
         .query(request.getQuery())
+        .facets(readFacets(searchHits))
+        .nextCursor(nextCursor)
         .searchTimeMs(searchTime)
         .build();
+    searchResultCache.put(cacheKey, response, generation);
+    return response;
   }
 
+  /**
+   * Prefix suggestions from the nameSuggest completion field (product names and brands,
+   * weighted by stock). Suggestions are cached per prefix, so most keystrokes are
+   * answered without a request to Elasticsearch. While the search circuit is open,
+   * uncached prefixes are matched against product names in MongoDB.
+   */
   public AutocompleteResponse autocomplete(String prefix, int limit) {
     long startTime = System.currentTimeMillis();
 
@@ -68,218 +205,392 @@ public class ProductSearchService {
           .build();
     }
 
-    String cleanPrefix = prefix.trim().toLowerCase();
-
-    NativeQuery query = NativeQuery.builder()
-        .withQuery(q -> q
-            .bool(b -> b
-                .should(s -> s
-                    .prefix(p -> p
-                        .field("name")
-                        .value(cleanPrefix)
-                        .boost(3.0f)
-                    )
-                )
-                .should(s -> s
-                    .prefix(p -> p
-                        .field("brand")
-                        .value(cleanPrefix)
-                        .boost(2.0f)
-                    )
-                )
-                .should(s -> s
-                    .match(m -> m
-                        .field("name")
-                        .query(cleanPrefix)
-                        .fuzziness("AUTO")
-                    )
-                )
-                .minimumShouldMatch("1")
-            )
-        )
-        .withPageable(PageRequest.of(0, limit))
-        .build();
-
-    SearchHits<ProductDocument> hits = elasticsearchOperations.search(
-        query,
-        ProductDocument.class
-    );
-
-    List<AutocompleteResponse.Suggestion> suggestions = hits.getSearchHits().stream()
-        .map(hit -> {
-          ProductDocument doc = hit.getContent();
-          String imageUrl = doc.getImages() != null && !doc.getImages().isEmpty()
-              ? doc.getImages().get(0) : null;
-
-          return AutocompleteResponse.Suggestion.builder()
-              .text(doc.getName())
-              .type("product")
-              .id(doc.getId())
-              .slug(doc.getSlug())
-              .price(doc.getPrice())
-              .imageUrl(imageUrl)
-              .score((double) hit.getScore())
-              .build();
-        })
-        .collect(Collectors.toList());
+    String cleanPrefix = prefix.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+
+    Optional<List<AutocompleteResponse.Suggestion>> cached = autocompleteCache.get(cleanPrefix);
+    List<AutocompleteResponse.Suggestion> suggestions;
+    if (cached.isPresent()) {
+      suggestions = cached.get();
+    } else if (!searchCircuitBreaker.allowRequest()) {
+      return autocompleteFallback(prefix, limit);
+    } else {
+      try {
+        suggestions = fetchSuggestions(cleanPrefix);
+      } catch (NonTransientDataAccessResourceException | UncategorizedElasticsearchException e) {
+        if (isRejectedRequest(e)) {
+          throw new BadRequestException("Invalid autocomplete request");
+        }
+        log.warn("Elasticsearch autocomplete failed, serving from MongoDB: {}", e.getMessage());
+        searchCircuitBreaker.recordFailure(e.getMessage());
+        return autocompleteFallback(prefix, limit);
+      }
+      autocompleteCache.put(cleanPrefix, suggestions);
+    }
 
     long searchTime = System.currentTimeMillis() - startTime;
 
     return AutocompleteResponse.builder()
         .query(prefix)
-        .suggestions(suggestions)
+        .suggestions(suggestions.size() > limit ? suggestions.subList(0, limit) : suggestions)
         .searchTimeMs(searchTime)
         .build();
   }
 
-  public List<ProductDocument> findSimilarProducts(String productId, int limit) {
-    Optional<ProductDocument> productOpt = productSearchRepository.findById(productId);
-    if (productOpt.isEmpty()) {
-      return Collections.emptyList();
+  /**
+   * Only Elasticsearch being unreachable or timing out (resource failures, which include a
+   * missing index), overloaded (429) or failing (5xx) is served from the fallback and
+   * counted by the circuit breaker. Any other 4xx is the
+   * request being rejected, usually over client input, and becomes a 400 without touching
+   * the breaker; other exceptions propagate unchanged.
+   */
+  private static boolean isRejectedRequest(RuntimeException e) {
+    if (!(e instanceof UncategorizedElasticsearchException uncategorized)
+        || uncategorized.getStatusCode() == null) {
+      return false;
     }
+    int status = uncategorized.getStatusCode();
+    return status >= 400 && status < 500 && status != 429;
+  }
 
-    ProductDocument product = productOpt.get();
+  /**
+   * Fallback results are not cached, so search goes back to Elasticsearch as soon as the
+   * circuit closes.
+   */
+  private SearchResultResponse searchFallback(ProductSearchRequest request) {
+    meterRegistry.counter("shopzone.search.fallback", "operation", "search").increment();
+    return productSearchFallback.search(request);
+  }
 
+  private AutocompleteResponse autocompleteFallback(String prefix, int limit) {
+    meterRegistry.counter("shopzone.search.fallback", "operation", "autocomplete").increment();
+    return productSearchFallback.autocomplete(prefix, limit);
+  }
+
+  private List<AutocompleteResponse.Suggestion> fetchSuggestions(String prefix) {
     NativeQuery query = NativeQuery.builder()
-        .withQuery(q -> q
-            .bool(b -> {
-              BoolQuery.Builder builder = b
-                  .mustNot(mn -> mn
-                      .term(t -> t.field("_id").value(productId))
-                  )
-                  .must(m -> m
-                      .term(t -> t.field("active").value(true))
-                  );
-
-              if (product.getCategoryId() != null) {
-                builder.should(s -> s
-                    .term(t -> t
-                        .field("categoryId")
-                        .value(product.getCategoryId())
-                        .boost(2.0f)
-                    )
-                );
-              }
-
-              if (product.getBrand() != null) {
-                builder.should(s -> s
-                    .term(t -> t
-                        .field("brand")
-                        .value(product.getBrand())
-                        .boost(1.5f)
-                    )
-                );
-              }
-
-              if (product.getPrice() != null) {
-                double minPrice = product.getPrice() * 0.7;
-                double maxPrice = product.getPrice() * 1.3;
-                builder.should(s -> s
-                    .range(r -> r
-                        .field("price")
-                        .gte(co.elastic.clients.json.JsonData.of(minPrice))
-                        .lte(co.elastic.clients.json.JsonData.of(maxPrice))
-                    )
-                );
-              }
-
-              return builder.minimumShouldMatch("1");
-            })
-        )
-        .withPageable(PageRequest.of(0, limit))
+        .withSuggester(Suggester.of(s -> s
+            .suggesters(SUGGESTER, fs -> fs
+                .prefix(prefix)
+                .completion(c -> c
+                    .field("nameSuggest")
+                    .size(AutocompleteCache.MAX_SUGGESTIONS)
+                    .skipDuplicates(true)
+                    .fuzzy(f -> f.fuzziness("AUTO").minLength(4))
+                )
+            )
+        ))
+        .withSourceFilter(new FetchSourceFilter(SUGGESTION_FIELDS, null))
+        .withMaxResults(0)
         .build();
 
+    long esStart = System.nanoTime();
     SearchHits<ProductDocument> hits = elasticsearchOperations.search(
         query,
         ProductDocument.class
     );
+    long roundTrip = System.nanoTime() - esStart;
+    searchCircuitBreaker.recordSuccess(roundTrip);
+    searchQueryMetrics.record(searchQueryMetrics.autocompleteShape(), query, roundTrip, hits.getExecutionDuration());
 
-    return hits.getSearchHits().stream()
-        .map(SearchHit::getContent)
-        .collect(Collectors.toList());
+    Suggest suggest = hits.getSuggest();
+    if (suggest == null || suggest.getSuggestion(SUGGESTER) == null) {
+      return Collections.emptyList();
+    }
+
+    List<AutocompleteResponse.Suggestion> suggestions = new ArrayList<>();
+    for (var entry : suggest.getSuggestion(SUGGESTER).getEntries()) {
+      for (var option : entry.getOptions()) {
+        if (!(option instanceof CompletionSuggestion.Entry.Option<?> completion)
+            || completion.getSearchHit() == null
+            || !(completion.getSearchHit().getContent() instanceof ProductDocument doc)) {
+          continue;
+        }
+
+        String imageUrl = doc.getImages() != null && !doc.getImages().isEmpty()
+            ? doc.getImages().get(0) : null;
+
+        suggestions.add(AutocompleteResponse.Suggestion.builder()
+            .text(option.getText())
+            .type(option.getText().equals(doc.getName()) ? "product" : "brand")
+            .id(doc.getId())
+            .slug(doc.getSlug())
+            .price(doc.getPrice())
+            .imageUrl(imageUrl)
+            .score(option.getScore() != null ? option.getScore().doubleValue() : null)
+            .build());
+      }
+    }
+    return suggestions;
   }
 
-  private NativeQuery buildSearchQuery(ProductSearchRequest request) {
-    return NativeQuery.builder()
-        .withQuery(q -> q
-            .bool(b -> {
-              BoolQuery.Builder builder = b;
-
-              if (request.getQuery() != null && !request.getQuery().isBlank()) {
-                builder.must(m -> m
-                    .multiMatch(mm -> mm
-                        .query(request.getQuery())
-                        .fields("name^3", "description^2", "brand^2", "tags")
-                        .fuzziness("AUTO")
-                        .prefixLength(2)
-                    )
-                );
-              }
+  /**
+   * Text query plus filters. With facets requested, the facet filters (category, brand,
+   * price, rating, in stock) move to post_filter so the aggregations still see the other
+   * options, and each facet is counted with every filter except its own.
+   */
+  private NativeQuery buildSearchQuery(ProductSearchRequest request, List<Object> searchAfter) {
+    Map<String, Query> facetFilters = buildFacetFilters(request);
+    boolean withFacets = Boolean.TRUE.equals(request.getIncludeFacets());
+
+    Query matchQuery = Query.of(q -> q
+        .bool(b -> {
+          BoolQuery.Builder builder = b;
+
+          if (request.getQuery() != null && !request.getQuery().isBlank()) {
+            builder.must(m -> m
+                .multiMatch(mm -> mm
+                    .query(request.getQuery())
+                    .fields("name^3", "description^2", "brand^2", "tags")
+                    .fuzziness("AUTO")
+                    .prefixLength(2)
+                )
+            );
+          }
+
+          builder.filter(f -> f
+              .term(t -> t.field("active").value(true))
+          );
 
+          if (request.getTags() != null && !request.getTags().isEmpty()) {
+            for (String tag : request.getTags()) {
               builder.filter(f -> f
-                  .term(t -> t.field("active").value(true))
+                  .term(t -> t.field("tags").value(tag))
               );
+            }
+          }
+
+          if (!withFacets) {
+            facetFilters.values().forEach(builder::filter);
+          }
+
+          return builder;
+        })
+    );
+
+    NativeQueryBuilder queryBuilder = NativeQuery.builder()
+        .withQuery(isRelevanceSort(request) ? boostByPopularity(matchQuery) : matchQuery)
+        .withSort(buildSort(request), ID_TIEBREAKER);
+
+    if (request.getCursor() != null && !request.getCursor().isBlank()) {
+      queryBuilder.withPageable(PageRequest.of(0, request.getSize()));
+      if (searchAfter != null) {
+        queryBuilder.withSearchAfter(searchAfter);
+      }
+    } else {
+      queryBuilder.withPageable(PageRequest.of(request.getPage(), request.getSize()));
+    }
 
-              if (request.getMinPrice() != null || request.getMaxPrice() != null) {
-                builder.filter(f -> f
-                    .range(r -> {
-                      var range = r.field("price");
-                      if (request.getMinPrice() != null) {
-                        range.gte(co.elastic.clients.json.JsonData.of(request.getMinPrice()));
-                      }
-                      if (request.getMaxPrice() != null) {
-                        range.lte(co.elastic.clients.json.JsonData.of(request.getMaxPrice()));
-                      }
-                      return range;
-                    })
-                );
-              }
-
-              if (request.getCategoryId() != null && !request.getCategoryId().isBlank()) {
-                builder.filter(f -> f
-                    .term(t -> t.field("categoryId").value(request.getCategoryId()))
-                );
-              }
-
-              if (request.getBrand() != null && !request.getBrand().isBlank()) {
-                builder.filter(f -> f
-                    .wildcard(w -> w
-                        .field("brand")
-                        .wildcard("*" + request.getBrand() + "*")
-                        .caseInsensitive(true)
-                    )
-                );
-              }
-
-              if (request.getMinRating() != null) {
-                builder.filter(f -> f
-                    .range(r -> r
-                        .field("averageRating")
-                        .gte(co.elastic.clients.json.JsonData.of(request.getMinRating()))
-                    )
-                );
-              }
-
-              if (Boolean.TRUE.equals(request.getInStock())) {
-                builder.filter(f -> f
-                    .range(r -> r.field("stock").gt(co.elastic.clients.json.JsonData.of(0)))
-                );
-              }
-
-              if (request.getTags() != null && !request.getTags().isEmpty()) {
-                for (String tag : request.getTags()) {
-                  builder.filter(f -> f
-                      .term(t -> t.field("tags").value(tag))
-                  );
-                }
-              }
-
-              return builder;
-            })
+    if (withFacets) {
+      if (!facetFilters.isEmpty()) {
+        queryBuilder.withFilter(allOf(facetFilters.values()));
+      }
+      addFacetAggregations(queryBuilder, facetFilters);
+    }
+
+    return queryBuilder.build();
+  }
+
+  /**
+   * Relevance plus log1p(factor * popularity), read from doc values while scoring so it
+   * needs no extra lookups. Added rather than multiplied, so products without sales keep
+   * their text score; without a text query this ranks purely by popularity.
+   */
+  private Query boostByPopularity(Query query) {
+    return Query.of(q -> q
+        .functionScore(fs -> fs
+            .query(query)
+            .functions(f -> f
+                .fieldValueFactor(v -> v
+                    .field("popularity")
+                    .factor(popularityBoostFactor)
+                    .modifier(FieldValueFactorModifier.Log1p)
+                    .missing(0.0)
+                )
+            )
+            .boostMode(FunctionBoostMode.Sum)
         )
-        .withSort(buildSort(request))
-        .withPageable(PageRequest.of(request.getPage(), request.getSize()))
-        .build();
+    );
+  }
+
+  private static boolean isRelevanceSort(ProductSearchRequest request) {
+    return !List.of("price", "rating", "newest", "name").contains(request.getSortBy());
+  }
+
+  private Map<String, Query> buildFacetFilters(ProductSearchRequest request) {
+    Map<String, Query> filters = new LinkedHashMap<>();
+
+    if (request.getCategoryId() != null && !request.getCategoryId().isBlank()) {
+      filters.put(FACET_CATEGORY, Query.of(f -> f
+          .term(t -> t.field("categoryId").value(request.getCategoryId()))
+      ));
+    }
+
+    if (request.getBrand() != null && !request.getBrand().isBlank()) {
+      filters.put(FACET_BRAND, Query.of(f -> f
+          .bool(bb -> bb
+              .should(sh -> sh
+                  .term(t -> t.field("brand.normalized").value(request.getBrand()))
+              )
+              .should(sh -> sh
+                  .match(m -> m
+                      .field("brand.ngram")
+                      .query(request.getBrand())
+                      .operator(Operator.And)
+                  )
+              )
+              .minimumShouldMatch("1")
+          )
+      ));
+    }
+
+    if (request.getMinPrice() != null || request.getMaxPrice() != null) {
+      filters.put(FACET_PRICE, Query.of(f -> f
+          .range(r -> {
+            var range = r.field("price");
+            if (request.getMinPrice() != null) {
+              range.gte(JsonData.of(request.getMinPrice()));
+            }
+            if (request.getMaxPrice() != null) {
+              range.lte(JsonData.of(request.getMaxPrice()));
+            }
+            return range;
+          })
+      ));
+    }
+
+    if (request.getMinRating() != null) {
+      filters.put(FACET_RATING, Query.of(f -> f
+          .range(r -> r
+              .field("averageRating")
+              .gte(JsonData.of(request.getMinRating()))
+          )
+      ));
+    }
+
+    if (Boolean.TRUE.equals(request.getInStock())) {
+      filters.put(FACET_IN_STOCK, Query.of(f -> f
+          .range(r -> r.field("stock").gt(JsonData.of(0)))
+      ));
+    }
+
+    return filters;
+  }
+
+  private void addFacetAggregations(NativeQueryBuilder queryBuilder, Map<String, Query> facetFilters) {
+    queryBuilder.withAggregation(FACET_BRAND, facet(facetFilters, FACET_BRAND, Aggregation.of(a -> a
+        .terms(t -> t.field("brand").size(FACET_SIZE)))));
+
+    queryBuilder.withAggregation(FACET_CATEGORY, facet(facetFilters, FACET_CATEGORY, Aggregation.of(a -> a
+        .terms(t -> t.field("categoryId").size(FACET_SIZE))
+        .aggregations(FACET_LABEL, l -> l.terms(t -> t.field("categoryName").size(1))))));
+
+    queryBuilder.withAggregation(FACET_PRICE, facet(facetFilters, FACET_PRICE, Aggregation.of(a -> a
+        .range(r -> r.field("price").ranges(PRICE_RANGES)))));
+
+    queryBuilder.withAggregation(FACET_RATING, facet(facetFilters, FACET_RATING, Aggregation.of(a -> a
+        .range(r -> r.field("averageRating").ranges(RATING_RANGES)))));
+
+    queryBuilder.withAggregation(FACET_IN_STOCK, facet(facetFilters, FACET_IN_STOCK, Aggregation.of(a -> a
+        .filter(f -> f.range(r -> r.field("stock").gt(JsonData.of(0)))))));
+  }
+
+  /**
+   * Wrap a facet aggregation in a filter with all facet filters except the facet's own.
+   */
+  private static Aggregation facet(Map<String, Query> facetFilters, String name, Aggregation values) {
+    List<Query> others = facetFilters.entrySet().stream()
+        .filter(entry -> !entry.getKey().equals(name))
+        .map(Map.Entry::getValue)
+        .toList();
+    return Aggregation.of(a -> a
+        .filter(allOf(others))
+        .aggregations(FACET_VALUES, values));
+  }
+
+  private static Query allOf(Collection<Query> filters) {
+    if (filters.isEmpty()) {
+      return Query.of(q -> q.matchAll(m -> m));
+    }
+    return Query.of(q -> q.bool(b -> b.filter(new ArrayList<>(filters))));
+  }
+
+  private static Map<String, List<SearchResultResponse.FacetValue>> readFacets(SearchHits<?> searchHits) {
+    if (!(searchHits.getAggregations() instanceof ElasticsearchAggregations aggregations)) {
+      return null;
+    }
+
+    Map<String, List<SearchResultResponse.FacetValue>> facets = new LinkedHashMap<>();
+    for (String name : FACETS) {
+      ElasticsearchAggregation aggregation = aggregations.aggregationsAsMap().get(name);
+      if (aggregation == null) {
+        continue;
+      }
+      Aggregate values = aggregation.aggregation().getAggregate().filter().aggregations().get(FACET_VALUES);
+      facets.put(name, toFacetValues(values));
+    }
+    return facets;
+  }
+
+  private static List<SearchResultResponse.FacetValue> toFacetValues(Aggregate values) {
+    if (values.isSterms()) {
+      return values.sterms().buckets().array().stream()
+          .map(bucket -> {
+            Aggregate label = bucket.aggregations().get(FACET_LABEL);
+            String labelValue = label != null && !label.sterms().buckets().array().isEmpty()
+                ? label.sterms().buckets().array().get(0).key().stringValue() : null;
+            return SearchResultResponse.FacetValue.builder()
+                .value(bucket.key().stringValue())
+                .label(labelValue)
+                .count(bucket.docCount())
+                .build();
+          })
+          .toList();
+    }
+    if (values.isRange()) {
+      return values.range().buckets().array().stream()
+          .map(bucket -> SearchResultResponse.FacetValue.builder()
+              .value(bucket.key())
+              .count(bucket.docCount())
+              .build())
+          .toList();
+    }
+    if (values.isFilter()) {
+      return List.of(SearchResultResponse.FacetValue.builder()
+          .value("true")
+          .count(values.filter().docCount())
+          .build());
+    }
+    return List.of();
+  }
+
+  /**
+   * Cursor: the sort values of the last hit, as URL-safe Base64 JSON.
+   */
+  static String encodeCursor(List<Object> sortValues) {
+    try {
+      return Base64.getUrlEncoder().withoutPadding().encodeToString(CURSOR_MAPPER.writeValueAsBytes(sortValues));
+    } catch (Exception e) {
+      throw new IllegalStateException("Failed to encode search cursor", e);
+    }
+  }
+
+  /**
+   * The inverse of {@link #encodeCursor}. A cursor must hold one scalar per sort key (the
+   * requested sort and the id tiebreaker); anything else would be rejected by
+   * Elasticsearch, so it is refused here as a bad request.
+   */
+  static List<Object> decodeCursor(String cursor) {
+    List<Object> sortValues;
+    try {
+      sortValues = CURSOR_MAPPER.readValue(Base64.getUrlDecoder().decode(cursor), new TypeReference<List<Object>>() {});
+    } catch (Exception e) {
+      throw new BadRequestException("Invalid search cursor");
+    }
+    if (sortValues == null || sortValues.size() != CURSOR_SORT_KEYS
+        || !sortValues.stream().allMatch(value -> value instanceof Number || value instanceof String)) {
+      throw new BadRequestException("Invalid search cursor");
+    }
+    return sortValues;
   }
 
   private co.elastic.clients.elasticsearch._types.SortOptions buildSort(ProductSearchRequest request) {
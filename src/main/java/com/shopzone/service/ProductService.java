@@ -37,7 +37,7 @@ public class ProductService {
   private final CategoryRepository categoryRepository;
   private final CloudinaryService cloudinaryService;
   private final Slugify slugify = Slugify.builder().build();
-  private final ProductSyncService productSyncService;
+  private final ProductSearchOutbox productSearchOutbox;
 
 
   public ProductResponse createProduct(ProductRequest request) {
@@ -83,12 +83,6 @@ public class ProductService {
     Product saved = productRepository.save(product);
     log.info("Product created with ID: {}", saved.getId());
 
-    try {
-      productSyncService.syncProduct(saved);
-    } catch (Exception e) {
-      log.warn("Failed to sync product to Elasticsearch: {}", e.getMessage());
-    }
-
     return buildProductResponse(saved, category.getName());
   }
 
@@ -204,12 +198,6 @@ public class ProductService {
     Product updated = productRepository.save(product);
     log.info("Product updated: {}", updated.getId());
 
-    try {
-      productSyncService.syncProduct(updated);
-    } catch (Exception e) {
-      log.warn("Failed to sync product to Elasticsearch: {}", e.getMessage());
-    }
-
     return buildProductResponse(updated, category.getName());
   }
 
@@ -291,12 +279,6 @@ public class ProductService {
     Product updated = productRepository.save(product);
     log.info("Product partially updated: {}", updated.getId());
 
-    try {
-      productSyncService.syncProduct(updated);
-    } catch (Exception e) {
-      log.warn("Failed to sync product to Elasticsearch: {}", e.getMessage());
-    }
-
     return buildProductResponse(updated, categoryName);
   }
 
@@ -311,14 +293,9 @@ public class ProductService {
       cloudinaryService.deleteImages(product.getImages());
     }
 
+    productSearchOutbox.recordDeletion(id);
     productRepository.delete(product);
 
-    try {
-      productSyncService.removeProduct(id);
-    } catch (Exception e) {
-      log.warn("Failed to remove product from Elasticsearch: {}", e.getMessage());
-    }
-
     log.info("Product deleted: {}", id);
   }
 
@@ -336,12 +313,6 @@ public class ProductService {
 
     Product updated = productRepository.save(product);
 
-    try {
-      productSyncService.syncProduct(updated);
-    } catch (Exception e) {
-      log.warn("Failed to sync product to Elasticsearch: {}", e.getMessage());
-    }
-
     return buildProductResponse(updated, getCategoryName(updated.getCategoryId()));
   }
 
@@ -358,12 +329,6 @@ public class ProductService {
 
     Product updated = productRepository.save(product);
 
-    try {
-      productSyncService.syncProduct(updated);
-    } catch (Exception e) {
-      log.warn("Failed to sync product to Elasticsearch: {}", e.getMessage());
-    }
-
     return buildProductResponse(updated, getCategoryName(updated.getCategoryId()));
   }
 
@@ -385,27 +350,12 @@ public class ProductService {
   @Transactional
   public boolean reduceStock(String productId, int quantity) {
     int result = productRepository.reduceStock(productId, quantity, -quantity);
-
-    if (result > 0) {
-      try {
-        productSyncService.syncProductById(productId);
-      } catch (Exception e) {
-        log.warn("Failed to sync stock change to Elasticsearch: {}", e.getMessage());
-      }
-    }
-
     return result > 0;
   }
 
   @Transactional
   public void restoreStock(String productId, int quantity) {
     productRepository.increaseStock(productId, quantity);
-
-    try {
-      productSyncService.syncProductById(productId);
-    } catch (Exception e) {
-      log.warn("Failed to sync stock change to Elasticsearch: {}", e.getMessage());
-    }
   }
 
   public List<Product> getLowStockProducts(int threshold) {
@@ -421,19 +371,9 @@ public class ProductService {
    * Update product rating (called by ReviewService)
    */
   public void updateProductRating(String productId, Double averageRating, Integer reviewCount) {
-    productRepository.findById(productId).ifPresent(product -> {
-      product.setAverageRating(averageRating != null ? averageRating : 0.0);
-      product.setReviewCount(reviewCount != null ? reviewCount : 0);
-      productRepository.save(product);
-
-      try {
-        productSyncService.updateProductRating(productId, averageRating, reviewCount);
-      } catch (Exception e) {
-        log.warn("Failed to sync rating to Elasticsearch: {}", e.getMessage());
-      }
-
-      log.info("Product {} rating updated: avg={}, count={}", productId, averageRating, reviewCount);
-    });
+    productRepository.updateRating(productId,
+        averageRating != null ? averageRating : 0.0, reviewCount != null ? reviewCount : 0);
+    log.info("Product {} rating updated: avg={}, count={}", productId, averageRating, reviewCount);
   }
 
 
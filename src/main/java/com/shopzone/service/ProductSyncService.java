@@ -14,7 +14,6 @@ import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,6 +24,7 @@ public class ProductSyncService {
   private final ProductRepository productRepository;
   private final CategoryRepository categoryRepository;
   private final ProductSearchRepository productSearchRepository;
+  private final SearchResultCache searchResultCache;
 
   /**
    * Sync a single product to Elasticsearch
@@ -33,6 +33,7 @@ public class ProductSyncService {
     try {
       ProductDocument document = convertToDocument(product);
       productSearchRepository.save(document);
+      searchResultCache.invalidate();
       log.debug("Synced product {} to Elasticsearch", product.getId());
     } catch (Exception e) {
       log.error("Failed to sync product {} to Elasticsearch: {}", product.getId(), e.getMessage());
@@ -52,63 +53,13 @@ public class ProductSyncService {
   public void removeProduct(String productId) {
     try {
       productSearchRepository.deleteById(productId);
+      searchResultCache.invalidate();
       log.debug("Removed product {} from Elasticsearch", productId);
     } catch (Exception e) {
       log.error("Failed to remove product {} from Elasticsearch: {}", productId, e.getMessage());
     }
   }
 
-  /**
-   * Update product rating in Elasticsearch
-   */
-  public void updateProductRating(String productId, Double averageRating, Integer reviewCount) {
-    try {
-      Optional<ProductDocument> docOpt = productSearchRepository.findById(productId);
-      if (docOpt.isPresent()) {
-        ProductDocument doc = docOpt.get();
-        doc.setAverageRating(averageRating != null ? averageRating : 0.0);
-        doc.setReviewCount(reviewCount != null ? reviewCount : 0);
-        doc.setUpdatedAt(LocalDateTime.now());
-        productSearchRepository.save(doc);
-        log.debug("Updated rating for product {} in Elasticsearch", productId);
-      } else {
-        syncProductById(productId);
-      }
-    } catch (Exception e) {
-      log.error("Failed to update product rating in Elasticsearch: {}", e.getMessage());
-    }
-  }
-
-  /**
-   * Full sync: Sync all products from MongoDB to Elasticsearch
-   */
-  @Async
-  public void syncAllProducts() {
-    log.info("Starting full product sync to Elasticsearch...");
-    long startTime = System.currentTimeMillis();
-    int count = 0;
-
-    try {
-      productSearchRepository.deleteAll();
-      log.info("Cleared existing Elasticsearch index");
-
-      List<Product> products = productRepository.findByActiveTrue();
-
-      List<ProductDocument> documents = products.stream()
-          .map(this::convertToDocument)
-          .collect(Collectors.toList());
-
-      productSearchRepository.saveAll(documents);
-      count = documents.size();
-
-      long duration = System.currentTimeMillis() - startTime;
-      log.info("Full sync completed: {} products indexed in {}ms", count, duration);
-    } catch (Exception e) {
-      log.error("Full sync failed: {}", e.getMessage(), e);
-      throw new RuntimeException("Failed to sync products to Elasticsearch", e);
-    }
-  }
-
   /**
    * Incremental sync: Sync products updated after a certain time
    */
@@ -158,17 +109,18 @@ public class ProductSyncService {
 
 
   private ProductDocument convertToDocument(Product product) {
-    String categoryName = null;
-    String categorySlug = null;
-
-    if (product.getCategoryId() != null) {
-      Optional<Category> categoryOpt = categoryRepository.findById(product.getCategoryId());
-      if (categoryOpt.isPresent()) {
-        Category category = categoryOpt.get();
-        categoryName = category.getName();
-        categorySlug = category.getSlug();
-      }
-    }
+    Category category = product.getCategoryId() != null
+        ? categoryRepository.findById(product.getCategoryId()).orElse(null)
+        : null;
+    return convertToDocument(product, category);
+  }
+
+  /**
+   * Build the search document for a product whose category has already been looked up.
+   */
+  public ProductDocument convertToDocument(Product product, Category category) {
+    String categoryName = category != null ? category.getName() : null;
+    String categorySlug = category != null ? category.getSlug() : null;
 
     List<String> suggestions = Arrays.asList(
         product.getName(),
@@ -201,6 +153,7 @@ public class ProductSyncService {
         .images(product.getImages())
         .averageRating(product.getAverageRating() != null ? product.getAverageRating() : 0.0)
         .reviewCount(product.getReviewCount() != null ? product.getReviewCount() : 0)
+        .popularity(product.getPopularity() != null ? product.getPopularity() : 0.0)
         .createdAt(product.getCreatedAt())
         .updatedAt(product.getUpdatedAt())
         .nameSuggest(nameSuggest)
@@ -0,0 +1,110 @@
+package com.shopzone.service;
+
+import com.shopzone.model.Order;
+import com.shopzone.model.OrderItem;
+import com.shopzone.model.UserPurchasedProduct;
+import com.shopzone.repository.jpa.UserPurchasedProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Maintains user_purchased_products, which backs verified-purchase checks for reviews.
+ * Rows are added in the same transaction that marks an order DELIVERED, and removed in
+ * the one that moves it on to RETURNED, REFUNDED or CANCELLED.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PurchaseHistoryService {
+
+  private final UserPurchasedProductRepository purchasedProductRepository;
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+
+
+  @Transactional
+  public void onOrderDelivered(Order order) {
+    if (order.getItems() == null) {
+      return;
+    }
+    LocalDateTime deliveredAt = order.getDeliveredAt() != null ? order.getDeliveredAt() : LocalDateTime.now();
+    for (OrderItem item : order.getItems()) {
+      purchasedProductRepository.recordPurchase(
+          order.getUserId(), item.getProductId(), order.getOrderNumber(), deliveredAt);
+    }
+  }
+
+  /**
+   * Remove the rows recorded for an order that is no longer DELIVERED. Products the user
+   * also received in another delivered order are recorded again from that order.
+   */
+  @Transactional
+  public void onOrderNoLongerDelivered(Order order) {
+    int removed = purchasedProductRepository.deleteByOrderNumber(order.getOrderNumber());
+    if (removed == 0) {
+      return;
+    }
+    int restored = jdbcTemplate.update(
+        "INSERT INTO user_purchased_products (user_id, product_id, order_number, delivered_at) " +
+            "SELECT DISTINCT ON (o.user_id, i.product_id) o.user_id, i.product_id, o.order_number, " +
+            "COALESCE(o.delivered_at, o.updated_at) " +
+            "FROM orders o JOIN order_items i ON i.order_id = o.id " +
+            "WHERE o.status = 'DELIVERED' AND o.user_id = ? AND o.order_number <> ? " +
+            "ORDER BY o.user_id, i.product_id, o.delivered_at " +
+            "ON CONFLICT (user_id, product_id) DO NOTHING",
+        order.getUserId(), order.getOrderNumber());
+    log.debug("Order {} left DELIVERED: removed {} purchased products, {} kept from other orders",
+        order.getOrderNumber(), removed, restored);
+  }
+
+  @Transactional(readOnly = true)
+  public Optional<UserPurchasedProduct> findPurchase(String userId, String productId) {
+    return purchasedProductRepository.findByUserIdAndProductId(userId, productId);
+  }
+
+  /**
+   * Populate the table on first start after it was introduced.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void backfillIfEmpty() {
+    try {
+      if (purchasedProductRepository.count() == 0) {
+        transactionTemplate.executeWithoutResult(status -> backfill());
+      }
+    } catch (Exception e) {
+      log.error("Purchase history backfill failed: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Add rows for every delivered live order. Existing rows are kept, so purchases whose
+   * orders have since been archived are not lost.
+   *
+   * @return number of rows added
+   */
+  @Transactional
+  public int backfill() {
+    long startTime = System.currentTimeMillis();
+
+    int rows = jdbcTemplate.update(
+        "INSERT INTO user_purchased_products (user_id, product_id, order_number, delivered_at) " +
+            "SELECT DISTINCT ON (o.user_id, i.product_id) o.user_id, i.product_id, o.order_number, " +
+            "COALESCE(o.delivered_at, o.updated_at) " +
+            "FROM orders o JOIN order_items i ON i.order_id = o.id " +
+            "WHERE o.status = 'DELIVERED' " +
+            "ORDER BY o.user_id, i.product_id, o.delivered_at " +
+            "ON CONFLICT (user_id, product_id) DO NOTHING");
+
+    log.info("Backfilled {} purchased products in {}ms", rows, System.currentTimeMillis() - startTime);
+    return rows;
+  }
+}
@@ -32,6 +32,10 @@ public class RefundService {
   private final StripeService stripeService;
   private final OrderService orderService;
   private final ProductService productService;
+  private final ProductSalesRollupService productSalesRollupService;
+  private final CustomerStatsService customerStatsService;
+  private final ReportRollupService reportRollupService;
+  private final PurchaseHistoryService purchaseHistoryService;
 
   @Value("${payment.max-refund-days:30}")
   private int maxRefundDays;
@@ -74,6 +78,8 @@ public class RefundService {
     payment.recordRefund(refundAmount, stripeRefund.getId(), request.getReason());
     paymentRepository.save(payment);
 
+    OrderStatus previousStatus = order.getStatus();
+    boolean wasFullyRefunded = order.getPaymentStatus() == PaymentStatus.REFUNDED;
     order.recordRefund(refundAmount);
 
     if (payment.isFullyRefunded()) {
@@ -82,6 +88,14 @@ public class RefundService {
     }
 
     orderService.saveOrder(order);
+    productSalesRollupService.onStatusChange(order, previousStatus);
+    customerStatsService.onRefund(order, refundAmount, payment.isFullyRefunded());
+    if (previousStatus == OrderStatus.DELIVERED && order.getStatus() != OrderStatus.DELIVERED) {
+      purchaseHistoryService.onOrderNoLongerDelivered(order);
+    }
+    if (!wasFullyRefunded && order.getPaymentStatus() == PaymentStatus.REFUNDED) {
+      reportRollupService.onOrderRefunded(order);
+    }
 
     boolean stockRestored = false;
     if (request.isRestoreStock() && request.isFullRefund()) {
@@ -0,0 +1,154 @@
+package com.shopzone.service;
+
+import com.shopzone.model.Order;
+import com.shopzone.model.User;
+import com.shopzone.repository.jpa.ReportMetricsDailyRepository;
+import com.shopzone.repository.jpa.ReportMetricsHourlyRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Maintains the daily / hourly report rollups used by ReportService.
+ *
+ * An order counts towards revenue while its payment status is PAID or
+ * PARTIALLY_REFUNDED, bucketed by when it was placed. Users are bucketed by
+ * registration time. Updates run in the caller's transaction.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReportRollupService {
+
+  private static final String PAID_STATUS_LIST = "'PAID', 'PARTIALLY_REFUNDED'";
+
+  private final ReportMetricsDailyRepository dailyRepository;
+  private final ReportMetricsHourlyRepository hourlyRepository;
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+
+
+  /**
+   * Order has just been paid for the first time.
+   */
+  @Transactional
+  public void onOrderPaid(Order order) {
+    applyOrderDelta(order, 1);
+  }
+
+  /**
+   * Order has just been fully refunded and no longer counts as revenue.
+   */
+  @Transactional
+  public void onOrderRefunded(Order order) {
+    applyOrderDelta(order, -1);
+  }
+
+  @Transactional
+  public void onUserRegistered(User user) {
+    LocalDateTime registeredAt = user.getCreatedAt() != null ? user.getCreatedAt() : LocalDateTime.now();
+    dailyRepository.addRegistrations(registeredAt.toLocalDate(), 1);
+    hourlyRepository.addRegistrations(registeredAt.truncatedTo(ChronoUnit.HOURS), 1);
+  }
+
+  /**
+   * Populate the rollups on first start after they were introduced.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void backfillIfEmpty() {
+    try {
+      if (dailyRepository.count() == 0) {
+        transactionTemplate.executeWithoutResult(status -> backfill());
+      }
+    } catch (Exception e) {
+      log.error("Report rollup backfill failed: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Rebuild the rollups from the orders and users tables.
+   *
+   * Order figures are only rebuilt from the oldest live order onward, so buckets whose
+   * orders have since been archived keep their totals. The tables are locked for the
+   * duration so concurrent payments and registrations apply on top of the rebuilt rows.
+   */
+  @Transactional
+  public void backfill() {
+    long startTime = System.currentTimeMillis();
+
+    jdbcTemplate.execute("LOCK TABLE report_metrics_daily, report_metrics_hourly IN EXCLUSIVE MODE");
+
+    Timestamp oldestOrder = jdbcTemplate.queryForObject(
+        "SELECT MIN(created_at) FROM orders", Timestamp.class);
+    if (oldestOrder != null) {
+      LocalDateTime from = oldestOrder.toLocalDateTime().toLocalDate().atStartOfDay();
+      rebuildOrders("report_metrics_daily", "metric_date", "CAST(created_at AS DATE)", from);
+      rebuildOrders("report_metrics_hourly", "metric_hour", "date_trunc('hour', created_at)", from);
+    }
+
+    rebuildRegistrations("report_metrics_daily", "metric_date", "CAST(created_at AS DATE)");
+    rebuildRegistrations("report_metrics_hourly", "metric_hour", "date_trunc('hour', created_at)");
+
+    log.info("Backfilled report rollups in {}ms", System.currentTimeMillis() - startTime);
+  }
+
+
+  private void applyOrderDelta(Order order, int sign) {
+    LocalDateTime placedAt = order.getCreatedAt();
+    BigDecimal revenue = signed(order.getTotalAmount(), sign);
+    BigDecimal tax = signed(order.getTaxAmount(), sign);
+    BigDecimal shipping = signed(order.getShippingCost(), sign);
+    BigDecimal discount = signed(order.getDiscountAmount(), sign);
+
+    dailyRepository.applyOrderDelta(placedAt.toLocalDate(), sign, revenue, tax, shipping, discount);
+    hourlyRepository.applyOrderDelta(placedAt.truncatedTo(ChronoUnit.HOURS),
+        sign, revenue, tax, shipping, discount);
+  }
+
+  private static BigDecimal signed(BigDecimal value, int sign) {
+    if (value == null) {
+      return BigDecimal.ZERO;
+    }
+    return sign < 0 ? value.negate() : value;
+  }
+
+  private void rebuildOrders(String table, String keyColumn, String bucketExpr, LocalDateTime from) {
+    jdbcTemplate.update("UPDATE " + table + " SET paid_orders = 0, revenue = 0, tax = 0, " +
+        "shipping = 0, discount = 0 WHERE " + keyColumn + " >= ?",
+        keyColumn.equals("metric_date") ? from.toLocalDate() : from);
+
+    jdbcTemplate.update(
+        "INSERT INTO " + table + " (" + keyColumn + ", paid_orders, revenue, tax, shipping, discount, new_users) " +
+            "SELECT " + bucketExpr + ", COUNT(*), COALESCE(SUM(total_amount), 0), " +
+            "COALESCE(SUM(tax_amount), 0), COALESCE(SUM(shipping_cost), 0), " +
+            "COALESCE(SUM(discount_amount), 0), 0 " +
+            "FROM orders WHERE payment_status IN (" + PAID_STATUS_LIST + ") AND created_at >= ? " +
+            "GROUP BY " + bucketExpr + " " +
+            "ON CONFLICT (" + keyColumn + ") DO UPDATE SET " +
+            "paid_orders = EXCLUDED.paid_orders, revenue = EXCLUDED.revenue, tax = EXCLUDED.tax, " +
+            "shipping = EXCLUDED.shipping, discount = EXCLUDED.discount",
+        from);
+  }
+
+  private void rebuildRegistrations(String table, String keyColumn, String bucketExpr) {
+    jdbcTemplate.update("UPDATE " + table + " SET new_users = 0");
+
+    jdbcTemplate.update(
+        "INSERT INTO " + table + " (" + keyColumn + ", paid_orders, revenue, tax, shipping, discount, new_users) " +
+            "SELECT " + bucketExpr + ", 0, 0, 0, 0, 0, COUNT(*) " +
+            "FROM users WHERE created_at IS NOT NULL " +
+            "GROUP BY " + bucketExpr + " " +
+            "ON CONFLICT (" + keyColumn + ") DO UPDATE SET new_users = EXCLUDED.new_users");
+  }
+}
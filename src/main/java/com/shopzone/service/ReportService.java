@@ -1,13 +1,14 @@
 package com.shopzone.service;
 
 import com.shopzone.dto.response.*;
-import com.shopzone.model.Order;
-import com.shopzone.model.OrderItem;
+import com.shopzone.model.ReportMetricsDaily;
 import com.shopzone.model.Role;
-import com.shopzone.model.User;
 import com.shopzone.model.enums.OrderStatus;
 import com.shopzone.model.enums.PaymentStatus;
 import com.shopzone.repository.jpa.OrderRepository;
+import com.shopzone.repository.jpa.ProductSalesDailyRepository;
+import com.shopzone.repository.jpa.ReportMetricsDailyRepository;
+import com.shopzone.repository.jpa.ReportMetricsHourlyRepository;
 import com.shopzone.repository.jpa.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -18,12 +19,16 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
 
 /**
  * Service for generating admin reports.
  * Provides revenue, sales, and user growth reports.
+ *
+ * Revenue and registration figures come from the rollups kept by ReportRollupService,
+ * so a year-long report reads at most 365 rows.
  */
 @Service
 @RequiredArgsConstructor
@@ -32,6 +37,9 @@ public class ReportService {
 
   private final OrderRepository orderRepository;
   private final UserRepository userRepository;
+  private final ProductSalesDailyRepository productSalesDailyRepository;
+  private final ReportMetricsDailyRepository reportMetricsDailyRepository;
+  private final ReportMetricsHourlyRepository reportMetricsHourlyRepository;
 
 
   @Transactional(readOnly = true)
@@ -44,62 +52,59 @@ public class ReportService {
     LocalDateTime startDateTime = startDate.atStartOfDay();
     LocalDateTime endDateTime = endDate.plusDays(1).atStartOfDay();
 
-    List<Order> orders = orderRepository.findByCreatedAtBetween(startDateTime, endDateTime);
-
-    List<Order> paidOrders = orders.stream()
-        .filter(o -> o.getPaymentStatus() == PaymentStatus.PAID
-            || o.getPaymentStatus() == PaymentStatus.PARTIALLY_REFUNDED)
-        .toList();
-
-    BigDecimal totalRevenue = paidOrders.stream()
-        .map(Order::getTotalAmount)
-        .filter(Objects::nonNull)
-        .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-    BigDecimal totalTax = paidOrders.stream()
-        .map(Order::getTaxAmount)
-        .filter(Objects::nonNull)
-        .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-    BigDecimal totalShipping = paidOrders.stream()
-        .map(Order::getShippingCost)
-        .filter(Objects::nonNull)
-        .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-    BigDecimal totalDiscount = paidOrders.stream()
-        .map(Order::getDiscountAmount)
-        .filter(Objects::nonNull)
-        .reduce(BigDecimal.ZERO, BigDecimal::add);
+    List<ReportMetricsDaily> days = reportMetricsDailyRepository
+        .findByMetricDateBetweenOrderByMetricDate(startDate, endDate);
+
+    long totalOrders = 0;
+    BigDecimal totalRevenue = BigDecimal.ZERO;
+    BigDecimal totalTax = BigDecimal.ZERO;
+    BigDecimal totalShipping = BigDecimal.ZERO;
+    BigDecimal totalDiscount = BigDecimal.ZERO;
+    List<DailyRevenueEntry> dailyRevenueList = new ArrayList<>();
+
+    for (ReportMetricsDaily day : days) {
+      totalOrders += day.getPaidOrders();
+      totalRevenue = totalRevenue.add(day.getRevenue());
+      totalTax = totalTax.add(day.getTax());
+      totalShipping = totalShipping.add(day.getShipping());
+      totalDiscount = totalDiscount.add(day.getDiscount());
+
+      if (day.getPaidOrders() > 0) {
+        dailyRevenueList.add(DailyRevenueEntry.builder()
+            .date(day.getMetricDate())
+            .revenue(day.getRevenue())
+            .orderCount((int) day.getPaidOrders())
+            .build());
+      }
+    }
 
-    BigDecimal averageOrderValue = !paidOrders.isEmpty()
-        ? totalRevenue.divide(BigDecimal.valueOf(paidOrders.size()), 2, RoundingMode.HALF_UP)
+    BigDecimal averageOrderValue = totalOrders > 0
+        ? totalRevenue.divide(BigDecimal.valueOf(totalOrders), 2, RoundingMode.HALF_UP)
         : BigDecimal.ZERO;
 
-    Map<LocalDate, BigDecimal> dailyRevenue = paidOrders.stream()
-        .collect(Collectors.groupingBy(
-            o -> o.getCreatedAt().toLocalDate(),
-            TreeMap::new,
-            Collectors.reducing(BigDecimal.ZERO, Order::getTotalAmount, BigDecimal::add)
-        ));
-
-    List<DailyRevenueEntry> dailyRevenueList = dailyRevenue.entrySet().stream()
-        .map(e -> DailyRevenueEntry.builder()
-            .date(e.getKey())
-            .revenue(e.getValue())
-            .orderCount(countOrdersOnDate(paidOrders, e.getKey()))
-            .build())
-        .collect(Collectors.toList());
+    List<HourlyRevenueEntry> hourlyRevenueList = null;
+    if (ChronoUnit.DAYS.between(startDate, endDate) < 2) {
+      hourlyRevenueList = reportMetricsHourlyRepository.findInRange(startDateTime, endDateTime).stream()
+          .filter(hour -> hour.getPaidOrders() > 0)
+          .map(hour -> HourlyRevenueEntry.builder()
+              .hour(hour.getMetricHour())
+              .revenue(hour.getRevenue())
+              .orderCount((int) hour.getPaidOrders())
+              .build())
+          .collect(Collectors.toList());
+    }
 
     return RevenueReportResponse.builder()
         .startDate(startDate)
         .endDate(endDate)
         .totalRevenue(totalRevenue)
-        .totalOrders((long) paidOrders.size())
+        .totalOrders(totalOrders)
         .totalTax(totalTax)
         .totalShipping(totalShipping)
         .totalDiscount(totalDiscount)
         .averageOrderValue(averageOrderValue)
         .dailyRevenue(dailyRevenueList)
+        .hourlyRevenue(hourlyRevenueList)
         .build();
   }
 
@@ -114,59 +119,48 @@ public class ReportService {
     LocalDateTime startDateTime = startDate.atStartOfDay();
     LocalDateTime endDateTime = endDate.plusDays(1).atStartOfDay();
 
-    List<Order> orders = orderRepository.findByCreatedAtBetween(startDateTime, endDateTime);
+    Map<OrderStatus, Long> statusCounts = new EnumMap<>(OrderStatus.class);
+    Map<PaymentStatus, Long> paymentStatusCounts = new EnumMap<>(PaymentStatus.class);
+    long totalOrders = 0;
 
-    Map<String, Long> ordersByStatus = new LinkedHashMap<>();
-    for (OrderStatus status : OrderStatus.values()) {
-      long count = orders.stream().filter(o -> o.getStatus() == status).count();
-      if (count > 0) {
-        ordersByStatus.put(status.getDisplayName(), count);
+    for (Object[] row : orderRepository.countByStatusAndPaymentStatusInRange(startDateTime, endDateTime)) {
+      long count = (Long) row[2];
+      statusCounts.merge((OrderStatus) row[0], count, Long::sum);
+      if (row[1] != null) {
+        paymentStatusCounts.merge((PaymentStatus) row[1], count, Long::sum);
       }
+      totalOrders += count;
     }
 
-    Map<String, Long> ordersByPaymentStatus = new LinkedHashMap<>();
-    for (PaymentStatus status : PaymentStatus.values()) {
-      long count = orders.stream().filter(o -> o.getPaymentStatus() == status).count();
-      if (count > 0) {
-        ordersByPaymentStatus.put(status.name(), count);
-      }
-    }
-
-    Map<String, ProductSalesAggregator> productSales = new HashMap<>();
-    for (Order order : orders) {
-      if (order.getItems() == null) continue;
-      for (OrderItem item : order.getItems()) {
-        productSales.computeIfAbsent(item.getProductId(),
-                k -> new ProductSalesAggregator(item.getProductId(), item.getProductName()))
-            .addSale(item.getQuantity(), item.getTotalPrice());
-      }
-    }
+    Map<String, Long> ordersByStatus = new LinkedHashMap<>();
+    statusCounts.forEach((status, count) -> ordersByStatus.put(status.getDisplayName(), count));
 
-    List<TopProductResponse> topProducts = productSales.values().stream()
-        .sorted(Comparator.comparingInt(ProductSalesAggregator::getTotalQuantity).reversed())
-        .limit(10)
-        .map(agg -> TopProductResponse.builder()
-            .productId(agg.getProductId())
-            .productName(agg.getProductName())
-            .totalQuantitySold(agg.getTotalQuantity())
-            .totalRevenue(agg.getTotalRevenue())
-            .orderCount(agg.getOrderCount())
+    Map<String, Long> ordersByPaymentStatus = new LinkedHashMap<>();
+    paymentStatusCounts.forEach((status, count) -> ordersByPaymentStatus.put(status.name(), count));
+
+    List<TopProductResponse> topProducts = productSalesDailyRepository
+        .findTopSellersBetween(startDate, endDate, 10).stream()
+        .map(row -> TopProductResponse.builder()
+            .productId((String) row[0])
+            .productName((String) row[1])
+            .productImage((String) row[2])
+            .totalQuantitySold(((Number) row[3]).intValue())
+            .totalRevenue((BigDecimal) row[4])
+            .orderCount(((Number) row[5]).intValue())
             .build())
         .collect(Collectors.toList());
 
-    long cancelledCount = orders.stream()
-        .filter(o -> o.getStatus() == OrderStatus.CANCELLED)
-        .count();
-    BigDecimal cancellationRate = !orders.isEmpty()
+    long cancelledCount = statusCounts.getOrDefault(OrderStatus.CANCELLED, 0L);
+    BigDecimal cancellationRate = totalOrders > 0
         ? BigDecimal.valueOf(cancelledCount)
         .multiply(BigDecimal.valueOf(100))
-        .divide(BigDecimal.valueOf(orders.size()), 2, RoundingMode.HALF_UP)
+        .divide(BigDecimal.valueOf(totalOrders), 2, RoundingMode.HALF_UP)
         : BigDecimal.ZERO;
 
     return SalesReportResponse.builder()
         .startDate(startDate)
         .endDate(endDate)
-        .totalOrders((long) orders.size())
+        .totalOrders(totalOrders)
         .ordersByStatus(ordersByStatus)
         .ordersByPaymentStatus(ordersByPaymentStatus)
         .topProducts(topProducts)
@@ -183,31 +177,24 @@ public class ReportService {
     if (startDate == null) startDate = LocalDate.now().minusDays(30);
     if (endDate == null) endDate = LocalDate.now();
 
-    LocalDateTime startDateTime = startDate.atStartOfDay();
-    LocalDateTime endDateTime = endDate.plusDays(1).atStartOfDay();
-
     long totalUsers = userRepository.count();
 
-    List<User> newUsers = userRepository.findByCreatedAtBetween(startDateTime, endDateTime);
-    long newUsersCount = newUsers.size();
-
     Map<String, Long> usersByRole = new LinkedHashMap<>();
     usersByRole.put("CUSTOMER", userRepository.countByRole(Role.CUSTOMER));
     usersByRole.put("ADMIN", userRepository.countByRole(Role.ADMIN));
 
-    Map<LocalDate, Long> dailyRegistrations = newUsers.stream()
-        .collect(Collectors.groupingBy(
-            u -> u.getCreatedAt().toLocalDate(),
-            TreeMap::new,
-            Collectors.counting()
-        ));
-
-    List<DailyUserEntry> dailyUserList = dailyRegistrations.entrySet().stream()
-        .map(e -> DailyUserEntry.builder()
-            .date(e.getKey())
-            .newUsers(e.getValue())
-            .build())
-        .collect(Collectors.toList());
+    long newUsersCount = 0;
+    List<DailyUserEntry> dailyUserList = new ArrayList<>();
+    for (ReportMetricsDaily day : reportMetricsDailyRepository
+        .findByMetricDateBetweenOrderByMetricDate(startDate, endDate)) {
+      if (day.getNewUsers() > 0) {
+        newUsersCount += day.getNewUsers();
+        dailyUserList.add(DailyUserEntry.builder()
+            .date(day.getMetricDate())
+            .newUsers(day.getNewUsers())
+            .build());
+      }
+    }
 
     long verifiedUsers = userRepository.countByEmailVerifiedTrue();
     BigDecimal verificationRate = totalUsers > 0
@@ -227,35 +214,4 @@ public class ReportService {
         .verificationRate(verificationRate)
         .build();
   }
-
-
-  private int countOrdersOnDate(List<Order> orders, LocalDate date) {
-    return (int) orders.stream()
-        .filter(o -> o.getCreatedAt().toLocalDate().equals(date))
-        .count();
-  }
-
-
-  @lombok.Data
-  private static class ProductSalesAggregator {
-    private String productId;
-    private String productName;
-    private int totalQuantity;
-    private BigDecimal totalRevenue;
-    private int orderCount;
-
-    ProductSalesAggregator(String productId, String productName) {
-      this.productId = productId;
-      this.productName = productName;
-      this.totalQuantity = 0;
-      this.totalRevenue = BigDecimal.ZERO;
-      this.orderCount = 0;
-    }
-
-    void addSale(int quantity, BigDecimal revenue) {
-      this.totalQuantity += quantity;
-      this.totalRevenue = this.totalRevenue.add(revenue != null ? revenue : BigDecimal.ZERO);
-      this.orderCount++;
-    }
-  }
-}
\ No newline at end of file
+}
@@ -0,0 +1,199 @@
+package com.shopzone.service;
+
+import com.shopzone.repository.jpa.ReviewHelpfulFlushRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Write-behind buffer for review helpful votes.
+ *
+ * A vote is recorded in Redis only: the voter is added to the review's voter set and,
+ * if new, the review's pending count is incremented (one Lua script, so both happen or
+ * neither). Voter sets expire after the voter TTL, after which the same voter may vote
+ * again. Every few seconds the pending hash is renamed to a batch key and listed in the
+ * batches set (again one script), then applied to reviews.helpful_count in one
+ * transaction, together with a review_helpful_flushes marker. Only the instance that
+ * wrote the marker deletes the batch. Batches left behind by a crash are retried on the
+ * next flush and the marker stops them being applied twice.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReviewHelpfulVoteService {
+
+  private static final String VOTERS_KEY_PREFIX = "reviews:helpful:voters:";
+  private static final String PENDING_KEY = "reviews:helpful:pending";
+  private static final String BATCH_KEY_PREFIX = "reviews:helpful:batch:";
+  private static final String BATCHES_KEY = "reviews:helpful:batches";
+
+  private static final RedisScript<Long> RECORD_VOTE = new DefaultRedisScript<>(
+      "if redis.call('SADD', KEYS[1], ARGV[1]) == 1 then " +
+          "redis.call('EXPIRE', KEYS[1], ARGV[3]) " +
+          "redis.call('HINCRBY', KEYS[2], ARGV[2], 1) " +
+          "return 1 " +
+          "end " +
+          "return 0",
+      Long.class);
+
+  /** Rename the pending hash to a batch key and list it, or return 0 if nothing is pending. */
+  private static final RedisScript<Long> START_BATCH = new DefaultRedisScript<>(
+      "if redis.call('EXISTS', KEYS[1]) == 0 then " +
+          "return 0 " +
+          "end " +
+          "redis.call('RENAME', KEYS[1], KEYS[2]) " +
+          "redis.call('SADD', KEYS[3], KEYS[2]) " +
+          "return 1",
+      Long.class);
+
+  /** How long a batch claimed by another instance may stay in Redis before it counts as orphaned. */
+  private static final Duration ORPHANED_BATCH_AGE = Duration.ofMinutes(5);
+
+  private final StringRedisTemplate redisTemplate;
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final ReviewHelpfulFlushRepository flushRepository;
+
+  @Value("${shopzone.reviews.helpful-voter-ttl:P90D}")
+  private Duration voterTtl;
+
+
+  /**
+   * Buffer a helpful vote.
+   *
+   * @return false if this voter has already voted for the review
+   */
+  public boolean recordVote(UUID reviewId, String voterId) {
+    Long added = redisTemplate.execute(RECORD_VOTE,
+        List.of(VOTERS_KEY_PREFIX + reviewId, PENDING_KEY),
+        voterId, reviewId.toString(), String.valueOf(voterTtl.toSeconds()));
+    return added != null && added == 1;
+  }
+
+  /**
+   * Drop the voter set of a deleted review.
+   */
+  public void forgetReview(UUID reviewId) {
+    try {
+      redisTemplate.delete(VOTERS_KEY_PREFIX + reviewId);
+    } catch (Exception e) {
+      log.warn("Failed to remove helpful voters for review {}: {}", reviewId, e.getMessage());
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${shopzone.reviews.helpful-flush-interval-ms:5000}")
+  public void scheduledFlush() {
+    try {
+      flush();
+    } catch (Exception e) {
+      log.error("Failed to flush helpful votes: {}", e.getMessage());
+    }
+  }
+
+  @PreDestroy
+  public void flushOnShutdown() {
+    scheduledFlush();
+  }
+
+  /**
+   * Apply any unfinished batches, then move the pending votes into a new batch and apply it.
+   *
+   * @return number of votes written to Postgres
+   */
+  public long flush() {
+    long applied = 0;
+
+    Set<String> unfinished = redisTemplate.opsForSet().members(BATCHES_KEY);
+    if (unfinished != null) {
+      for (String batchKey : unfinished) {
+        applied += applyBatch(batchKey);
+      }
+    }
+
+    String batchKey = BATCH_KEY_PREFIX + UUID.randomUUID();
+    Long started = redisTemplate.execute(START_BATCH,
+        List.of(PENDING_KEY, batchKey, BATCHES_KEY));
+    if (started == null || started == 0) {
+      return applied;
+    }
+
+    return applied + applyBatch(batchKey);
+  }
+
+  /**
+   * Remove markers of batches applied more than a week ago.
+   */
+  @Scheduled(cron = "${shopzone.reviews.helpful-marker-cleanup-cron:0 15 4 * * *}")
+  @Transactional
+  public void purgeFlushMarkers() {
+    int removed = flushRepository.deleteAppliedBefore(LocalDateTime.now().minusDays(7));
+    log.debug("Removed {} helpful vote flush markers", removed);
+  }
+
+
+  private long applyBatch(String batchKey) {
+    Map<Object, Object> entries = redisTemplate.opsForHash().entries(batchKey);
+    if (entries.isEmpty()) {
+      // The batch key is listed by the same script that creates it, so an empty hash means
+      // the instance that applied it has deleted it and only the set member is left
+      redisTemplate.opsForSet().remove(BATCHES_KEY, batchKey);
+      return 0;
+    }
+
+    long votes = 0;
+    List<Object[]> updates = new ArrayList<>(entries.size());
+    for (Map.Entry<Object, Object> entry : entries.entrySet()) {
+      long delta = Long.parseLong((String) entry.getValue());
+      updates.add(new Object[]{delta, UUID.fromString((String) entry.getKey())});
+      votes += delta;
+    }
+
+    String batchId = batchKey.substring(BATCH_KEY_PREFIX.length());
+    Boolean written = transactionTemplate.execute(status -> {
+      if (flushRepository.claim(batchId, updates.size()) == 0) {
+        return false;
+      }
+      jdbcTemplate.batchUpdate(
+          "UPDATE reviews SET helpful_count = helpful_count + ? WHERE id = ?", updates);
+      return true;
+    });
+
+    if (!Boolean.TRUE.equals(written)) {
+      // Applied by another instance, which removes it. If that instance died before doing
+      // so, the marker ages past the grace period and the batch is removed here instead.
+      boolean orphaned = flushRepository.findById(batchId)
+          .map(marker -> marker.getAppliedAt().isBefore(LocalDateTime.now().minus(ORPHANED_BATCH_AGE)))
+          .orElse(false);
+      if (orphaned) {
+        removeBatch(batchKey);
+      }
+      return 0;
+    }
+
+    removeBatch(batchKey);
+    log.debug("Flushed {} helpful votes for {} reviews", votes, updates.size());
+    return votes;
+  }
+
+  private void removeBatch(String batchKey) {
+    redisTemplate.delete(batchKey);
+    redisTemplate.opsForSet().remove(BATCHES_KEY, batchKey);
+  }
+}
@@ -6,17 +6,18 @@ import com.shopzone.dto.response.ReviewResponse;
 import com.shopzone.dto.response.ReviewStatsResponse;
 import com.shopzone.exception.BadRequestException;
 import com.shopzone.exception.ResourceNotFoundException;
-import com.shopzone.model.Order;
+import com.shopzone.model.ProductRatingStats;
 import com.shopzone.model.Review;
 import com.shopzone.model.User;
-import com.shopzone.model.enums.OrderStatus;
 import com.shopzone.model.Product;
-import com.shopzone.repository.jpa.OrderRepository;
+import com.shopzone.repository.ReviewPageCacheRepository;
+import com.shopzone.repository.ReviewPageCacheRepository.CachedReviewPage;
 import com.shopzone.repository.jpa.ReviewRepository;
 import com.shopzone.repository.mongo.ProductRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -31,8 +32,10 @@ public class ReviewService {
 
   private final ReviewRepository reviewRepository;
   private final ProductRepository productRepository;
-  private final OrderRepository orderRepository;
-  private final ProductSyncService productSyncService;
+  private final PurchaseHistoryService purchaseHistoryService;
+  private final ReviewPageCacheRepository reviewPageCache;
+  private final ProductRatingStatsService productRatingStatsService;
+  private final ReviewHelpfulVoteService reviewHelpfulVoteService;
 
   @Transactional
   public ReviewResponse createReview(User user, CreateReviewRequest request) {
@@ -61,7 +64,8 @@ public class ReviewService {
     log.info("Review created by user {} for product {} (verified: {})",
         user.getId(), productId, verification.verified);
 
-    updateProductRating(productId);
+    reviewPageCache.evict(productId);
+    pushProductRating(productId, productRatingStatsService.onReviewCreated(review));
 
     return ReviewResponse.from(review, true);
   }
@@ -71,6 +75,7 @@ public class ReviewService {
     Review review = reviewRepository.findByIdAndUser(reviewId, user)
         .orElseThrow(() -> new ResourceNotFoundException("Review not found or not owned by user"));
 
+    int previousRating = review.getRating();
     if (request.getRating() != null) {
       review.setRating(request.getRating());
     }
@@ -84,7 +89,11 @@ public class ReviewService {
     review = reviewRepository.save(review);
     log.info("Review {} updated by user {}", reviewId, user.getId());
 
-    updateProductRating(review.getProductId());
+    reviewPageCache.evict(review.getProductId());
+    if (review.getRating() != previousRating) {
+      pushProductRating(review.getProductId(),
+          productRatingStatsService.onRatingChanged(review, previousRating));
+    }
 
     return ReviewResponse.from(review, true);
   }
@@ -98,7 +107,9 @@ public class ReviewService {
     reviewRepository.delete(review);
     log.info("Review {} deleted by user {}", reviewId, user.getId());
 
-    updateProductRating(productId);
+    reviewPageCache.evict(productId);
+    reviewHelpfulVoteService.forgetReview(reviewId);
+    pushProductRating(productId, productRatingStatsService.onReviewDeleted(review));
   }
 
   @Transactional
@@ -110,38 +121,52 @@ public class ReviewService {
     reviewRepository.delete(review);
     log.info("Review {} deleted by admin", reviewId);
 
-    updateProductRating(productId);
+    reviewPageCache.evict(productId);
+    reviewHelpfulVoteService.forgetReview(reviewId);
+    pushProductRating(productId, productRatingStatsService.onReviewDeleted(review));
   }
 
-  @Transactional(readOnly = true)
+  /**
+   * Newest reviews for a product. The first page is served from Redis; reviewers are
+   * fetched in the same query as the reviews, so no page triggers per-review user loads.
+   */
   public Page<ReviewResponse> getProductReviews(String productId, String userId, Pageable pageable) {
-    return reviewRepository.findByProductIdOrderByCreatedAtDesc(productId, pageable)
-        .map(review -> {
-          boolean isOwner = userId != null &&
-              review.getUser().getId().toString().equals(userId);
-          return ReviewResponse.from(review, isOwner);
-        });
+    if (pageable.getPageNumber() != 0 || pageable.getPageSize() != ReviewPageCacheRepository.FIRST_PAGE_SIZE
+        || pageable.getSort().isSorted()) {
+      return reviewRepository.findByProductIdOrderByCreatedAtDesc(productId, pageable)
+          .map(review -> toResponse(review, userId));
+    }
+
+    CachedReviewPage cached = reviewPageCache.findByProductId(productId).orElseGet(() -> {
+      Page<Review> page = reviewRepository.findByProductIdOrderByCreatedAtDesc(productId, pageable);
+      CachedReviewPage loaded = new CachedReviewPage(
+          page.getContent().stream().map(ReviewResponse::from).toList(),
+          page.getContent().stream().map(review -> review.getUser().getId().toString()).toList(),
+          page.getTotalElements());
+      reviewPageCache.save(productId, loaded);
+      return loaded;
+    });
+
+    List<ReviewResponse> reviews = new ArrayList<>(cached.getReviews().size());
+    for (int i = 0; i < cached.getReviews().size(); i++) {
+      ReviewResponse review = cached.getReviews().get(i);
+      review.setIsOwner(userId != null && userId.equals(cached.getReviewerIds().get(i)));
+      reviews.add(review);
+    }
+    return new PageImpl<>(reviews, pageable, cached.getTotalElements());
   }
 
   @Transactional(readOnly = true)
   public Page<ReviewResponse> getProductReviewsByRating(String productId, Integer rating,
                                                         String userId, Pageable pageable) {
     return reviewRepository.findByProductIdAndRatingOrderByCreatedAtDesc(productId, rating, pageable)
-        .map(review -> {
-          boolean isOwner = userId != null &&
-              review.getUser().getId().toString().equals(userId);
-          return ReviewResponse.from(review, isOwner);
-        });
+        .map(review -> toResponse(review, userId));
   }
 
   @Transactional(readOnly = true)
   public Page<ReviewResponse> getVerifiedReviews(String productId, String userId, Pageable pageable) {
     return reviewRepository.findByProductIdAndVerifiedPurchaseTrueOrderByCreatedAtDesc(productId, pageable)
-        .map(review -> {
-          boolean isOwner = userId != null &&
-              review.getUser().getId().toString().equals(userId);
-          return ReviewResponse.from(review, isOwner);
-        });
+        .map(review -> toResponse(review, userId));
   }
 
   @Transactional(readOnly = true)
@@ -152,44 +177,39 @@ public class ReviewService {
 
   @Transactional(readOnly = true)
   public ReviewStatsResponse getProductReviewStats(String productId) {
-    Double avgRating = reviewRepository.findAverageRatingByProductId(productId);
-    Long totalReviews = reviewRepository.countByProductId(productId);
-    Long verifiedCount = reviewRepository.countVerifiedByProductId(productId);
-    List<Object[]> distribution = reviewRepository.findRatingDistributionByProductId(productId);
+    ProductRatingStats stats = productRatingStatsService.getStats(productId);
+    long totalReviews = stats.getReviewCount();
 
     Map<Integer, Integer> ratingDistribution = new HashMap<>();
     Map<Integer, Double> ratingPercentages = new HashMap<>();
 
     for (int i = 1; i <= 5; i++) {
-      ratingDistribution.put(i, 0);
-      ratingPercentages.put(i, 0.0);
-    }
-
-    for (Object[] row : distribution) {
-      Integer rating = (Integer) row[0];
-      Long count = (Long) row[1];
-      ratingDistribution.put(rating, count.intValue());
-      if (totalReviews > 0) {
-        ratingPercentages.put(rating, (count * 100.0) / totalReviews);
-      }
+      long count = stats.getStarCount(i);
+      ratingDistribution.put(i, (int) count);
+      ratingPercentages.put(i, totalReviews > 0 ? (count * 100.0) / totalReviews : 0.0);
     }
 
     return ReviewStatsResponse.builder()
         .productId(productId)
-        .averageRating(avgRating != null ? Math.round(avgRating * 10.0) / 10.0 : 0.0)
-        .totalReviews(totalReviews != null ? totalReviews.intValue() : 0)
+        .averageRating(Math.round(stats.getAverageRating() * 10.0) / 10.0)
+        .totalReviews((int) totalReviews)
         .ratingDistribution(ratingDistribution)
         .ratingPercentages(ratingPercentages)
-        .verifiedPurchaseCount(verifiedCount != null ? verifiedCount.intValue() : 0)
+        .verifiedPurchaseCount((int) stats.getVerifiedCount())
         .build();
   }
 
-  @Transactional
-  public void markHelpful(UUID reviewId) {
+  /**
+   * Count a helpful vote, at most once per voter. Votes are buffered and reach
+   * helpful_count within a few seconds.
+   */
+  public void markHelpful(UUID reviewId, String voterId) {
     if (!reviewRepository.existsById(reviewId)) {
       throw new ResourceNotFoundException("Review not found");
     }
-    reviewRepository.incrementHelpfulCount(reviewId);
+    if (!reviewHelpfulVoteService.recordVote(reviewId, voterId)) {
+      throw new BadRequestException("You have already marked this review as helpful");
+    }
   }
 
   @Transactional(readOnly = true)
@@ -199,45 +219,33 @@ public class ReviewService {
   }
 
   @Transactional(readOnly = true)
-  public boolean canUserReview(User user, String productId) {
-    if (reviewRepository.existsByUserAndProductId(user, productId)) {
-      return false;
-    }
-    return true;
+  public ReviewEligibility canUserReview(User user, String productId) {
+    boolean alreadyReviewed = reviewRepository.existsByUserAndProductId(user, productId);
+    boolean verified = verifyPurchase(user, productId).verified;
+    return new ReviewEligibility(!alreadyReviewed, verified);
   }
 
 
   private VerificationResult verifyPurchase(User user, String productId) {
-    List<Order> deliveredOrders = orderRepository.findByUserIdAndStatus(
-        user.getId().toString(),
-        OrderStatus.DELIVERED
-    );
-
-    for (Order order : deliveredOrders) {
-      boolean hasProduct = order.getItems().stream()
-          .anyMatch(item -> item.getProductId().equals(productId));
-      if (hasProduct) {
-        return new VerificationResult(true, order.getOrderNumber());
-      }
-    }
-
-    return new VerificationResult(false, null);
+    return purchaseHistoryService.findPurchase(user.getId().toString(), productId)
+        .map(purchase -> new VerificationResult(true, purchase.getOrderNumber()))
+        .orElse(new VerificationResult(false, null));
   }
 
-  private void updateProductRating(String productId) {
+  private void pushProductRating(String productId, ProductRatingStatsService.RatingSummary rating) {
     try {
-      Double avgRating = reviewRepository.findAverageRatingByProductId(productId);
-      Long reviewCount = reviewRepository.countByProductId(productId);
-
-      productSyncService.updateProductRating(
-          productId,
-          avgRating != null ? avgRating : 0.0,
-          reviewCount != null ? reviewCount.intValue() : 0
-      );
+      productRepository.updateRating(productId, rating.averageRating(), rating.reviewCount());
     } catch (Exception e) {
-      log.error("Failed to update product rating in Elasticsearch: {}", e.getMessage());
+      log.error("Failed to update rating of product {}: {}", productId, e.getMessage());
     }
   }
 
+  private static ReviewResponse toResponse(Review review, String userId) {
+    boolean isOwner = userId != null && review.getUser().getId().toString().equals(userId);
+    return ReviewResponse.from(review, isOwner);
+  }
+
+  public record ReviewEligibility(boolean canReview, boolean verifiedPurchase) {}
+
   private record VerificationResult(boolean verified, String orderNumber) {}
 }
\ No newline at end of file
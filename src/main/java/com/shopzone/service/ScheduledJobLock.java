@@ -0,0 +1,60 @@
+package com.shopzone.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Keeps a scheduled job to one instance at a time with a PostgreSQL session advisory
+ * lock named after the job.
+ *
+ * The lock is taken and released on one pooled connection that is held for the whole
+ * run; the job itself uses its own connections. If the instance dies, the database ends
+ * the session and the lock is released with it.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ScheduledJobLock {
+
+  private final JdbcTemplate jdbcTemplate;
+
+
+  /**
+   * Run the job unless another instance is running it.
+   *
+   * @return false if the job was skipped because the lock is held elsewhere
+   */
+  public boolean runExclusively(String job, Runnable task) {
+    Boolean ran = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+      if (!call(connection, "SELECT pg_try_advisory_lock(hashtext(?))", job)) {
+        log.info("Skipping {}, it is running on another instance", job);
+        return false;
+      }
+      try {
+        task.run();
+        return true;
+      } finally {
+        call(connection, "SELECT pg_advisory_unlock(hashtext(?))", job);
+      }
+    });
+    return Boolean.TRUE.equals(ran);
+  }
+
+
+  private boolean call(Connection connection, String sql, String job) throws SQLException {
+    try (PreparedStatement statement = connection.prepareStatement(sql)) {
+      statement.setString(1, "shopzone:" + job);
+      try (ResultSet result = statement.executeQuery()) {
+        return result.next() && result.getBoolean(1);
+      }
+    }
+  }
+}
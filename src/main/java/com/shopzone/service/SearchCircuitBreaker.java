@@ -0,0 +1,113 @@
+package com.shopzone.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.HealthStatus;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Circuit breaker in front of Elasticsearch for storefront search.
+ *
+ * Failed calls and calls slower than the latency budget count against Elasticsearch;
+ * after enough of them in a row the breaker opens and search is served from MongoDB
+ * (ProductSearchFallback). A cluster health probe also opens it when the cluster is
+ * unreachable or red, and closes it again once the cluster answers healthy within
+ * the budget after the open period.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SearchCircuitBreaker {
+
+  public enum State { CLOSED, OPEN }
+
+  private final ElasticsearchClient elasticsearchClient;
+  private final MeterRegistry meterRegistry;
+
+  private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+  private final AtomicInteger consecutiveFailures = new AtomicInteger();
+  private volatile long openedAtNanos;
+
+  @Value("${shopzone.search.fallback.latency-budget:PT0.8S}")
+  private Duration latencyBudget;
+
+  @Value("${shopzone.search.fallback.failure-threshold:5}")
+  private int failureThreshold;
+
+  @Value("${shopzone.search.fallback.open-duration:PT30S}")
+  private Duration openDuration;
+
+
+  @PostConstruct
+  public void registerMetrics() {
+    Gauge.builder("shopzone.search.circuit.open", state, s -> s.get() == State.OPEN ? 1 : 0)
+        .description("1 while search is served from the MongoDB fallback")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Whether the next search should go to Elasticsearch.
+   */
+  public boolean allowRequest() {
+    return state.get() == State.CLOSED;
+  }
+
+  public void recordSuccess(long elapsedNanos) {
+    if (elapsedNanos > latencyBudget.toNanos()) {
+      recordFailure("slow response (" + Duration.ofNanos(elapsedNanos).toMillis() + "ms)");
+    } else {
+      consecutiveFailures.set(0);
+    }
+  }
+
+  public void recordFailure(String reason) {
+    if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+      open(reason);
+    }
+  }
+
+  public State getState() {
+    return state.get();
+  }
+
+  @Scheduled(fixedDelayString = "${shopzone.search.fallback.health-check-interval-ms:10000}")
+  public void probe() {
+    long start = System.nanoTime();
+    boolean healthy;
+    try {
+      HealthStatus status = elasticsearchClient.cluster().health().status();
+      healthy = status != HealthStatus.Red && System.nanoTime() - start <= latencyBudget.toNanos();
+    } catch (Exception e) {
+      healthy = false;
+    }
+
+    if (!healthy) {
+      open("cluster health check failed");
+    } else if (state.get() == State.OPEN && System.nanoTime() - openedAtNanos >= openDuration.toNanos()) {
+      consecutiveFailures.set(0);
+      if (state.compareAndSet(State.OPEN, State.CLOSED)) {
+        meterRegistry.counter("shopzone.search.circuit.transitions", "to", "closed").increment();
+        log.info("Elasticsearch healthy again, search circuit closed");
+      }
+    }
+  }
+
+
+  private void open(String reason) {
+    openedAtNanos = System.nanoTime();
+    if (state.getAndSet(State.OPEN) == State.CLOSED) {
+      meterRegistry.counter("shopzone.search.circuit.transitions", "to", "open").increment();
+      log.warn("Search circuit opened, serving search from MongoDB: {}", reason);
+    }
+  }
+}
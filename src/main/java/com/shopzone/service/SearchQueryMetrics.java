@@ -0,0 +1,237 @@
+package com.shopzone.service;
+
+import co.elastic.clients.json.JsonpMapper;
+import co.elastic.clients.json.JsonpSerializable;
+import co.elastic.clients.json.jackson.JacksonJsonpMapper;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.shopzone.dto.request.ProductSearchRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.json.stream.JsonGenerator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.stereotype.Component;
+
+import java.io.StringWriter;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Server-side search latency.
+ *
+ * Every Elasticsearch call is recorded twice: the client round trip
+ * (shopzone.search.latency) and the time Elasticsearch reports in took
+ * (shopzone.search.took), both with percentile histograms and tagged by query shape, so
+ * network and client overhead show up as the gap between the two. Of the searches slower
+ * than the threshold, the N slowest since the last clear are kept with the query JSON
+ * with literal values replaced by "?", for the searchslowqueries actuator endpoint.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SearchQueryMetrics {
+
+  private static final Set<String> SORTS = Set.of("relevance", "price", "rating", "newest", "name");
+  /** Keys whose values are user input rather than query structure. */
+  private static final Set<String> LITERAL_KEYS =
+      Set.of("query", "value", "values", "prefix", "gt", "gte", "lt", "lte", "like", "search_after");
+
+  private static final JsonpMapper JSONP_MAPPER = new JacksonJsonpMapper();
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  private final MeterRegistry meterRegistry;
+
+  @Value("${shopzone.search.slow-queries.threshold:PT0.5S}")
+  private Duration slowThreshold;
+
+  @Value("${shopzone.search.slow-queries.max-entries:50}")
+  private int maxSlowQueries;
+
+  /** Min-heap on round trip, so the fastest of the kept queries is the one evicted. */
+  private final PriorityQueue<SlowQuery> slowQueries =
+      new PriorityQueue<>(Comparator.comparingLong(SlowQuery::roundTripMs));
+
+
+  /**
+   * Tags describing the shape of a product search: free text or browse, number of
+   * filters, sort and whether facets were requested. Sort values outside the known set
+   * are reported as relevance, which is also how they are searched.
+   */
+  public Tags searchShape(ProductSearchRequest request) {
+    int filters = 0;
+    if (request.getMinPrice() != null || request.getMaxPrice() != null) filters++;
+    if (request.getCategoryId() != null && !request.getCategoryId().isBlank()) filters++;
+    if (request.getBrand() != null && !request.getBrand().isBlank()) filters++;
+    if (request.getTags() != null && !request.getTags().isEmpty()) filters++;
+    if (request.getMinRating() != null) filters++;
+    if (Boolean.TRUE.equals(request.getInStock())) filters++;
+
+    boolean text = request.getQuery() != null && !request.getQuery().isBlank();
+    String sort = SORTS.contains(request.getSortBy()) ? request.getSortBy() : "relevance";
+
+    return Tags.of(
+        "operation", "search",
+        "type", text ? "text" : "browse",
+        "filters", String.valueOf(filters),
+        "sort", sort,
+        "facets", String.valueOf(Boolean.TRUE.equals(request.getIncludeFacets())));
+  }
+
+  public Tags autocompleteShape() {
+    return Tags.of("operation", "autocomplete", "type", "prefix", "filters", "0", "sort", "score", "facets", "false");
+  }
+
+  /**
+   * Record one Elasticsearch call.
+   *
+   * @param took Elasticsearch's own execution time, or null when the response had none
+   */
+  public void record(Tags shape, NativeQuery query, long roundTripNanos, Duration took) {
+    Timer.builder("shopzone.search.latency")
+        .description("Search round trip from the application to Elasticsearch")
+        .tags(shape)
+        .publishPercentileHistogram()
+        .register(meterRegistry)
+        .record(roundTripNanos, TimeUnit.NANOSECONDS);
+
+    if (took != null) {
+      Timer.builder("shopzone.search.took")
+          .description("Search execution time reported by Elasticsearch")
+          .tags(shape)
+          .publishPercentileHistogram()
+          .register(meterRegistry)
+          .record(took);
+    }
+
+    if (roundTripNanos >= slowThreshold.toNanos() && isAmongSlowest(TimeUnit.NANOSECONDS.toMillis(roundTripNanos))) {
+      SlowQuery slow = new SlowQuery(
+          LocalDateTime.now(),
+          TimeUnit.NANOSECONDS.toMillis(roundTripNanos),
+          took != null ? took.toMillis() : null,
+          shape.stream().collect(Collectors.toMap(Tag::getKey, Tag::getValue, (a, b) -> b, LinkedHashMap::new)),
+          normalize(query));
+      synchronized (slowQueries) {
+        slowQueries.add(slow);
+        while (slowQueries.size() > maxSlowQueries) {
+          slowQueries.poll();
+        }
+      }
+    }
+  }
+
+  /**
+   * The slowest queries since the last clear, slowest first.
+   */
+  public List<SlowQuery> getSlowQueries() {
+    synchronized (slowQueries) {
+      return slowQueries.stream()
+          .sorted(Comparator.comparingLong(SlowQuery::roundTripMs).reversed())
+          .toList();
+    }
+  }
+
+  public void clearSlowQueries() {
+    synchronized (slowQueries) {
+      slowQueries.clear();
+    }
+  }
+
+
+  /**
+   * Whether a query this slow would be kept, checked before the query is serialized.
+   */
+  private boolean isAmongSlowest(long roundTripMs) {
+    synchronized (slowQueries) {
+      if (slowQueries.size() < maxSlowQueries) {
+        return true;
+      }
+      SlowQuery fastest = slowQueries.peek();
+      return fastest != null && fastest.roundTripMs() < roundTripMs;
+    }
+  }
+
+  private static JsonNode normalize(NativeQuery query) {
+    ObjectNode json = OBJECT_MAPPER.createObjectNode();
+    try {
+      if (query.getQuery() != null) {
+        json.set("query", toJson(query.getQuery()));
+      }
+      if (query.getFilter() != null) {
+        json.set("post_filter", toJson(query.getFilter()));
+      }
+      if (!query.getSortOptions().isEmpty()) {
+        ArrayNode sort = json.putArray("sort");
+        for (JsonpSerializable option : query.getSortOptions()) {
+          sort.add(toJson(option));
+        }
+      }
+      if (!query.getAggregations().isEmpty()) {
+        json.putArray("aggregations").addAll(
+            query.getAggregations().keySet().stream().map(TextNode::valueOf).toList());
+      }
+      if (query.getSuggester() != null) {
+        json.set("suggest", toJson(query.getSuggester()));
+      }
+      if (query.getSearchAfter() != null) {
+        json.put("search_after", "?");
+      }
+      if (query.getPageable().isPaged()) {
+        json.put("from", query.getPageable().getOffset());
+        json.put("size", query.getPageable().getPageSize());
+      }
+      stripLiterals(json);
+    } catch (Exception e) {
+      log.debug("Could not serialize slow search query: {}", e.getMessage());
+    }
+    return json;
+  }
+
+  private static JsonNode toJson(JsonpSerializable value) throws Exception {
+    StringWriter writer = new StringWriter();
+    try (JsonGenerator generator = JSONP_MAPPER.jsonProvider().createGenerator(writer)) {
+      value.serialize(generator, JSONP_MAPPER);
+    }
+    return OBJECT_MAPPER.readTree(writer.toString());
+  }
+
+  private static void stripLiterals(JsonNode node) {
+    if (node instanceof ObjectNode object) {
+      Iterator<Map.Entry<String, JsonNode>> fields = object.fields();
+      while (fields.hasNext()) {
+        Map.Entry<String, JsonNode> field = fields.next();
+        // Range bounds, match text and the like are replaced; nested query objects are kept
+        if (LITERAL_KEYS.contains(field.getKey()) && !field.getValue().isObject()) {
+          field.setValue(TextNode.valueOf("?"));
+        } else {
+          stripLiterals(field.getValue());
+        }
+      }
+    } else if (node instanceof ArrayNode array) {
+      array.forEach(SearchQueryMetrics::stripLiterals);
+    }
+  }
+
+  public record SlowQuery(
+      LocalDateTime at,
+      long roundTripMs,
+      Long tookMs,
+      Map<String, String> shape,
+      JsonNode query) {}
+}
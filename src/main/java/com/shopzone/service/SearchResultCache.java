@@ -0,0 +1,168 @@
+package com.shopzone.service;
+
+import com.shopzone.dto.request.ProductSearchRequest;
+import com.shopzone.dto.response.SearchResultResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory cache of product search results.
+ *
+ * Keys are built from a normalized ProductSearchRequest, so requests that differ only in
+ * case, whitespace or tag order share an entry. Entries expire after a short TTL and the
+ * least recently used entry is dropped once the cache is full. Anything that writes to
+ * the search index bumps the generation, which invalidates every entry at once.
+ *
+ * Index writes usually happen on another instance (the outbox relay runs on whichever
+ * instance holds its lease), so invalidate() also increments a shared counter in Redis.
+ * Every instance polls that counter and bumps its own generation when it moves, so
+ * results are stale for at most one poll interval across the cluster.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SearchResultCache {
+
+  private static final String SHARED_GENERATION_KEY = "search:cache:generation";
+
+  private final MeterRegistry meterRegistry;
+  private final StringRedisTemplate redisTemplate;
+
+  private final AtomicLong generation = new AtomicLong();
+  /** Last value of the shared counter this instance has acted on. */
+  private final AtomicLong sharedGeneration = new AtomicLong();
+
+  @Value("${shopzone.search.cache.ttl:PT30S}")
+  private Duration ttl;
+
+  @Value("${shopzone.search.cache.max-entries:10000}")
+  private int maxEntries;
+
+  private final Map<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+      return size() > maxEntries;
+    }
+  };
+
+
+  public Optional<SearchResultResponse> get(String key) {
+    Entry entry;
+    synchronized (entries) {
+      entry = entries.get(key);
+      if (entry != null && !entry.isValid(generation.get())) {
+        entries.remove(key);
+        entry = null;
+      }
+    }
+
+    if (entry == null) {
+      meterRegistry.counter("shopzone.search.cache", "result", "miss").increment();
+      return Optional.empty();
+    }
+    meterRegistry.counter("shopzone.search.cache", "result", "hit").increment();
+    meterRegistry.counter("shopzone.search.cache.saved.ms").increment(entry.response().getSearchTimeMs());
+    return Optional.of(entry.response());
+  }
+
+  /**
+   * Cache a result computed while generation {@code generationAtStart} was current. If
+   * the index changed in the meantime the result is not cached.
+   */
+  public void put(String key, SearchResultResponse response, long generationAtStart) {
+    synchronized (entries) {
+      if (generation.get() == generationAtStart) {
+        entries.put(key, new Entry(response, generationAtStart, System.nanoTime() + ttl.toNanos()));
+      }
+    }
+  }
+
+  public long currentGeneration() {
+    return generation.get();
+  }
+
+  /**
+   * Invalidate all cached results, here at once and on other instances at their next
+   * poll. Called after every write to the search index.
+   */
+  public void invalidate() {
+    generation.incrementAndGet();
+    try {
+      Long shared = redisTemplate.opsForValue().increment(SHARED_GENERATION_KEY);
+      if (shared != null) {
+        // Already invalidated here, so the poll need not do it again
+        sharedGeneration.compareAndSet(shared - 1, shared);
+      }
+    } catch (Exception e) {
+      log.warn("Failed to publish search cache invalidation: {}", e.getMessage());
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${shopzone.search.cache.invalidation-poll-ms:1000}")
+  public void pollSharedGeneration() {
+    try {
+      String value = redisTemplate.opsForValue().get(SHARED_GENERATION_KEY);
+      long shared = value != null ? Long.parseLong(value) : 0;
+      if (sharedGeneration.getAndSet(shared) != shared) {
+        generation.incrementAndGet();
+      }
+    } catch (Exception e) {
+      log.debug("Failed to read shared search cache generation: {}", e.getMessage());
+    }
+  }
+
+  public String key(ProductSearchRequest request) {
+    // Tag filters are ANDed, so their order and duplicates do not matter
+    List<String> tags = request.getTags() == null ? List.of() : request.getTags().stream()
+        .distinct()
+        .sorted()
+        .toList();
+
+    // The query is analyzed and the brand filter is case-insensitive; other values are
+    // matched exactly and only blank-to-empty is safe to normalize
+    String query = request.getQuery() == null ? ""
+        : request.getQuery().trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    String brand = isBlank(request.getBrand()) ? "" : request.getBrand().toLowerCase(Locale.ROOT);
+
+    return String.join("|",
+        query,
+        String.valueOf(request.getMinPrice()),
+        String.valueOf(request.getMaxPrice()),
+        isBlank(request.getCategoryId()) ? "" : request.getCategoryId(),
+        brand,
+        String.join(",", tags),
+        String.valueOf(request.getMinRating()),
+        String.valueOf(Boolean.TRUE.equals(request.getInStock())),
+        String.valueOf(request.getPage()),
+        String.valueOf(request.getCursor()),
+        String.valueOf(request.getSize()),
+        String.valueOf(request.getSortBy()),
+        "asc".equalsIgnoreCase(request.getSortDir()) ? "asc" : "desc",
+        String.valueOf(Boolean.TRUE.equals(request.getIncludeFacets())));
+  }
+
+
+  private static boolean isBlank(String value) {
+    return value == null || value.isBlank();
+  }
+
+  private record Entry(SearchResultResponse response, long generation, long expiresAtNanos) {
+
+    boolean isValid(long currentGeneration) {
+      return generation == currentGeneration && System.nanoTime() - expiresAtNanos < 0;
+    }
+  }
+}
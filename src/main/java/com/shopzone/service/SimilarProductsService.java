@@ -0,0 +1,286 @@
+package com.shopzone.service;
+
+import co.elastic.clients.json.JsonData;
+import com.shopzone.model.Product;
+import com.shopzone.model.SimilarProducts;
+import com.shopzone.model.elasticsearch.ProductDocument;
+import com.shopzone.repository.elasticsearch.ProductSearchRepository;
+import com.shopzone.repository.mongo.ProductRepository;
+import com.shopzone.repository.mongo.SimilarProductsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilter;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Similar products, precomputed per product.
+ *
+ * A list combines products often bought in the same order with a more_like_this query on
+ * the product's text plus category, brand and price signals. Lists are computed only by a
+ * scheduled job and stored in similar_products; product and category changes mark them
+ * stale and the job recomputes stale and old lists. Product pages read the stored ids and
+ * hydrate them from an in-memory document cache, falling back to a multi-get. A product
+ * with no list yet gets the more_like_this matches alone and is queued for the job.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SimilarProductsService {
+
+  private static final int MAX_SIMILAR = 20;
+  private static final int MIN_CO_PURCHASE_ORDERS = 2;
+
+  private final SimilarProductsRepository similarProductsRepository;
+  private final ProductRepository productRepository;
+  private final ProductSearchRepository productSearchRepository;
+  private final ElasticsearchOperations elasticsearchOperations;
+  private final MongoTemplate mongoTemplate;
+  private final JdbcTemplate jdbcTemplate;
+
+  @Value("${shopzone.search.similar.max-age:P1D}")
+  private Duration maxAge;
+
+  @Value("${shopzone.search.similar.refresh-batch-size:200}")
+  private int refreshBatchSize;
+
+  @Value("${shopzone.search.similar.cache-ttl:PT5M}")
+  private Duration cacheTtl;
+
+  @Value("${shopzone.search.similar.cache-max-entries:5000}")
+  private int cacheMaxEntries;
+
+  private final Map<String, CachedDocument> documentCache = new LinkedHashMap<>(256, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, CachedDocument> eldest) {
+      return size() > cacheMaxEntries;
+    }
+  };
+
+
+  public List<ProductDocument> getSimilarProducts(String productId, int limit) {
+    List<String> ids = similarProductsRepository.findById(productId)
+        .map(SimilarProducts::getSimilarIds)
+        .orElseGet(() -> contentOnly(productId));
+
+    return hydrate(ids).stream()
+        .limit(limit)
+        .toList();
+  }
+
+  /**
+   * Recompute and store the list for one product.
+   */
+  public SimilarProducts refresh(String productId) {
+    SimilarProducts similar = SimilarProducts.builder()
+        .productId(productId)
+        .similarIds(compute(productId))
+        .stale(false)
+        .computedAt(LocalDateTime.now())
+        .build();
+    return similarProductsRepository.save(similar);
+  }
+
+  /**
+   * Mark the lists of changed products for recomputation.
+   */
+  public void markStale(Collection<String> productIds) {
+    if (productIds.isEmpty()) {
+      return;
+    }
+    mongoTemplate.updateMulti(
+        Query.query(Criteria.where("productId").in(productIds)),
+        new Update().set("stale", true),
+        SimilarProducts.class);
+    synchronized (documentCache) {
+      productIds.forEach(documentCache::remove);
+    }
+  }
+
+  public void onCategoryChanged(String categoryId) {
+    markStale(productRepository.findByCategoryId(categoryId).stream()
+        .map(Product::getId)
+        .toList());
+  }
+
+  public void onProductDeleted(String productId) {
+    similarProductsRepository.deleteById(productId);
+    synchronized (documentCache) {
+      documentCache.remove(productId);
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${shopzone.search.similar.refresh-interval-ms:60000}")
+  public void refreshStale() {
+    try {
+      // A list can be both stale and old; refresh it once
+      Map<String, SimilarProducts> due = new LinkedHashMap<>();
+      similarProductsRepository.findByStaleTrue(PageRequest.of(0, refreshBatchSize))
+          .forEach(similar -> due.putIfAbsent(similar.getProductId(), similar));
+      similarProductsRepository.findByComputedAtBefore(
+              LocalDateTime.now().minus(maxAge), PageRequest.of(0, refreshBatchSize))
+          .forEach(similar -> due.putIfAbsent(similar.getProductId(), similar));
+
+      int refreshed = 0;
+      for (SimilarProducts similar : due.values()) {
+        try {
+          if (productRepository.existsById(similar.getProductId())) {
+            refresh(similar.getProductId());
+          } else {
+            similarProductsRepository.deleteById(similar.getProductId());
+          }
+          refreshed++;
+        } catch (Exception e) {
+          log.warn("Failed to refresh similar products for {}: {}", similar.getProductId(), e.getMessage());
+        }
+      }
+      if (refreshed > 0) {
+        log.debug("Refreshed {} similar-product lists", refreshed);
+      }
+    } catch (Exception e) {
+      log.error("Similar products refresh failed: {}", e.getMessage());
+    }
+  }
+
+
+  /**
+   * Stand-in list for a product that has none yet: the more_like_this matches, without
+   * the co-purchase query. It is stored marked stale, so later requests reuse it and the
+   * scheduled job replaces it with the full list; an existing list is never overwritten.
+   */
+  private List<String> contentOnly(String productId) {
+    List<String> ids = productSearchRepository.findById(productId)
+        .map(this::moreLikeThis)
+        .orElse(List.of());
+
+    mongoTemplate.upsert(
+        Query.query(Criteria.where("productId").is(productId)),
+        new Update()
+            .setOnInsert("similarIds", ids)
+            .setOnInsert("stale", true)
+            .setOnInsert("computedAt", LocalDateTime.now()),
+        SimilarProducts.class);
+    return ids;
+  }
+
+  private List<String> compute(String productId) {
+    Set<String> ids = new LinkedHashSet<>(coPurchased(productId));
+    productSearchRepository.findById(productId)
+        .ifPresent(product -> ids.addAll(moreLikeThis(product)));
+    ids.remove(productId);
+    return ids.stream().limit(MAX_SIMILAR).toList();
+  }
+
+  /**
+   * Products bought in the same order at least twice, most often first. Capped at half
+   * the list so content-based matches are always included.
+   */
+  private List<String> coPurchased(String productId) {
+    return jdbcTemplate.queryForList(
+        "SELECT other.product_id FROM order_items item " +
+            "JOIN order_items other ON other.order_id = item.order_id AND other.product_id <> item.product_id " +
+            "JOIN orders o ON o.id = item.order_id " +
+            "WHERE item.product_id = ? AND o.status <> 'CANCELLED' " +
+            "GROUP BY other.product_id HAVING COUNT(DISTINCT item.order_id) >= ? " +
+            "ORDER BY COUNT(DISTINCT item.order_id) DESC LIMIT ?",
+        String.class, productId, MIN_CO_PURCHASE_ORDERS, MAX_SIMILAR / 2);
+  }
+
+  private List<String> moreLikeThis(ProductDocument product) {
+    NativeQuery query = NativeQuery.builder()
+        .withQuery(q -> q
+            .bool(b -> {
+              b.mustNot(mn -> mn.term(t -> t.field("_id").value(product.getId())))
+                  .filter(f -> f.term(t -> t.field("active").value(true)))
+                  .should(s -> s
+                      .moreLikeThis(mlt -> mlt
+                          .fields("name", "description", "tags", "brand")
+                          .like(l -> l.document(d -> d.index(ProductReindexService.ALIAS).id(product.getId())))
+                          .minTermFreq(1)
+                          .minDocFreq(2)
+                          .maxQueryTerms(25)
+                          .boost(3.0f)
+                      )
+                  );
+
+              if (product.getCategoryId() != null) {
+                b.should(s -> s.term(t -> t.field("categoryId").value(product.getCategoryId()).boost(2.0f)));
+              }
+              if (product.getBrand() != null) {
+                b.should(s -> s.term(t -> t.field("brand").value(product.getBrand()).boost(1.5f)));
+              }
+              if (product.getPrice() != null) {
+                b.should(s -> s.range(r -> r
+                    .field("price")
+                    .gte(JsonData.of(product.getPrice() * 0.7))
+                    .lte(JsonData.of(product.getPrice() * 1.3))));
+              }
+              return b.minimumShouldMatch("1");
+            })
+        )
+        .withSourceFilter(new FetchSourceFilter(new String[]{"id"}, null))
+        .withPageable(PageRequest.of(0, MAX_SIMILAR))
+        .build();
+
+    return elasticsearchOperations.search(query, ProductDocument.class).getSearchHits().stream()
+        .map(SearchHit::getId)
+        .toList();
+  }
+
+  private List<ProductDocument> hydrate(List<String> ids) {
+    Map<String, ProductDocument> found = new HashMap<>();
+    List<String> missing = new ArrayList<>();
+    long now = System.nanoTime();
+
+    synchronized (documentCache) {
+      for (String id : ids) {
+        CachedDocument cached = documentCache.get(id);
+        if (cached != null && now - cached.expiresAtNanos() < 0) {
+          found.put(id, cached.document());
+        } else {
+          missing.add(id);
+        }
+      }
+    }
+
+    if (!missing.isEmpty()) {
+      List<ProductDocument> loaded = new ArrayList<>();
+      productSearchRepository.findAllById(missing).forEach(loaded::add);
+      long expiresAt = now + cacheTtl.toNanos();
+      synchronized (documentCache) {
+        for (ProductDocument document : loaded) {
+          documentCache.put(document.getId(), new CachedDocument(document, expiresAt));
+          found.put(document.getId(), document);
+        }
+      }
+    }
+
+    return ids.stream()
+        .map(found::get)
+        .filter(document -> document != null && !Boolean.FALSE.equals(document.getActive()))
+        .toList();
+  }
+
+  private record CachedDocument(ProductDocument document, long expiresAtNanos) {}
+}
@@ -0,0 +1,98 @@
+-- =====================================================================
+-- Convert orders / order_items to monthly RANGE partitions on created_at.
+--
+-- Run once in a maintenance window with the application stopped:
+--   psql -d shopzone -f src/main/resources/db/orders-partitioning.sql
+--
+-- Afterwards OrderPartitionService keeps upcoming months created and drops
+-- months emptied by OrderArchiveService.
+--
+-- Partitioned tables need the partition key in every unique constraint, so the
+-- keys become (id, created_at) / (id, order_created_at) and order_items gets a
+-- copy of its order's created_at to partition on.
+-- order_number can no longer be unique on orders alone; the unpartitioned
+-- order_numbers table (OrderNumberReservation) holds every issued number instead.
+-- =====================================================================
+
+BEGIN;
+
+-- 1. Partition key for order_items
+ALTER TABLE order_items ADD COLUMN IF NOT EXISTS order_created_at TIMESTAMP;
+
+UPDATE order_items i
+SET order_created_at = o.created_at
+FROM orders o
+WHERE i.order_id = o.id
+  AND i.order_created_at IS NULL;
+
+-- Items whose order no longer exists cannot be placed in a partition
+DELETE FROM order_items WHERE order_created_at IS NULL;
+
+-- 2. Move the existing tables aside
+ALTER TABLE order_items RENAME TO order_items_unpartitioned;
+ALTER TABLE orders RENAME TO orders_unpartitioned;
+
+-- 3. Partitioned parents
+CREATE TABLE orders (LIKE orders_unpartitioned INCLUDING DEFAULTS INCLUDING CONSTRAINTS)
+    PARTITION BY RANGE (created_at);
+ALTER TABLE orders ADD CONSTRAINT pk_orders PRIMARY KEY (id, created_at);
+ALTER TABLE orders ADD CONSTRAINT uk_orders_order_number UNIQUE (order_number, created_at);
+
+CREATE TABLE order_items (LIKE order_items_unpartitioned INCLUDING DEFAULTS INCLUDING CONSTRAINTS)
+    PARTITION BY RANGE (order_created_at);
+ALTER TABLE order_items ALTER COLUMN order_created_at SET NOT NULL;
+ALTER TABLE order_items ADD CONSTRAINT pk_order_items PRIMARY KEY (id, order_created_at);
+
+-- 4. One partition per month from the oldest order up to three months ahead
+DO $$
+DECLARE
+    month_start DATE;
+BEGIN
+    FOR month_start IN
+        SELECT d::date
+        FROM generate_series(
+            (SELECT date_trunc('month', COALESCE(MIN(created_at), now())) FROM orders_unpartitioned),
+            date_trunc('month', now()) + INTERVAL '3 months',
+            INTERVAL '1 month') AS d
+    LOOP
+        EXECUTE format('CREATE TABLE orders_%s PARTITION OF orders FOR VALUES FROM (%L) TO (%L)',
+            to_char(month_start, 'YYYY_MM'), month_start, month_start + INTERVAL '1 month');
+        EXECUTE format('CREATE TABLE order_items_%s PARTITION OF order_items FOR VALUES FROM (%L) TO (%L)',
+            to_char(month_start, 'YYYY_MM'), month_start, month_start + INTERVAL '1 month');
+    END LOOP;
+END $$;
+
+-- Safety net in case the maintenance job falls behind
+CREATE TABLE orders_default PARTITION OF orders DEFAULT;
+CREATE TABLE order_items_default PARTITION OF order_items DEFAULT;
+
+-- 5. Copy data
+INSERT INTO orders SELECT * FROM orders_unpartitioned;
+INSERT INTO order_items SELECT * FROM order_items_unpartitioned;
+
+CREATE TABLE IF NOT EXISTS order_numbers (
+    order_number VARCHAR(20) PRIMARY KEY,
+    reserved_at  TIMESTAMP NOT NULL
+);
+INSERT INTO order_numbers (order_number, reserved_at)
+SELECT order_number, created_at FROM orders_unpartitioned
+ON CONFLICT (order_number) DO NOTHING;
+
+DROP TABLE order_items_unpartitioned;
+DROP TABLE orders_unpartitioned;
+
+-- 6. Indexes (created per partition automatically) and the composite FK
+CREATE INDEX idx_order_user_id ON orders (user_id);
+CREATE INDEX idx_order_number ON orders (order_number);
+CREATE INDEX idx_order_status ON orders (status);
+CREATE INDEX idx_order_created_at ON orders (created_at);
+CREATE INDEX idx_order_payment_intent ON orders (stripe_payment_intent_id);
+CREATE INDEX idx_order_items_order_id ON order_items (order_id);
+CREATE INDEX idx_order_items_product_id ON order_items (product_id);
+
+ALTER TABLE order_items
+    ADD CONSTRAINT fk_order_items_order
+    FOREIGN KEY (order_id, order_created_at) REFERENCES orders (id, created_at)
+    ON DELETE CASCADE;
+
+COMMIT;
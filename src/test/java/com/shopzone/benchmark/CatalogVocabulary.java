@@ -0,0 +1,100 @@
+package com.shopzone.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Words, brands and tags of the synthetic catalog. Built from the seed alone, so the
+ * generator and the query workload agree on them without sharing state.
+ */
+class CatalogVocabulary {
+
+  static final List<String> ADJECTIVES = List.of(
+      "wireless", "portable", "compact", "premium", "classic", "modern", "ergonomic", "smart",
+      "lightweight", "waterproof", "rechargeable", "foldable", "adjustable", "vintage", "organic",
+      "professional", "ultra", "slim", "heavy-duty", "eco");
+
+  static final List<String> NOUNS = List.of(
+      "headphones", "speaker", "keyboard", "mouse", "monitor", "backpack", "jacket", "sneakers",
+      "watch", "lamp", "chair", "desk", "blender", "kettle", "camera", "tripod", "charger",
+      "bottle", "tent", "blanket", "mug", "notebook", "router", "drone", "scooter");
+
+  static final List<String> MATERIALS = List.of(
+      "aluminium", "leather", "cotton", "bamboo", "steel", "wool", "ceramic", "glass", "nylon", "oak");
+
+  static final List<String> COLORS = List.of(
+      "black", "white", "silver", "navy", "red", "green", "graphite", "beige", "blue", "orange");
+
+  private static final List<String> FILLER = List.of(
+      "designed", "for", "everyday", "use", "with", "a", "durable", "finish", "and", "long",
+      "battery", "life", "perfect", "travel", "home", "office", "comfortable", "fit", "easy",
+      "clean", "includes", "warranty", "quality", "build", "fast", "setup", "great", "gift");
+
+  private static final String[] SYLLABLES = {
+      "ka", "lo", "mi", "tra", "zen", "vo", "rix", "na", "pel", "su", "quo", "dex", "ar", "bel", "tor", "fy"};
+
+  private final List<String> brands;
+  private final List<String> tags;
+
+  CatalogVocabulary(long seed, int brandCount, int tagCount) {
+    Random random = new Random(seed);
+
+    brands = new ArrayList<>(brandCount);
+    Set<String> seen = new HashSet<>();
+    for (int i = 0; i < brandCount; i++) {
+      StringBuilder name = new StringBuilder();
+      int syllables = 2 + random.nextInt(2);
+      for (int s = 0; s < syllables; s++) {
+        name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+      }
+      String brand = capitalize(name.toString());
+      // Generated names have no spaces, so the suffixed form cannot collide
+      brands.add(seen.add(brand) ? brand : brand + " " + i);
+    }
+
+    List<String> words = new ArrayList<>();
+    words.addAll(ADJECTIVES);
+    words.addAll(MATERIALS);
+    words.addAll(COLORS);
+    words.addAll(NOUNS);
+    tags = new ArrayList<>(tagCount);
+    for (int i = 0; i < tagCount; i++) {
+      String word = words.get(i % words.size());
+      tags.add(i < words.size() ? word : word + "-" + (i / words.size()));
+    }
+  }
+
+  String brand(int rank) {
+    return brands.get(rank);
+  }
+
+  String tag(int rank) {
+    return tags.get(rank);
+  }
+
+  static <T> T pick(List<T> values, Random random) {
+    return values.get(random.nextInt(values.size()));
+  }
+
+  static String productName(Random random) {
+    return capitalize(pick(ADJECTIVES, random)) + " " + pick(MATERIALS, random) + " "
+        + pick(NOUNS, random) + " " + (char) ('A' + random.nextInt(26)) + (100 + random.nextInt(900));
+  }
+
+  static String description(Random random, String name) {
+    int length = 20 + random.nextInt(40);
+    StringBuilder description = new StringBuilder(name).append('.');
+    for (int i = 0; i < length; i++) {
+      description.append(' ').append(random.nextInt(6) == 0 ? pick(ADJECTIVES, random) : pick(FILLER, random));
+    }
+    return description.append('.').toString();
+  }
+
+  static String capitalize(String word) {
+    return word.substring(0, 1).toUpperCase(Locale.ROOT) + word.substring(1);
+  }
+}
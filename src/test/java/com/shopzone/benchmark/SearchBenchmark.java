@@ -0,0 +1,169 @@
+package com.shopzone.benchmark;
+
+import com.shopzone.dto.response.SearchResultResponse;
+import com.shopzone.service.ProductSearchService;
+import com.shopzone.service.SimilarProductsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search benchmark, started by {@link SearchBenchmarkApplication} against local MongoDB
+ * and Elasticsearch (docker/docker-compose.yml).
+ *
+ * Generates the synthetic catalog (unless shopzone.benchmark.generate=false), loads the
+ * workload file or writes a new one, replays it once to warm up and then measures it.
+ * It reports p50/p95/p99 per operation; the exit code is 1 if any operation failed. Searches answered from the result
+ * cache are reported apart from the ones that went to Elasticsearch, and the first
+ * similar-products request per product (which computes the list) apart from later ones;
+ * with warm-up rounds the first requests all fall into the warm-up, so set
+ * shopzone.benchmark.warmup-rounds=0 to measure them.
+ */
+@Component
+@Profile("benchmark")
+@RequiredArgsConstructor
+@Slf4j
+public class SearchBenchmark implements ApplicationRunner, ExitCodeGenerator {
+
+  private final SyntheticCatalogGenerator catalogGenerator;
+  private final ProductSearchService productSearchService;
+  private final SimilarProductsService similarProductsService;
+
+  @Value("${shopzone.benchmark.generate:true}")
+  private boolean generate;
+
+  @Value("${shopzone.benchmark.workload-file:search-workload.jsonl}")
+  private Path workloadFile;
+
+  @Value("${shopzone.benchmark.workload-size:5000}")
+  private int workloadSize;
+
+  @Value("${shopzone.benchmark.seed:42}")
+  private long seed;
+
+  @Value("${shopzone.benchmark.warmup-rounds:1}")
+  private int warmupRounds;
+
+  private int errors;
+
+
+  @Override
+  public void run(ApplicationArguments args) throws Exception {
+    if (generate) {
+      catalogGenerator.generate();
+    }
+
+    SearchWorkload workload;
+    if (Files.exists(workloadFile)) {
+      workload = SearchWorkload.read(workloadFile);
+      log.info("Replaying {} operations from {}", workload.steps().size(), workloadFile.toAbsolutePath());
+    } else {
+      workload = SearchWorkload.generate(seed, workloadSize, catalogGenerator);
+      workload.write(workloadFile);
+      log.info("Wrote {} operations to {}", workload.steps().size(), workloadFile.toAbsolutePath());
+    }
+
+    // Lists computed during warm-up count as computed in the measured run too
+    Set<String> similarRequested = new HashSet<>();
+    for (int round = 0; round < warmupRounds; round++) {
+      replay(workload, new Results(), similarRequested);
+    }
+    Results results = new Results();
+    long startTime = System.nanoTime();
+    replay(workload, results, similarRequested);
+    long elapsed = System.nanoTime() - startTime;
+
+    log.info("Search benchmark: {} operations in {}ms ({} errors)",
+        workload.steps().size(), TimeUnit.NANOSECONDS.toMillis(elapsed), results.errors);
+    log.info(String.format("%-26s %8s %9s %9s %9s %9s", "operation", "count", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+    results.latencies.forEach((operation, latencies) -> log.info(latencies.report(operation)));
+    errors = results.errors;
+  }
+
+  @Override
+  public int getExitCode() {
+    return errors > 0 ? 1 : 0;
+  }
+
+
+  private void replay(SearchWorkload workload, Results results, Set<String> similarRequested) {
+    for (SearchWorkload.Step step : workload.steps()) {
+      long start = System.nanoTime();
+      try {
+        String operation = switch (step.operation()) {
+          case SEARCH -> {
+            SearchResultResponse response = productSearchService.search(step.search());
+            yield response.isFallback() ? "search (fallback)"
+                : response.isCacheHit() ? "search (cache hit)" : "search";
+          }
+          case AUTOCOMPLETE -> {
+            productSearchService.autocomplete(step.prefix(), 10);
+            yield "autocomplete";
+          }
+          case SIMILAR -> {
+            boolean first = similarRequested.add(step.productId());
+            similarProductsService.getSimilarProducts(step.productId(), 6);
+            yield first ? "similar (first request)" : "similar";
+          }
+        };
+        results.record(operation, System.nanoTime() - start);
+      } catch (Exception e) {
+        results.errors++;
+        log.debug("Benchmark {} failed: {}", step.operation(), e.getMessage());
+      }
+    }
+  }
+
+  private static class Results {
+    final Map<String, Latencies> latencies = new LinkedHashMap<>();
+    int errors;
+
+    void record(String operation, long nanos) {
+      latencies.computeIfAbsent(operation, key -> new Latencies()).add(nanos);
+    }
+  }
+
+  private static class Latencies {
+    private long[] values = new long[1024];
+    private int count;
+
+    void add(long nanos) {
+      if (count == values.length) {
+        values = Arrays.copyOf(values, count * 2);
+      }
+      values[count++] = nanos;
+    }
+
+    String report(String operation) {
+      long[] sorted = Arrays.copyOf(values, count);
+      Arrays.sort(sorted);
+      return String.format("%-26s %8d %9.1f %9.1f %9.1f %9.1f", operation, count,
+          millis(percentile(sorted, 50)), millis(percentile(sorted, 95)),
+          millis(percentile(sorted, 99)), millis(sorted[count - 1]));
+    }
+
+    /** Nearest-rank percentile. */
+    private static long percentile(long[] sorted, int percentile) {
+      int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+      return sorted[Math.max(rank - 1, 0)];
+    }
+
+    private static double millis(long nanos) {
+      return nanos / 1_000_000.0;
+    }
+  }
+}
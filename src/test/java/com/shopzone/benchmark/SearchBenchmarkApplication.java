@@ -0,0 +1,27 @@
+package com.shopzone.benchmark;
+
+import com.shopzone.ShopzoneApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Starts the application with the "benchmark" profile, runs {@link SearchBenchmark} and
+ * exits. Lives in the test sources so the generator, which replaces the bench- data in
+ * whatever MongoDB and Elasticsearch it is pointed at, never ships in the application jar:
+ *
+ * <pre>
+ * ./mvnw spring-boot:test-run \
+ *     -Dspring-boot.run.main-class=com.shopzone.benchmark.SearchBenchmarkApplication \
+ *     -Dspring-boot.run.arguments="--shopzone.benchmark.products=100000"
+ * </pre>
+ */
+public class SearchBenchmarkApplication {
+
+  public static void main(String[] args) {
+    ConfigurableApplicationContext context = new SpringApplicationBuilder(ShopzoneApplication.class)
+        .profiles("benchmark")
+        .run(args);
+    System.exit(SpringApplication.exit(context));
+  }
+}
@@ -0,0 +1,135 @@
+package com.shopzone.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopzone.dto.request.ProductSearchRequest;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A replayable list of search operations against the synthetic catalog, stored as JSON
+ * lines so the same workload can be replayed before and after a change.
+ *
+ * The mix is roughly 60% search (free text and browsing with filters, sorts and facets),
+ * 30% autocomplete and 10% similar products. Brands and tags are drawn with the
+ * catalog's Zipf distribution, so popular values are queried most often.
+ */
+class SearchWorkload {
+
+  enum Operation { SEARCH, AUTOCOMPLETE, SIMILAR }
+
+  record Step(Operation operation, ProductSearchRequest search, String prefix, String productId) {}
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  private static final List<String> SORTS = List.of("relevance", "price", "rating", "newest", "name");
+
+  private final List<Step> steps;
+
+  private SearchWorkload(List<Step> steps) {
+    this.steps = steps;
+  }
+
+  List<Step> steps() {
+    return steps;
+  }
+
+  static SearchWorkload generate(long seed, int size, SyntheticCatalogGenerator catalog) {
+    Random random = new Random(seed);
+    CatalogVocabulary vocabulary = catalog.vocabulary();
+    ZipfDistribution brands = catalog.brandDistribution();
+    ZipfDistribution tags = catalog.tagDistribution();
+    int productCount = catalog.getProductCount();
+
+    List<Step> steps = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      int kind = random.nextInt(10);
+      if (kind < 6) {
+        steps.add(new Step(Operation.SEARCH, searchRequest(random, catalog, vocabulary, brands, tags), null, null));
+      } else if (kind < 9) {
+        String word = random.nextBoolean()
+            ? CatalogVocabulary.pick(CatalogVocabulary.ADJECTIVES, random)
+            : vocabulary.brand(brands.sample(random)).toLowerCase();
+        String prefix = word.substring(0, Math.min(word.length(), 2 + random.nextInt(5)));
+        steps.add(new Step(Operation.AUTOCOMPLETE, null, prefix, null));
+      } else {
+        String productId = SyntheticCatalogGenerator.productId(random.nextInt(productCount));
+        steps.add(new Step(Operation.SIMILAR, null, null, productId));
+      }
+    }
+    return new SearchWorkload(steps);
+  }
+
+  static SearchWorkload read(Path file) throws IOException {
+    List<Step> steps = new ArrayList<>();
+    try (BufferedReader reader = Files.newBufferedReader(file)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (!line.isBlank()) {
+          steps.add(MAPPER.readValue(line, Step.class));
+        }
+      }
+    }
+    return new SearchWorkload(steps);
+  }
+
+  void write(Path file) throws IOException {
+    try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+      for (Step step : steps) {
+        writer.write(MAPPER.writeValueAsString(step));
+        writer.newLine();
+      }
+    }
+  }
+
+
+  private static ProductSearchRequest searchRequest(Random random, SyntheticCatalogGenerator catalog,
+      CatalogVocabulary vocabulary, ZipfDistribution brands, ZipfDistribution tags) {
+    ProductSearchRequest request = new ProductSearchRequest();
+
+    boolean text = random.nextInt(10) < 6;
+    if (text) {
+      String query = CatalogVocabulary.pick(CatalogVocabulary.NOUNS, random);
+      if (random.nextBoolean()) {
+        query = CatalogVocabulary.pick(CatalogVocabulary.ADJECTIVES, random) + " " + query;
+      }
+      request.setQuery(query);
+    }
+
+    // Browsing applies filters more often than text search
+    int filterChance = text ? 4 : 2;
+    if (random.nextInt(filterChance) == 0) {
+      request.setCategoryId(catalog.leafCategoryId(random));
+    }
+    if (random.nextInt(filterChance) == 0) {
+      request.setBrand(vocabulary.brand(brands.sample(random)));
+    }
+    if (random.nextInt(filterChance) == 0) {
+      request.setTags(List.of(vocabulary.tag(tags.sample(random))));
+    }
+    if (random.nextInt(filterChance) == 0) {
+      double min = random.nextInt(10) * 10;
+      request.setMinPrice(min);
+      request.setMaxPrice(min + 25 + random.nextInt(200));
+    }
+    if (random.nextInt(filterChance * 2) == 0) {
+      request.setMinRating((double) (1 + random.nextInt(4)));
+    }
+    if (random.nextInt(filterChance * 2) == 0) {
+      request.setInStock(true);
+    }
+
+    request.setSortBy(text && random.nextBoolean() ? "relevance" : CatalogVocabulary.pick(SORTS, random));
+    request.setSortDir(random.nextBoolean() ? "asc" : "desc");
+    request.setIncludeFacets(random.nextInt(10) < 3);
+    // Mostly the first pages, with an occasional deep one
+    request.setPage(random.nextInt(10) == 0 ? 5 + random.nextInt(50) : random.nextInt(3));
+    request.setSize(random.nextBoolean() ? 12 : 24);
+    return request;
+  }
+}
@@ -0,0 +1,254 @@
+package com.shopzone.benchmark;
+
+import com.mongodb.client.model.InsertManyOptions;
+import com.shopzone.model.Category;
+import com.shopzone.model.Product;
+import com.shopzone.model.SimilarProducts;
+import com.shopzone.model.elasticsearch.ProductDocument;
+import com.shopzone.service.ProductReindexService;
+import com.shopzone.service.ProductSyncService;
+import com.shopzone.service.SearchResultCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.BulkOptions;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * Generates a seeded synthetic catalog into MongoDB and Elasticsearch.
+ *
+ * Categories form a tree of the configured depth and fan-out; products go to leaf
+ * categories. Brands and tags follow a Zipf distribution, names and descriptions are
+ * built from a fixed vocabulary, and prices are log-normal. The same seed always gives
+ * the same catalog. All ids start with "bench-" so a run replaces the previous synthetic
+ * catalog and never touches real data.
+ *
+ * Products are written straight to the collection and the index, bypassing the search
+ * outbox, which would otherwise reindex every generated product one batch at a time.
+ */
+@Component
+@Profile("benchmark")
+@RequiredArgsConstructor
+@Slf4j
+public class SyntheticCatalogGenerator {
+
+  static final String ID_PREFIX = "bench-";
+  static final int MIN_PRODUCTS = 10_000;
+  static final int MAX_PRODUCTS = 5_000_000;
+
+  private final MongoTemplate mongoTemplate;
+  private final ElasticsearchOperations elasticsearchOperations;
+  private final ProductSyncService productSyncService;
+  private final SearchResultCache searchResultCache;
+
+  @Value("${shopzone.benchmark.seed:42}")
+  private long seed;
+
+  @Value("${shopzone.benchmark.products:10000}")
+  private int productCount;
+
+  @Value("${shopzone.benchmark.category-depth:3}")
+  private int categoryDepth;
+
+  @Value("${shopzone.benchmark.category-fanout:5}")
+  private int categoryFanout;
+
+  @Value("${shopzone.benchmark.brands:500}")
+  private int brandCount;
+
+  @Value("${shopzone.benchmark.brand-zipf-exponent:1.1}")
+  private double brandZipfExponent;
+
+  @Value("${shopzone.benchmark.tags:300}")
+  private int tagCount;
+
+  @Value("${shopzone.benchmark.batch-size:2000}")
+  private int batchSize;
+
+
+  public void generate() {
+    if (productCount < MIN_PRODUCTS || productCount > MAX_PRODUCTS) {
+      throw new IllegalArgumentException("shopzone.benchmark.products must be between "
+          + MIN_PRODUCTS + " and " + MAX_PRODUCTS + ", was " + productCount);
+    }
+    long startTime = System.currentTimeMillis();
+    Random random = new Random(seed);
+    CatalogVocabulary vocabulary = vocabulary();
+    ZipfDistribution brands = brandDistribution();
+    ZipfDistribution tags = tagDistribution();
+
+    clear();
+    List<Category> leaves = generateCategories();
+
+    String collection = mongoTemplate.getCollectionName(Product.class);
+    IndexCoordinates index = IndexCoordinates.of(ProductReindexService.ALIAS);
+    LocalDateTime now = LocalDateTime.now();
+
+    List<Document> documents = new ArrayList<>(batchSize);
+    List<IndexQuery> queries = new ArrayList<>(batchSize);
+    for (int n = 0; n < productCount; n++) {
+      Category category = leaves.get(random.nextInt(leaves.size()));
+      Product product = generateProduct(n, category, vocabulary, brands, tags, random, now);
+
+      Document document = new Document();
+      mongoTemplate.getConverter().write(product, document);
+      documents.add(document);
+      queries.add(new IndexQueryBuilder()
+          .withId(product.getId())
+          .withObject(productSyncService.convertToDocument(product, category))
+          .build());
+
+      if (documents.size() == batchSize || n == productCount - 1) {
+        mongoTemplate.getCollection(collection).insertMany(documents, new InsertManyOptions().ordered(false));
+        elasticsearchOperations.bulkIndex(queries, BulkOptions.defaultOptions(), index);
+        documents.clear();
+        queries.clear();
+        if ((n + 1) % (batchSize * 50) == 0) {
+          log.info("Generated {} of {} products", n + 1, productCount);
+        }
+      }
+    }
+
+    elasticsearchOperations.indexOps(index).refresh();
+    searchResultCache.invalidate();
+    log.info("Generated {} products in {} categories ({} brands, {} tags) in {}ms",
+        productCount, leaves.size(), brandCount, tagCount, System.currentTimeMillis() - startTime);
+  }
+
+  CatalogVocabulary vocabulary() {
+    return new CatalogVocabulary(seed, brandCount, tagCount);
+  }
+
+  ZipfDistribution brandDistribution() {
+    return new ZipfDistribution(brandCount, brandZipfExponent);
+  }
+
+  ZipfDistribution tagDistribution() {
+    return new ZipfDistribution(tagCount, 1.0);
+  }
+
+  String leafCategoryId(Random random) {
+    StringJoiner path = new StringJoiner(".");
+    for (int depth = 1; depth <= categoryDepth; depth++) {
+      path.add(String.valueOf(1 + random.nextInt(categoryFanout)));
+    }
+    return ID_PREFIX + "c-" + path;
+  }
+
+  int getProductCount() {
+    return productCount;
+  }
+
+  static String productId(int n) {
+    return String.format("%sp-%07d", ID_PREFIX, n);
+  }
+
+
+  private void clear() {
+    Criteria benchIds = Criteria.where("_id").regex("^" + ID_PREFIX);
+    mongoTemplate.remove(Query.query(benchIds), Product.class);
+    mongoTemplate.remove(Query.query(benchIds), Category.class);
+    mongoTemplate.remove(Query.query(benchIds), SimilarProducts.class);
+
+    NativeQuery benchDocuments = NativeQuery.builder()
+        .withQuery(q -> q.prefix(p -> p.field("id").value(ID_PREFIX)))
+        .build();
+    elasticsearchOperations.delete(benchDocuments, ProductDocument.class,
+        IndexCoordinates.of(ProductReindexService.ALIAS));
+  }
+
+  /**
+   * Category tree with {@code categoryDepth} levels of {@code categoryFanout} children
+   * each; returns the leaves.
+   */
+  private List<Category> generateCategories() {
+    List<Category> all = new ArrayList<>();
+    List<Category> level = new ArrayList<>();
+    List<String> paths = new ArrayList<>();
+    level.add(null);
+    paths.add("");
+    for (int depth = 1; depth <= categoryDepth; depth++) {
+      List<Category> nextLevel = new ArrayList<>();
+      List<String> nextPaths = new ArrayList<>();
+      for (int i = 0; i < level.size(); i++) {
+        Category parent = level.get(i);
+        for (int child = 1; child <= categoryFanout; child++) {
+          // Dotted position in the tree, e.g. 2.4.1
+          String path = paths.get(i).isEmpty() ? String.valueOf(child) : paths.get(i) + "." + child;
+          nextLevel.add(Category.builder()
+              .id(ID_PREFIX + "c-" + path)
+              .name("Bench Category " + path)
+              .slug(ID_PREFIX + "category-" + path.replace('.', '-'))
+              .parentId(parent != null ? parent.getId() : null)
+              .displayOrder(child)
+              .build());
+          nextPaths.add(path);
+        }
+      }
+      all.addAll(nextLevel);
+      level = nextLevel;
+      paths = nextPaths;
+    }
+    mongoTemplate.insertAll(all);
+    return level;
+  }
+
+  private static Product generateProduct(int n, Category category, CatalogVocabulary vocabulary,
+      ZipfDistribution brands, ZipfDistribution tags, Random random, LocalDateTime now) {
+    String id = productId(n);
+    String name = CatalogVocabulary.productName(random);
+
+    Set<String> productTags = new LinkedHashSet<>();
+    int tagTotal = 1 + random.nextInt(5);
+    while (productTags.size() < tagTotal) {
+      productTags.add(vocabulary.tag(tags.sample(random)));
+    }
+
+    // Log-normal around ~50 with a long tail of expensive products
+    BigDecimal price = BigDecimal.valueOf(Math.exp(3.9 + random.nextGaussian() * 0.9))
+        .setScale(2, RoundingMode.HALF_UP)
+        .max(BigDecimal.ONE);
+    boolean onSale = random.nextInt(5) == 0;
+    int reviewCount = random.nextInt(4) == 0 ? 0 : random.nextInt(500);
+
+    return Product.builder()
+        .id(id)
+        .name(name)
+        .description(CatalogVocabulary.description(random, name))
+        .slug(id + "-" + name.toLowerCase().replaceAll("[^a-z0-9]+", "-"))
+        .sku("BENCH-" + String.format("%07d", n))
+        .price(price)
+        .discountPrice(onSale ? price.multiply(BigDecimal.valueOf(0.8)).setScale(2, RoundingMode.HALF_UP) : null)
+        .discountPercentage(onSale ? 20 : null)
+        .stock(random.nextInt(10) == 0 ? 0 : random.nextInt(500))
+        .categoryId(category.getId())
+        .brand(vocabulary.brand(brands.sample(random)))
+        .tags(new ArrayList<>(productTags))
+        .active(random.nextInt(50) != 0)
+        .averageRating(reviewCount == 0 ? 0.0 : Math.round((1 + random.nextDouble() * 4) * 10) / 10.0)
+        .reviewCount(reviewCount)
+        .createdAt(now.minusMinutes(random.nextInt(365 * 24 * 60)))
+        .updatedAt(now)
+        .build();
+  }
+}
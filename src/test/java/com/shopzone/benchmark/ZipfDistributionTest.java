@@ -0,0 +1,75 @@
+package com.shopzone.benchmark;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ZipfDistributionTest {
+
+  private static final int SAMPLES = 200_000;
+
+  @Test
+  @DisplayName("Should sample ranks in range, lower ranks more often")
+  void sample_ReturnsRanksInRankOrder() {
+    ZipfDistribution distribution = new ZipfDistribution(10, 1.0);
+    Random random = new Random(42);
+
+    int[] counts = new int[10];
+    for (int i = 0; i < SAMPLES; i++) {
+      int rank = distribution.sample(random);
+      assertThat(rank).isBetween(0, 9);
+      counts[rank]++;
+    }
+
+    for (int rank = 1; rank < counts.length; rank++) {
+      assertThat(counts[rank]).isLessThan(counts[rank - 1]);
+    }
+    // P(0) = 1 / H(10) for exponent 1
+    double harmonic = IntStream.rangeClosed(1, 10).mapToDouble(k -> 1.0 / k).sum();
+    assertThat(counts[0] / (double) SAMPLES).isCloseTo(1 / harmonic, within(0.01));
+  }
+
+  @Test
+  @DisplayName("Should be uniform with exponent 0")
+  void sample_WithZeroExponent_IsUniform() {
+    ZipfDistribution distribution = new ZipfDistribution(4, 0.0);
+    Random random = new Random(7);
+
+    int[] counts = new int[4];
+    for (int i = 0; i < SAMPLES; i++) {
+      counts[distribution.sample(random)]++;
+    }
+
+    for (int count : counts) {
+      assertThat(count / (double) SAMPLES).isCloseTo(0.25, within(0.01));
+    }
+  }
+
+  @Test
+  @DisplayName("Should return the same ranks for the same seed")
+  void sample_WithSameSeed_IsDeterministic() {
+    ZipfDistribution distribution = new ZipfDistribution(1000, 1.2);
+    Random first = new Random(1234);
+    Random second = new Random(1234);
+
+    for (int i = 0; i < 1000; i++) {
+      assertThat(distribution.sample(first)).isEqualTo(distribution.sample(second));
+    }
+  }
+
+  @Test
+  @DisplayName("Should always return rank 0 for a single value")
+  void sample_WithSingleValue_ReturnsZero() {
+    ZipfDistribution distribution = new ZipfDistribution(1, 1.0);
+    Random random = new Random(1);
+
+    for (int i = 0; i < 100; i++) {
+      assertThat(distribution.sample(random)).isZero();
+    }
+  }
+}
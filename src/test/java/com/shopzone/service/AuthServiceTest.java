@@ -44,6 +44,12 @@ class AuthServiceTest {
   @Mock
   private AuthenticationManager authenticationManager;
 
+  @Mock
+  private UserService userService;
+
+  @Mock
+  private ReportRollupService reportRollupService;
+
   @InjectMocks
   private AuthService authService;
 
@@ -0,0 +1,63 @@
+package com.shopzone.service;
+
+import com.shopzone.exception.BadRequestException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProductSearchCursorTest {
+
+  @Test
+  @DisplayName("Should decode an encoded cursor to the same sort values")
+  void decodeCursor_WithEncodedCursor_ReturnsSortValues() {
+    String cursor = ProductSearchService.encodeCursor(List.of(1700000000000L, "product-1"));
+
+    assertThat(cursor).matches("[A-Za-z0-9_-]+");
+    assertThat(ProductSearchService.decodeCursor(cursor)).containsExactly(1700000000000L, "product-1");
+  }
+
+  @Test
+  @DisplayName("Should keep fractional sort values")
+  void decodeCursor_WithScore_ReturnsScore() {
+    String cursor = ProductSearchService.encodeCursor(List.of(12.75, "product-1"));
+
+    assertThat(ProductSearchService.decodeCursor(cursor)).containsExactly(12.75, "product-1");
+  }
+
+  @Test
+  @DisplayName("Should reject a cursor that is not Base64 JSON")
+  void decodeCursor_WithGarbage_ThrowsBadRequestException() {
+    assertThatThrownBy(() -> ProductSearchService.decodeCursor("not a cursor!"))
+        .isInstanceOf(BadRequestException.class)
+        .hasMessage("Invalid search cursor");
+    assertThatThrownBy(() -> ProductSearchService.decodeCursor("bm90IGpzb24"))
+        .isInstanceOf(BadRequestException.class);
+  }
+
+  @Test
+  @DisplayName("Should reject a cursor with the wrong number of sort values")
+  void decodeCursor_WithWrongArity_ThrowsBadRequestException() {
+    assertThatThrownBy(() -> ProductSearchService.decodeCursor(ProductSearchService.encodeCursor(List.of("product-1"))))
+        .isInstanceOf(BadRequestException.class);
+    assertThatThrownBy(() -> ProductSearchService.decodeCursor(
+        ProductSearchService.encodeCursor(List.of(1.0, 2.0, "product-1"))))
+        .isInstanceOf(BadRequestException.class);
+  }
+
+  @Test
+  @DisplayName("Should reject a cursor with non-scalar sort values")
+  void decodeCursor_WithNonScalarValues_ThrowsBadRequestException() {
+    assertThatThrownBy(() -> ProductSearchService.decodeCursor(
+        ProductSearchService.encodeCursor(List.of(Map.of("score", 1), "product-1"))))
+        .isInstanceOf(BadRequestException.class);
+    assertThatThrownBy(() -> ProductSearchService.decodeCursor(
+        ProductSearchService.encodeCursor(Arrays.asList(null, "product-1"))))
+        .isInstanceOf(BadRequestException.class);
+  }
+}
@@ -0,0 +1,151 @@
+package com.shopzone.service;
+
+import com.shopzone.model.Product;
+import com.shopzone.model.elasticsearch.ProductDocument;
+import com.shopzone.repository.mongo.CategoryRepository;
+import com.shopzone.repository.mongo.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSearchOutboxTest {
+
+  @Mock
+  private MongoTemplate mongoTemplate;
+
+  @Mock
+  private ProductRepository productRepository;
+
+  @Mock
+  private CategoryRepository categoryRepository;
+
+  @Mock
+  private ElasticsearchOperations elasticsearchOperations;
+
+  @Mock
+  private ProductSyncService productSyncService;
+
+  @Mock
+  private SearchResultCache searchResultCache;
+
+  @Mock
+  private SimilarProductsService similarProductsService;
+
+  @Mock
+  private BulkOperations bulkOperations;
+
+  private ProductSearchOutbox outbox;
+  private Product product;
+
+  @BeforeEach
+  void setUp() {
+    outbox = new ProductSearchOutbox(mongoTemplate, productRepository, categoryRepository,
+        elasticsearchOperations, productSyncService, searchResultCache, similarProductsService,
+        new SimpleMeterRegistry());
+    ReflectionTestUtils.setField(outbox, "batchSize", 500);
+    ReflectionTestUtils.setField(outbox, "retryBackoff", Duration.ofSeconds(5));
+    ReflectionTestUtils.setField(outbox, "maxRetryBackoff", Duration.ofMinutes(10));
+
+    product = Product.builder()
+        .id("product-1")
+        .name("Trail Shoe")
+        .searchSyncToken("token-1")
+        .build();
+  }
+
+  @Test
+  @DisplayName("Should clear the pending flag only while the sync token is unchanged")
+  void drain_WhenIndexed_ClearsFlagConditionalOnToken() {
+    // Given
+    givenPendingProduct();
+    when(productSyncService.convertToDocument(any(Product.class), any()))
+        .thenReturn(ProductDocument.builder().id("product-1").build());
+
+    // When
+    int synced = outbox.drain();
+
+    // Then
+    assertThat(synced).isEqualTo(1);
+
+    ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+    ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+    verify(bulkOperations).updateOne(query.capture(), update.capture());
+    verify(bulkOperations).execute();
+
+    assertThat(query.getValue().getQueryObject())
+        .containsEntry("id", "product-1")
+        .containsEntry("searchSyncToken", "token-1");
+    assertThat(update.getValue().getUpdateObject().get("$unset", Document.class))
+        .containsKeys("searchSyncRequestedAt", "searchPartialSyncRequestedAt", "searchSyncToken");
+    verify(searchResultCache).invalidate();
+  }
+
+  @Test
+  @DisplayName("Should keep a failed product pending and schedule a retry")
+  void drain_WhenIndexFails_SchedulesRetryConditionalOnToken() {
+    // Given
+    product.setSearchSyncAttempts(2);
+    givenPendingProduct();
+    when(productSyncService.convertToDocument(any(Product.class), any()))
+        .thenReturn(ProductDocument.builder().id("product-1").build());
+    when(elasticsearchOperations.bulkIndex(anyList(), eq(ProductDocument.class)))
+        .thenThrow(new RuntimeException("Connection refused"));
+
+    // When
+    int synced = outbox.drain();
+
+    // Then
+    assertThat(synced).isZero();
+
+    ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+    ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+    verify(bulkOperations).updateOne(query.capture(), update.capture());
+
+    assertThat(query.getValue().getQueryObject())
+        .containsEntry("id", "product-1")
+        .containsEntry("searchSyncToken", "token-1");
+    Document set = update.getValue().getUpdateObject().get("$set", Document.class);
+    assertThat(set).containsEntry("searchSyncAttempts", 3).containsKey("searchSyncRetryAt");
+    assertThat(update.getValue().getUpdateObject()).doesNotContainKey("$unset");
+    verify(searchResultCache, never()).invalidate();
+  }
+
+  @Test
+  @DisplayName("Should double the retry backoff up to its cap")
+  void backoff_DoublesUpToCap() {
+    assertThat(outbox.backoff(0)).isEqualTo(Duration.ofSeconds(5));
+    assertThat(outbox.backoff(1)).isEqualTo(Duration.ofSeconds(10));
+    assertThat(outbox.backoff(2)).isEqualTo(Duration.ofSeconds(20));
+    assertThat(outbox.backoff(6)).isEqualTo(Duration.ofSeconds(320));
+    assertThat(outbox.backoff(7)).isEqualTo(Duration.ofMinutes(10));
+    assertThat(outbox.backoff(1000)).isEqualTo(Duration.ofMinutes(10));
+  }
+
+  private void givenPendingProduct() {
+    when(mongoTemplate.find(any(Query.class), eq(Product.class)))
+        .thenReturn(List.of(product), List.of());
+    when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class)).thenReturn(bulkOperations);
+  }
+}
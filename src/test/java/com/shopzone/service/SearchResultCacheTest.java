@@ -0,0 +1,78 @@
+package com.shopzone.service;
+
+import com.shopzone.dto.request.ProductSearchRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(MockitoExtension.class)
+class SearchResultCacheTest {
+
+  @Mock
+  private StringRedisTemplate redisTemplate;
+
+  private SearchResultCache cache;
+
+  @BeforeEach
+  void setUp() {
+    cache = new SearchResultCache(new SimpleMeterRegistry(), redisTemplate);
+  }
+
+  @Test
+  @DisplayName("Should share a key between requests differing only in case, whitespace and tag order")
+  void key_WithEquivalentRequests_ReturnsSameKey() {
+    ProductSearchRequest request = ProductSearchRequest.builder()
+        .query("running shoes")
+        .brand("nike")
+        .tags(List.of("outdoor", "sale"))
+        .sortDir("desc")
+        .build();
+    ProductSearchRequest equivalent = ProductSearchRequest.builder()
+        .query("  Running \t SHOES ")
+        .brand("NIKE")
+        .tags(List.of("sale", "outdoor", "sale"))
+        .sortDir("DESC")
+        .build();
+
+    assertThat(cache.key(equivalent)).isEqualTo(cache.key(request));
+  }
+
+  @Test
+  @DisplayName("Should treat null and blank filters alike")
+  void key_WithBlankFilters_ReturnsSameKeyAsNull() {
+    ProductSearchRequest request = ProductSearchRequest.builder().query("lamp").build();
+    ProductSearchRequest blank = ProductSearchRequest.builder()
+        .query("lamp ")
+        .categoryId(" ")
+        .brand("")
+        .tags(List.of())
+        .inStock(false)
+        .build();
+
+    assertThat(cache.key(blank)).isEqualTo(cache.key(request));
+  }
+
+  @Test
+  @DisplayName("Should keep exact-match filters and paging distinct")
+  void key_WithDifferentExactFilters_ReturnsDifferentKeys() {
+    ProductSearchRequest request = ProductSearchRequest.builder().query("lamp").categoryId("abc").build();
+
+    assertThat(cache.key(ProductSearchRequest.builder().query("lamp").categoryId("ABC").build()))
+        .isNotEqualTo(cache.key(request));
+    assertThat(cache.key(ProductSearchRequest.builder().query("lamp").categoryId("abc").page(1).build()))
+        .isNotEqualTo(cache.key(request));
+    assertThat(cache.key(ProductSearchRequest.builder().query("lamp").categoryId("abc").sortDir("asc").build()))
+        .isNotEqualTo(cache.key(request));
+    assertThat(cache.key(ProductSearchRequest.builder().query("lamp").categoryId("abc").tags(List.of("Sale")).build()))
+        .isNotEqualTo(cache.key(ProductSearchRequest.builder().query("lamp").categoryId("abc").tags(List.of("sale")).build()));
+  }
+}